@@ -0,0 +1,100 @@
+-- Chat search benchmark: GET /chat/search query plans over a generated dataset.
+--
+--   psql "$DATABASE_URL" -v rows=5000000 -f bench/chat-search.sql
+--
+-- Builds a scratch schema (chat_search_bench) that mirrors chat_message after V11:
+-- same generated search_vector, same GIN and keyset indexes. It then runs the
+-- repository's search queries under EXPLAIN (ANALYZE, BUFFERS). Expected plan: a
+-- bitmap index scan on idx_chat_message_search, heap visits for the matched rows only,
+-- and a top-N sort. A Seq Scan on chat_message means the index is not being used.
+-- Drop the schema afterwards: DROP SCHEMA chat_search_bench CASCADE;
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+  \set rows 5000000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS chat_search_bench CASCADE;
+CREATE SCHEMA chat_search_bench;
+SET search_path = chat_search_bench;
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE
+);
+INSERT INTO users SELECT g, 'user' || g || '@bench.local' FROM generate_series(1, 2000) g;
+
+CREATE TABLE chat_message (
+    id BIGINT PRIMARY KEY,
+    sender_id BIGINT NOT NULL,
+    receiver_id BIGINT NOT NULL,
+    message TEXT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', message)) STORED
+);
+
+-- Zipf-ish vocabulary: low word numbers are common, high ones rare. Each message has
+-- 4 to 12 words, and 1 in 20 messages carries a Korean phrase.
+INSERT INTO chat_message (id, sender_id, receiver_id, message, created_at)
+SELECT g,
+       1 + (g * 7919) % 2000,
+       1 + (g * 104729 + 1) % 2000,
+       (SELECT string_agg('w' || floor(power(random(), 3) * 50000)::int, ' ')
+        FROM generate_series(1, 4 + (g % 9)))
+           || CASE WHEN g % 20 = 0 THEN ' 회의 일정 확인' ELSE '' END,
+       TIMESTAMP '2024-01-01' + (g || ' seconds')::interval
+FROM generate_series(1, :rows) g;
+
+CREATE INDEX idx_chat_message_search ON chat_message USING GIN (search_vector);
+CREATE INDEX idx_chat_message_pair_keyset ON chat_message(
+    LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), created_at DESC, id DESC);
+CREATE INDEX idx_chat_message_receiver_id ON chat_message(receiver_id, id);
+VACUUM ANALYZE chat_message;
+VACUUM ANALYZE users;
+
+SELECT count(*) AS messages, pg_size_pretty(pg_relation_size('chat_message')) AS heap,
+       pg_size_pretty(pg_relation_size('idx_chat_message_search')) AS gin
+FROM chat_message;
+
+-- Same shape as ChatMessageRepository.search / searchAfter
+PREPARE search_first(bigint, text, int) AS
+SELECT m.id, p.email AS partner_email, s.email AS sender_email, m.message, m.created_at,
+       ts_rank(m.search_vector, q.query) AS rank
+FROM chat_message m
+CROSS JOIN websearch_to_tsquery('simple', $2) AS q(query)
+JOIN users s ON s.id = m.sender_id
+JOIN users p ON p.id = CASE WHEN m.sender_id = $1 THEN m.receiver_id ELSE m.sender_id END
+WHERE m.search_vector @@ q.query AND (m.sender_id = $1 OR m.receiver_id = $1)
+ORDER BY rank DESC, m.id DESC
+LIMIT $3;
+
+PREPARE search_after(bigint, text, real, bigint, int) AS
+SELECT m.id, p.email AS partner_email, s.email AS sender_email, m.message, m.created_at,
+       ts_rank(m.search_vector, q.query) AS rank
+FROM chat_message m
+CROSS JOIN websearch_to_tsquery('simple', $2) AS q(query)
+JOIN users s ON s.id = m.sender_id
+JOIN users p ON p.id = CASE WHEN m.sender_id = $1 THEN m.receiver_id ELSE m.sender_id END
+WHERE m.search_vector @@ q.query AND (m.sender_id = $1 OR m.receiver_id = $1)
+  AND (ts_rank(m.search_vector, q.query), m.id) < ($3, $4)
+ORDER BY rank DESC, m.id DESC
+LIMIT $5;
+
+-- Rare term: a handful of matches across the whole table
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search_first(42, 'w49000', 51);
+-- Two-word AND of mid-frequency terms
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search_first(42, 'w900 w1200', 51);
+-- Common term: the GIN scan returns many rows and the user filter does the narrowing
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search_first(42, 'w3', 51);
+-- Korean phrase
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search_first(42, '"회의 일정"', 51);
+-- Second page of the common term
+EXPLAIN (ANALYZE, BUFFERS) EXECUTE search_after(42, 'w3', 0.06, 4000000, 51);
+
+-- Baseline the index replaces: unindexed substring scan
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT id FROM chat_message
+WHERE message ILIKE '%w49000%' AND (sender_id = 42 OR receiver_id = 42)
+ORDER BY id DESC LIMIT 51;
@@ -0,0 +1,159 @@
+package com.example.sse.loadgen;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scripted call between two virtual users, driven by what each side receives:
+ *
+ *   caller OFFER -> callee gets it, sends ANSWER -> caller gets it, both sides send
+ *   CANDIDATEs -> after the hold time caller sends HANGUP -> callee gets it, call done
+ *
+ * then the pair thinks and dials again. Every payload starts with
+ * {@code lg|<callId>|<sendNanos>|} so the receiver can compute delivery latency and
+ * ignore frames from a call it already gave up on. A call that makes no progress for
+ * the signal timeout is abandoned with a HANGUP so the server closes its session.
+ */
+final class CallScript {
+
+    private static final String PREFIX = "lg|";
+
+    private final VirtualUser caller;
+    private final VirtualUser callee;
+    private final LoadConfig config;
+    private final LatencyStats stats;
+    private final ScheduledExecutorService timer;
+    private final String sdpPadding;
+    private final String candidatePadding;
+
+    // Guarded by this
+    private long callId;
+    private ScheduledFuture<?> pending;
+    private boolean running;
+
+    CallScript(VirtualUser caller, VirtualUser callee, LoadConfig config, LatencyStats stats,
+               ScheduledExecutorService timer) {
+        this.caller = caller;
+        this.callee = callee;
+        this.config = config;
+        this.stats = stats;
+        this.timer = timer;
+        this.sdpPadding = "v".repeat(config.sdpBytes);
+        // Roughly the size of a host ICE candidate line
+        this.candidatePadding = "c".repeat(160);
+        caller.join(this);
+        callee.join(this);
+    }
+
+    static boolean isGenerated(String data) {
+        return data.startsWith(PREFIX);
+    }
+
+    synchronized void start() {
+        running = true;
+        dial();
+    }
+
+    synchronized void stop() {
+        running = false;
+        cancelPending();
+    }
+
+    synchronized void onSignal(VirtualUser receiver, String type, String data, long receivedAtNanos) {
+        int idEnd = data.indexOf('|', PREFIX.length());
+        int sentEnd = data.indexOf('|', idEnd + 1);
+        if (idEnd < 0 || sentEnd < 0) {
+            return;
+        }
+        long id = Long.parseLong(data, PREFIX.length(), idEnd, 10);
+        long sentAt = Long.parseLong(data, idEnd + 1, sentEnd, 10);
+        LatencyStats.Kind kind = kindOf(type);
+        if (kind != null) {
+            // Late frames of an abandoned call were still delivered; they count too
+            stats.record(kind, receivedAtNanos - sentAt);
+        }
+        if (!running || id != callId) {
+            return;
+        }
+        if (kind == LatencyStats.Kind.OFFER && receiver == callee) {
+            armTimeout();
+            send(callee, caller, "ANSWER", sdpPadding);
+        } else if (kind == LatencyStats.Kind.ANSWER && receiver == caller) {
+            for (int i = 0; i < config.candidates; i++) {
+                send(caller, callee, "CANDIDATE", candidatePadding);
+                send(callee, caller, "CANDIDATE", candidatePadding);
+            }
+            cancelPending();
+            pending = timer.schedule(() -> hangUp(id), config.hold.toMillis(), TimeUnit.MILLISECONDS);
+        } else if (kind == LatencyStats.Kind.HANGUP && receiver == callee) {
+            stats.callsCompleted.increment();
+            next();
+        }
+    }
+
+    private void dial() {
+        callId++;
+        armTimeout();
+        send(caller, callee, "OFFER", sdpPadding);
+    }
+
+    private synchronized void hangUp(long id) {
+        if (running && id == callId) {
+            armTimeout();
+            send(caller, callee, "HANGUP", "");
+        }
+    }
+
+    private synchronized void timedOut(long id) {
+        if (!running || id != callId) {
+            return;
+        }
+        stats.callTimeouts.increment();
+        // Close the server-side session; the relayed frame is stale once we move on
+        send(caller, callee, "HANGUP", "");
+        next();
+    }
+
+    private void next() {
+        callId++;
+        cancelPending();
+        pending = timer.schedule(this::redial, config.think.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void redial() {
+        if (running) {
+            dial();
+        }
+    }
+
+    private void armTimeout() {
+        cancelPending();
+        long id = callId;
+        pending = timer.schedule(() -> timedOut(id), config.signalTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelPending() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    private void send(VirtualUser from, VirtualUser to, String type, String padding) {
+        String data = PREFIX + callId + '|' + System.nanoTime() + '|' + padding;
+        from.signal(to.email, type, data).thenAccept(ok -> {
+            if (!ok) {
+                stats.signalErrors.increment();
+            }
+        });
+    }
+
+    private static LatencyStats.Kind kindOf(String type) {
+        try {
+            return LatencyStats.Kind.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.sse.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Send-to-receive latency per signal type plus the counters printed with each step.
+ *
+ * Latency is the receiver's System.nanoTime() minus the sender's, which is only
+ * meaningful because both ends live in this JVM. Values are kept in microseconds.
+ */
+final class LatencyStats {
+
+    enum Kind { OFFER, ANSWER, CANDIDATE, HANGUP }
+
+    private final Map<Kind, Recorder> recorders = new EnumMap<>(Kind.class);
+
+    final LongAdder callsCompleted = new LongAdder();
+    final LongAdder callTimeouts = new LongAdder();
+    final LongAdder signalErrors = new LongAdder();
+    final LongAdder otherFrames = new LongAdder();
+    final LongAdder streamsLost = new LongAdder();
+
+    LatencyStats() {
+        for (Kind kind : Kind.values()) {
+            recorders.put(kind, new Recorder(3));
+        }
+    }
+
+    void record(Kind kind, long latencyNanos) {
+        recorders.get(kind).recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    }
+
+    /** Starts a new measurement window; everything recorded so far is discarded. */
+    void reset() {
+        for (Recorder recorder : recorders.values()) {
+            recorder.reset();
+        }
+        callsCompleted.reset();
+        callTimeouts.reset();
+        signalErrors.reset();
+        otherFrames.reset();
+        streamsLost.reset();
+    }
+
+    /** Histograms since the last reset or snapshot, per kind plus the combined one. */
+    Snapshot snapshot() {
+        Map<Kind, Histogram> byKind = new EnumMap<>(Kind.class);
+        Histogram all = new Histogram(3);
+        for (Map.Entry<Kind, Recorder> entry : recorders.entrySet()) {
+            Histogram interval = entry.getValue().getIntervalHistogram();
+            byKind.put(entry.getKey(), interval);
+            all.add(interval);
+        }
+        return new Snapshot(all, byKind, callsCompleted.sum(), callTimeouts.sum(), signalErrors.sum(),
+                otherFrames.sum(), streamsLost.sum());
+    }
+
+    record Snapshot(Histogram all, Map<Kind, Histogram> byKind, long callsCompleted, long callTimeouts,
+                    long signalErrors, long otherFrames, long streamsLost) {
+
+        double p99Millis() {
+            return all.getTotalCount() == 0 ? Double.NaN : all.getValueAtPercentile(99.0) / 1000.0;
+        }
+
+        static String line(String label, Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return String.format("  %-10s count=0", label);
+            }
+            return String.format("  %-10s count=%-8d p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                    label, histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50.0) / 1000.0,
+                    histogram.getValueAtPercentile(90.0) / 1000.0,
+                    histogram.getValueAtPercentile(99.0) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+    }
+}
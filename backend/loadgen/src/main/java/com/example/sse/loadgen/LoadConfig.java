@@ -0,0 +1,144 @@
+package com.example.sse.loadgen;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command-line options, given as {@code --name=value}. Everything has a default except
+ * the password, which may also come from the LOADGEN_PASSWORD environment variable.
+ */
+final class LoadConfig {
+
+    static final String USAGE = String.join("\n",
+            "Usage: loadgen --password=<pw> [options]",
+            "  --base-url=http://localhost:9088   server under test",
+            "  --email-pattern=vuser%d@dacon.kr   account for user i (1-based)",
+            "  --steps=100,500,1000,2000,5000     open connections per ramp step",
+            "  --warmup-seconds=10                settle time after each step is connected",
+            "  --measure-seconds=60               measured window per step",
+            "  --slo-p99-ms=200                   p99 delivery latency the ramp is checked against",
+            "  --candidates=4                     CANDIDATE frames each side sends per call",
+            "  --hold-ms=2000                     time between ANSWER and HANGUP",
+            "  --think-ms=1000                    pause between calls of the same pair",
+            "  --signal-timeout-ms=10000          a call with no progress for this long is abandoned",
+            "  --sdp-bytes=2000                   OFFER/ANSWER payload size",
+            "  --transport=servlet                servlet (Spring MVC on base-url) | reactive (Netty on reactive-url)",
+            "  --reactive-url=http://localhost:9089  WebFlux SSE endpoint (app.sse.reactive.port)",
+            "  --client-shards=4                  HttpClient instances streams are spread over",
+            "  --io-threads=<2 x cores>           threads running HttpClient callbacks",
+            "  --login-concurrency=32             parallel /auth/login requests");
+
+    private static final Set<String> KNOWN = Set.of(
+            "base-url", "email-pattern", "password", "steps", "warmup-seconds", "measure-seconds",
+            "slo-p99-ms", "candidates", "hold-ms", "think-ms", "signal-timeout-ms", "sdp-bytes",
+            "transport", "reactive-url", "client-shards", "io-threads", "login-concurrency");
+
+    final URI baseUrl;
+    final String emailPattern;
+    final String password;
+    final List<Integer> steps;
+    final Duration warmup;
+    final Duration measure;
+    final double sloP99Ms;
+    final int candidates;
+    final Duration hold;
+    final Duration think;
+    final Duration signalTimeout;
+    final int sdpBytes;
+    final String transport;
+    final URI subscribeUrl;
+    final int clientShards;
+    final int ioThreads;
+    final int loginConcurrency;
+
+    private LoadConfig(Map<String, String> options) {
+        String base = options.getOrDefault("base-url", "http://localhost:9088");
+        this.baseUrl = URI.create(base.endsWith("/") ? base : base + "/");
+        this.emailPattern = options.getOrDefault("email-pattern", "vuser%d@dacon.kr");
+        this.password = options.getOrDefault("password", System.getenv("LOADGEN_PASSWORD"));
+        if (password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("--password (or LOADGEN_PASSWORD) is required");
+        }
+        this.steps = parseSteps(options.getOrDefault("steps", "100,500,1000,2000,5000"));
+        this.warmup = Duration.ofSeconds(positive(options, "warmup-seconds", 10, true));
+        this.measure = Duration.ofSeconds(positive(options, "measure-seconds", 60, false));
+        this.sloP99Ms = Double.parseDouble(options.getOrDefault("slo-p99-ms", "200"));
+        this.candidates = positive(options, "candidates", 4, true);
+        this.hold = Duration.ofMillis(positive(options, "hold-ms", 2000, true));
+        this.think = Duration.ofMillis(positive(options, "think-ms", 1000, true));
+        this.signalTimeout = Duration.ofMillis(positive(options, "signal-timeout-ms", 10000, false));
+        this.sdpBytes = positive(options, "sdp-bytes", 2000, true);
+        this.transport = options.getOrDefault("transport", "servlet");
+        switch (transport) {
+            case "servlet" -> this.subscribeUrl = baseUrl.resolve("sse/subscribe");
+            // Served on its own port, outside the servlet container
+            case "reactive" -> this.subscribeUrl = URI.create(options.getOrDefault("reactive-url", "http://localhost:9089"))
+                    .resolve("/sse/reactive/subscribe");
+            default -> throw new IllegalArgumentException("--transport must be servlet or reactive");
+        }
+        this.clientShards = positive(options, "client-shards", 4, false);
+        this.ioThreads = positive(options, "io-threads", Runtime.getRuntime().availableProcessors() * 2, false);
+        this.loginConcurrency = positive(options, "login-concurrency", 32, false);
+    }
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            if (!KNOWN.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            options.put(name, arg.substring(eq + 1));
+        }
+        return new LoadConfig(options);
+    }
+
+    String email(int index) {
+        return String.format(emailPattern, index + 1);
+    }
+
+    URI resolve(String path) {
+        return baseUrl.resolve(path);
+    }
+
+    private static List<Integer> parseSteps(String value) {
+        List<Integer> steps = new ArrayList<>();
+        int previous = 0;
+        for (String part : value.split(",")) {
+            int step = Integer.parseInt(part.trim());
+            if (step < 2 || step <= previous) {
+                throw new IllegalArgumentException("--steps must be increasing and at least 2: " + value);
+            }
+            steps.add(step);
+            previous = step;
+        }
+        return steps;
+    }
+
+    private static int positive(Map<String, String> options, String name, int defaultValue, boolean zeroAllowed) {
+        String value = options.get(name);
+        int parsed = value == null ? defaultValue : Integer.parseInt(value.trim());
+        if (parsed < 0 || (parsed == 0 && !zeroAllowed)) {
+            throw new IllegalArgumentException("--" + name + " must be " + (zeroAllowed ? ">= 0" : "> 0"));
+        }
+        return parsed;
+    }
+
+    @Override
+    public String toString() {
+        return "base-url=" + baseUrl + " steps=" + steps + " transport=" + transport + " (" + subscribeUrl + ")"
+                + " warmup=" + warmup.toSeconds() + "s measure=" + measure.toSeconds() + "s"
+                + " slo-p99=" + sloP99Ms + "ms candidates=" + candidates + " hold=" + hold.toMillis() + "ms"
+                + " think=" + think.toMillis() + "ms sdp-bytes=" + sdpBytes
+                + " client-shards=" + clientShards + " io-threads=" + ioThreads;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.sse.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless load generator for the real connection and signaling path.
+ *
+ * Unlike SimulatorService, which writes straight to the repositories, this logs in
+ * virtual users through /auth/login, holds one /sse/subscribe stream per user and
+ * runs scripted OFFER/ANSWER/CANDIDATE/HANGUP calls between pairs over /sse/signal.
+ * The connection count is ramped through {@code --steps}; each step is measured on
+ * its own and the ramp stops at the first step whose p99 delivery latency breaks
+ * {@code --slo-p99-ms}.
+ *
+ * Run it from a different machine than the server where possible: latencies include
+ * this process's own scheduling, and at high connection counts that is not free.
+ */
+public final class LoadGenerator implements AutoCloseable {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(60);
+
+    private final LoadConfig config;
+    private final ExecutorService io;
+    private final ScheduledExecutorService timer;
+    private final HttpClient[] clients;
+    private final ServerApi api;
+    private final LatencyStats stats = new LatencyStats();
+    private final List<VirtualUser> users = new ArrayList<>();
+    private final List<CallScript> scripts = new ArrayList<>();
+
+    LoadGenerator(LoadConfig config) {
+        this.config = config;
+        this.io = Executors.newFixedThreadPool(config.ioThreads, daemon("loadgen-io-"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(daemon("loadgen-timer-"));
+        this.clients = new HttpClient[config.clientShards];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(io)
+                    .build();
+        }
+        this.api = new ServerApi(config, new ObjectMapper());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config;
+        try {
+            config = LoadConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadConfig.USAGE);
+            System.exit(2);
+            return;
+        }
+        System.out.println("loadgen " + config);
+        try (LoadGenerator generator = new LoadGenerator(config)) {
+            generator.run();
+        }
+        System.exit(0);
+    }
+
+    void run() throws InterruptedException {
+        Integer lastPassing = null;
+        for (int target : config.steps) {
+            try {
+                growTo(target);
+            } catch (ExecutionException | TimeoutException e) {
+                System.out.println("Could not reach " + target + " connections: " + rootMessage(e));
+                report(lastPassing, null);
+                return;
+            }
+            Thread.sleep(config.warmup.toMillis());
+            stats.reset();
+            Thread.sleep(config.measure.toMillis());
+            LatencyStats.Snapshot snapshot = stats.snapshot();
+            print(target, snapshot);
+            double p99 = snapshot.p99Millis();
+            if (Double.isNaN(p99) || p99 > config.sloP99Ms) {
+                report(lastPassing, target);
+                return;
+            }
+            lastPassing = target;
+        }
+        report(lastPassing, null);
+    }
+
+    // Logs in, connects and pairs users until `target` streams are open
+    private void growTo(int target) throws InterruptedException, ExecutionException, TimeoutException {
+        int from = users.size();
+        System.out.printf("Connecting users %d..%d%n", from + 1, target);
+        long started = System.nanoTime();
+
+        List<VirtualUser> added = login(from, target);
+        List<CompletableFuture<Void>> connects = new ArrayList<>();
+        for (VirtualUser user : added) {
+            connects.add(user.connect(config));
+        }
+        users.addAll(added);
+        CompletableFuture.allOf(connects.toArray(CompletableFuture[]::new))
+                .get(CONNECT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Pairs never span steps, so an odd leftover just listens
+        for (int i = 0; i + 1 < added.size(); i += 2) {
+            CallScript script = new CallScript(added.get(i), added.get(i + 1), config, stats, timer);
+            scripts.add(script);
+            script.start();
+        }
+        System.out.printf("%d streams open, %d pairs calling (%d ms)%n",
+                users.size(), scripts.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private List<VirtualUser> login(int from, int to) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(config.loginConcurrency, daemon("loadgen-login-"));
+        try {
+            List<Future<VirtualUser>> futures = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                String email = config.email(i);
+                HttpClient client = clients[i % clients.length];
+                futures.add(pool.submit(() -> new VirtualUser(email, api.login(client, email), client, api, stats)));
+            }
+            List<VirtualUser> added = new ArrayList<>(futures.size());
+            for (Future<VirtualUser> future : futures) {
+                added.add(future.get());
+            }
+            return added;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void print(int connections, LatencyStats.Snapshot snapshot) {
+        System.out.printf("connections=%d calls=%d timeouts=%d signal-errors=%d streams-lost=%d other-frames=%d%n",
+                connections, snapshot.callsCompleted(), snapshot.callTimeouts(), snapshot.signalErrors(),
+                snapshot.streamsLost(), snapshot.otherFrames());
+        System.out.println(LatencyStats.Snapshot.line("ALL", snapshot.all()));
+        snapshot.byKind().forEach((kind, histogram) ->
+                System.out.println(LatencyStats.Snapshot.line(kind.name(), histogram)));
+    }
+
+    private void report(Integer lastPassing, Integer broken) {
+        String held = lastPassing == null ? "no step" : lastPassing + " connections";
+        if (broken != null) {
+            System.out.printf("p99 SLO of %.1f ms broken at %d connections (held up to %s)%n",
+                    config.sloP99Ms, broken, held);
+        } else {
+            System.out.printf("p99 SLO of %.1f ms held up to %s%n", config.sloP99Ms, held);
+        }
+    }
+
+    @Override
+    public void close() {
+        scripts.forEach(CallScript::stop);
+        List<CompletableFuture<Void>> logouts = new ArrayList<>();
+        for (VirtualUser user : users) {
+            logouts.add(user.disconnect());
+        }
+        try {
+            CompletableFuture.allOf(logouts.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.err.println("Logout did not finish cleanly: " + rootMessage(e));
+        }
+        timer.shutdownNow();
+        io.shutdownNow();
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.toString();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
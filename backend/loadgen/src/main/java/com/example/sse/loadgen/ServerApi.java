@@ -0,0 +1,89 @@
+package com.example.sse.loadgen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The REST calls a virtual user makes: /auth/login, /sse/signal and /sse/logout.
+ * Request bodies mirror AuthController and SseController.SignalRequest.
+ */
+final class ServerApi {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadConfig config;
+    private final ObjectMapper objectMapper;
+
+    ServerApi(LoadConfig config, ObjectMapper objectMapper) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Blocking; login runs BCrypt on the server, so callers bound the concurrency. */
+    String login(HttpClient client, String email) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(config.resolve("auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", email, "password", config.password)))
+                .build();
+        HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("login " + email + " returned HTTP " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode token = objectMapper.readTree(response.body()).get("token");
+        if (token == null) {
+            throw new IOException("login " + email + " returned no token");
+        }
+        return token.asText();
+    }
+
+    /** Completes with false on a non-2xx status or transport error; never exceptionally. */
+    CompletableFuture<Boolean> signal(HttpClient client, String token, String sender, String target,
+                                      String type, String data) {
+        HttpRequest request = HttpRequest.newBuilder(config.resolve("sse/signal"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("sender", sender, "target", target, "type", type, "data", data)))
+                .build();
+        return client.sendAsync(request, BodyHandlers.discarding())
+                .handle((response, error) -> error == null && response.statusCode() / 100 == 2);
+    }
+
+    CompletableFuture<Void> logout(HttpClient client, String token) {
+        HttpRequest request = HttpRequest.newBuilder(config.resolve("sse/logout"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .DELETE()
+                .build();
+        return client.sendAsync(request, BodyHandlers.discarding())
+                .handle((response, error) -> null);
+    }
+
+    JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.BodyPublisher json(Map<String, String> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.sse.loadgen;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * One text/event-stream connection, parsed line by line on the HttpClient executor.
+ *
+ * No thread is parked per stream: the JDK client pushes lines as they arrive, so a
+ * single generator process can hold tens of thousands of streams open.
+ */
+final class SseStream implements Flow.Subscriber<String> {
+
+    interface Listener {
+        /**
+         * @param receivedAtNanos System.nanoTime() when the frame's first data line arrived
+         */
+        void onEvent(String event, String data, long receivedAtNanos);
+
+        void onClosed(Throwable cause);
+    }
+
+    private final Listener listener;
+    // Completes on the server's "connect" frame, i.e. once the emitter is registered
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+
+    private volatile Flow.Subscription subscription;
+    private volatile boolean closing;
+
+    // Only touched from onNext, which the client never calls concurrently
+    private String event;
+    private StringBuilder data;
+    private long firstDataAt;
+
+    SseStream(Listener listener) {
+        this.listener = listener;
+    }
+
+    CompletableFuture<Void> open(HttpClient client, URI uri, String token) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        client.sendAsync(request, info -> {
+            if (info.statusCode() != 200) {
+                connected.completeExceptionally(new IOException("subscribe returned HTTP " + info.statusCode()));
+                return BodySubscribers.discarding();
+            }
+            return BodySubscribers.fromLineSubscriber(this);
+        }).whenComplete((response, error) -> {
+            if (!connected.isDone()) {
+                connected.completeExceptionally(error != null ? error : new IOException("stream ended before connect"));
+            }
+        });
+        return connected;
+    }
+
+    void close() {
+        closing = true;
+        Flow.Subscription current = subscription;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(String line) {
+        if (line.isEmpty()) {
+            dispatch();
+            return;
+        }
+        if (line.charAt(0) == ':') {
+            return; // comment
+        }
+        int colon = line.indexOf(':');
+        String field = colon < 0 ? line : line.substring(0, colon);
+        int start = colon < 0 ? line.length() : colon + 1;
+        if (start < line.length() && line.charAt(start) == ' ') {
+            start++;
+        }
+        String value = line.substring(start);
+        switch (field) {
+            case "event" -> event = value;
+            case "data" -> {
+                if (data == null) {
+                    firstDataAt = System.nanoTime();
+                    data = new StringBuilder(value);
+                } else {
+                    data.append('\n').append(value);
+                }
+            }
+            default -> {
+                // id and retry are not needed; reconnects are not attempted
+            }
+        }
+    }
+
+    private void dispatch() {
+        if (data != null) {
+            String name = event != null ? event : "message";
+            if ("connect".equals(name)) {
+                connected.complete(null);
+            }
+            listener.onEvent(name, data.toString(), firstDataAt);
+        }
+        event = null;
+        data = null;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        connected.completeExceptionally(throwable);
+        if (!closing) {
+            listener.onClosed(throwable);
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        connected.completeExceptionally(new IOException("stream ended before connect"));
+        if (!closing) {
+            listener.onClosed(null);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.sse.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A logged-in account with one open stream. "signal" frames that carry a generator
+ * timestamp go to the pair's {@link CallScript}; everything else (user_list, presence,
+ * inbox, ping) is only counted.
+ */
+final class VirtualUser implements SseStream.Listener {
+
+    final String email;
+    final String token;
+    final HttpClient client;
+
+    private final ServerApi api;
+    private final LatencyStats stats;
+    private final SseStream stream;
+    private volatile CallScript script;
+
+    VirtualUser(String email, String token, HttpClient client, ServerApi api, LatencyStats stats) {
+        this.email = email;
+        this.token = token;
+        this.client = client;
+        this.api = api;
+        this.stats = stats;
+        this.stream = new SseStream(this);
+    }
+
+    CompletableFuture<Void> connect(LoadConfig config) {
+        return stream.open(client, config.subscribeUrl, token);
+    }
+
+    void join(CallScript script) {
+        this.script = script;
+    }
+
+    CompletableFuture<Boolean> signal(String target, String type, String data) {
+        return api.signal(client, token, email, target, type, data);
+    }
+
+    CompletableFuture<Void> disconnect() {
+        stream.close();
+        return api.logout(client, token);
+    }
+
+    @Override
+    public void onEvent(String event, String data, long receivedAtNanos) {
+        CallScript current = script;
+        if (!"signal".equals(event) || current == null) {
+            stats.otherFrames.increment();
+            return;
+        }
+        JsonNode payload = api.readTree(data);
+        String signalData = payload.path("data").asText("");
+        if (!CallScript.isGenerated(signalData)) {
+            stats.otherFrames.increment();
+            return;
+        }
+        current.onSignal(this, payload.path("type").asText(), signalData, receivedAtNanos);
+    }
+
+    @Override
+    public void onClosed(Throwable cause) {
+        stats.streamsLost.increment();
+        System.err.println("Stream lost for " + email + (cause != null ? ": " + cause : ""));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.sse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One presence-mode "full" rebroadcast: the roster is serialized to JSON once and the
+ * frame is fanned out to every open stream, until the writer pool has written all of
+ * them. The work is O(connections) per call and the JSON is O(connections) bytes, which
+ * is why delta presence exists. Compare the gc profiler's bytes/op across sizes.
+ *
+ * The total is O(connections^2) in practice: for every stream, SseEmitter rewrites the
+ * newlines of the whole payload into SSE data lines before the write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PresenceBroadcastBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int connections;
+
+    private SseServiceFixture fixture;
+
+    @Setup(Level.Trial)
+    public void open() {
+        fixture = new SseServiceFixture();
+        for (int i = 0; i < connections; i++) {
+            fixture.connect("user" + i + "@bench.local");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public long broadcastUserList() {
+        long target = fixture.delivered.get() + connections;
+        fixture.service.broadcastUserList();
+        fixture.awaitDelivered(target);
+        return target;
+    }
+}
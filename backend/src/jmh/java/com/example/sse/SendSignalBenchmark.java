@@ -0,0 +1,59 @@
+package com.example.sse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SseService.sendSignal end to end on one node: handler dispatch by signal type, the
+ * stubbed CDC or chat side effect, payload creation, SignalRouter and ReplayLog, until the
+ * writer pool has written the frame to the target's stream.
+ *
+ * CANDIDATE is relay-only; OFFER goes through the (stubbed) CallSessionRecorder; CHAT
+ * through the (stubbed) ChatService. Differences between them are dispatch overhead only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SendSignalBenchmark {
+
+    private static final String SENDER = "caller@bench.local";
+    private static final String TARGET = "callee@bench.local";
+
+    @Param({"CANDIDATE", "OFFER", "CHAT"})
+    public String type;
+
+    private SseServiceFixture fixture;
+    private String data;
+
+    @Setup(Level.Trial)
+    public void open() {
+        fixture = new SseServiceFixture();
+        fixture.connect(SENDER);
+        fixture.connect(TARGET);
+        data = "{\"candidate\":\"candidate:842163049 1 udp 1677729535 203.0.113.7 46154 typ srflx\","
+                + "\"sdpMid\":\"0\",\"sdpMLineIndex\":0}";
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public long sendSignal() {
+        long target = fixture.delivered.get() + 1;
+        fixture.service.sendSignal(SENDER, TARGET, type, data);
+        fixture.awaitDelivered(target);
+        return target;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.sse;
+
+import com.example.sse.config.ExecutionThreads;
+import com.example.sse.connection.HeartbeatWheel;
+import com.example.sse.connection.ReplayLog;
+import com.example.sse.connection.SseConnection;
+import com.example.sse.connection.SseWriterPool;
+import com.example.sse.presence.PresenceRoster;
+import com.example.sse.reactive.ReactiveSseHub;
+import com.example.sse.routing.InMemoryPresenceDirectory;
+import com.example.sse.routing.LoopbackMessageBus;
+import com.example.sse.routing.NodeIdentity;
+import com.example.sse.routing.SignalRouter;
+import com.example.sse.service.CallSessionRecorder;
+import com.example.sse.service.ChatService;
+import com.example.sse.service.UserDirectory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * SseService wired the way Spring wires it in loopback mode: real writer pool, replay log
+ * and signal router. Every database-backed collaborator is a Mockito stub, so a benchmark
+ * measures dispatch and fan-out, not Postgres.
+ *
+ * Streams are attached directly, bypassing subscribe(), because subscribe() creates its
+ * own SseEmitter and that emitter buffers every frame until a container takes it over.
+ */
+class SseServiceFixture {
+
+    final SseService service;
+    final CallSessionRecorder callSessionRecorder = mock(CallSessionRecorder.class);
+    final ChatService chatService = mock(ChatService.class);
+    final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    // Frames written across all streams
+    final AtomicLong delivered = new AtomicLong();
+
+    private final SseWriterPool writerPool;
+    private final ReplayLog replayLog;
+    private final SignalRouter signalRouter;
+    private final Map<String, SseConnection> emitters;
+    private final PresenceRoster roster;
+
+    SseServiceFixture() {
+        writerPool = new SseWriterPool(4, 256, 128, 5000, 5000);
+        replayLog = new ReplayLog(writerPool, 64, 60_000);
+        ReactiveSseHub reactiveHub = new ReactiveSseHub(256, 3_600_000);
+        NodeIdentity nodeIdentity = new NodeIdentity("bench");
+        InMemoryPresenceDirectory presenceDirectory = new InMemoryPresenceDirectory(nodeIdentity, 30_000);
+        presenceDirectory.start();
+        signalRouter = new SignalRouter(replayLog, reactiveHub, presenceDirectory,
+                new LoopbackMessageBus(), nodeIdentity, objectMapper,
+                new ExecutionThreads(new StandardEnvironment()), 5, 100);
+        signalRouter.start();
+
+        // The OFFER path only relays when the recorder accepts the call
+        when(callSessionRecorder.recordOffer(any(), any())).thenReturn(true);
+
+        service = new SseService(callSessionRecorder, mock(UserDirectory.class), chatService, writerPool,
+                mock(HeartbeatWheel.class), replayLog, signalRouter, reactiveHub,
+                new SimpleMeterRegistry(), objectMapper);
+        service.registerMeters();
+        emitters = field("emitters");
+        roster = field("roster");
+    }
+
+    // Attaches an open stream that discards frames after counting them
+    void connect(String userId) {
+        SseConnection connection = writerPool.open(userId, new DiscardingEmitter(delivered));
+        emitters.put(userId, connection);
+        replayLog.attach(userId, connection, null);
+        roster.join(userId, userId.substring(0, userId.indexOf('@')));
+        signalRouter.register(userId);
+    }
+
+    // Spins until the writer pool has written {@code target} frames in total
+    void awaitDelivered(long target) {
+        // Same as JMH's per-iteration timeout; a 100k full broadcast takes minutes
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+        while (delivered.get() < target) {
+            if (System.nanoTime() > deadline) {
+                // A frame was dropped or a stream evicted; the numbers would be meaningless
+                throw new IllegalStateException("Delivered " + delivered.get() + " of " + target + " frames");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    void close() {
+        emitters.values().forEach(connection -> connection.close(false));
+        signalRouter.shutdown();
+        writerPool.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T field(String name) {
+        try {
+            Field field = SseService.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return (T) field.get(service);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Counts the frame the way a socket write would see it, without rendering it
+    static class DiscardingEmitter extends SseEmitter {
+
+        private final AtomicLong delivered;
+
+        DiscardingEmitter(AtomicLong delivered) {
+            super(0L);
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build();
+            delivered.incrementAndGet();
+        }
+    }
+}
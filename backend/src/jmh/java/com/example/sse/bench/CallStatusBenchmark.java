@@ -0,0 +1,47 @@
+package com.example.sse.bench;
+
+import com.example.sse.domain.CallStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CallStatus.verifyTransition for a valid hop, a no-op and an invalid hop. The invalid
+ * one builds an IllegalStateException with a stack trace, which is what a late or
+ * duplicate HANGUP costs on the CDC path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallStatusBenchmark {
+
+    @Param({"TRYING>CONNECTED", "CONNECTED>CONNECTED", "ENDED>CONNECTED"})
+    public String transition;
+
+    private CallStatus from;
+    private CallStatus to;
+
+    @Setup
+    public void parse() {
+        String[] parts = transition.split(">");
+        from = CallStatus.valueOf(parts[0]);
+        to = CallStatus.valueOf(parts[1]);
+    }
+
+    @Benchmark
+    public Object verifyTransition() {
+        try {
+            from.verifyTransition(to);
+            return to;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+}
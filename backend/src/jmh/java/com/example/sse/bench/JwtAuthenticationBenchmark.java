@@ -0,0 +1,91 @@
+package com.example.sse.bench;
+
+import com.example.sse.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost per request in JwtAuthenticationFilter, for a pool of
+ * {@code users} distinct tokens presented round-robin.
+ *
+ * legacy: validateToken then getAuthentication, each with a fresh parser (before).
+ * single-parse: JwtTokenProvider.authenticate with the verified-token cache disabled.
+ * cached: JwtTokenProvider.authenticate with the cache on (the default).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+
+    @Param({"legacy", "single-parse", "cached"})
+    public String mode;
+
+    @Param({"1000"})
+    public int users;
+
+    private Key key;
+    private JwtTokenProvider provider;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        provider = new JwtTokenProvider(SECRET, "cached".equals(mode) ? 10000 : 0);
+        tokens = new String[users];
+        for (int i = 0; i < users; i++) {
+            tokens[i] = provider.createToken("user" + i + "@bench.local");
+        }
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        String token = tokens[next++ % tokens.length];
+        if ("legacy".equals(mode)) {
+            return validateToken(token) ? getAuthentication(token) : null;
+        }
+        return provider.authenticate(token);
+    }
+
+    // Verbatim copy of the pre-change JwtTokenProvider methods
+    private boolean validateToken(String token) {
+        try {
+            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Authentication getAuthentication(String token) {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+
+        UserDetails userDetails = new User(claims.getSubject(), "", Collections.emptyList());
+        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.sse.bench;
+
+import reactor.core.Disposable;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * EventSource-like clients: one HTTP connection per stream, frames counted as they
+ * arrive off the socket. Runs on its own event loops so it does not share threads
+ * with a Reactor Netty server in the same JVM.
+ *
+ * {@link #main} opens the streams in a separate JVM, for measurements where client
+ * state must not land on the server's heap.
+ */
+public class SseClients implements AutoCloseable {
+
+    private final LoopResources loops = LoopResources.create("sse-bench-client", 4, true);
+    private final List<Stream> streams;
+    private final List<Disposable> subscriptions;
+
+    SseClients(int count, IntFunction<String> url) {
+        // One connection per stream; the default pool caps connections per host
+        HttpClient client = HttpClient.create(ConnectionProvider.newConnection()).runOn(loops);
+        streams = new ArrayList<>(count);
+        subscriptions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Stream stream = new Stream();
+            streams.add(stream);
+            subscriptions.add(client.get()
+                    .uri(url.apply(i))
+                    .responseContent()
+                    .subscribe(buf -> stream.read(buf.toString(StandardCharsets.UTF_8))));
+        }
+    }
+
+    long frames(int index) {
+        return streams.get(index).frames;
+    }
+
+    // Waits until every stream has received at least {@code frames} frames
+    void await(long frames, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (int i = 0; i < streams.size(); i++) {
+            while (streams.get(i).frames < frames) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Stream " + i + " got " + streams.get(i).frames
+                            + " of " + frames + " frames");
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        subscriptions.forEach(Disposable::dispose);
+        loops.dispose();
+    }
+
+    // Args: url prefix (the stream index is appended) and stream count; runs until killed
+    public static void main(String[] args) throws InterruptedException {
+        String prefix = args[0];
+        int count = Integer.parseInt(args[1]);
+        SseClients clients = new SseClients(count, i -> prefix + i);
+        new CountDownLatch(1).await();
+        clients.close();
+    }
+
+    // Frames end with a blank line; chunks may split one anywhere
+    private static final class Stream {
+        private volatile long frames;
+        private char last;
+
+        void read(String chunk) {
+            long ended = 0;
+            for (int i = 0; i < chunk.length(); i++) {
+                char c = chunk.charAt(i);
+                if (c == '\n' && last == '\n') {
+                    ended++;
+                }
+                last = c;
+            }
+            if (ended > 0) {
+                frames += ended;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sse.bench;
+
+import com.example.sse.SseService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding of an SsePayload, as done by the SseEmitter message converter for local
+ * streams and by SignalRouter for reactive and forwarded ones. A candidate is ~150 bytes
+ * of escaped JSON; an offer carries a ~3 KB SDP with many escaped line breaks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SsePayloadJsonBenchmark {
+
+    @Param({"candidate", "offer"})
+    public String kind;
+
+    private ObjectMapper objectMapper;
+    private SseService.SsePayload payload;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+        Timer timer = Timer.builder("bench").register(new SimpleMeterRegistry());
+        String data;
+        if ("candidate".equals(kind)) {
+            data = "{\"candidate\":\"candidate:842163049 1 udp 1677729535 203.0.113.7 46154 typ srflx\","
+                    + "\"sdpMid\":\"0\",\"sdpMLineIndex\":0}";
+        } else {
+            StringBuilder sdp = new StringBuilder("v=0\r\no=- 4611731400430051336 2 IN IP4 127.0.0.1\r\ns=-\r\n");
+            while (sdp.length() < 3000) {
+                sdp.append("a=rtpmap:111 opus/48000/2\r\na=fmtp:111 minptime=10;useinbandfec=1\r\n");
+            }
+            data = "{\"type\":\"offer\",\"sdp\":\"" + sdp.toString().replace("\r\n", "\\r\\n") + "\"}";
+        }
+        payload = new SseService.SsePayload("caller@bench.local", kind.toUpperCase(), data, timer, System.nanoTime());
+    }
+
+    @Benchmark
+    public String encode() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payload);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivery latency of one signal frame over a real socket, from hand-off to the
+ * transport until the client has read the whole frame, with {@code connections}
+ * streams open. SampleTime mode reports the p99 alongside the mean.
+ *
+ * servlet: Spring MVC on Tomcat with SseWriterPool, the /sse/subscribe path.
+ * reactive: WebFlux on Reactor Netty with ReactiveSseHub, the /sse/reactive/subscribe
+ * path (see {@link SseTransportServer}). Clients share the JVM and loopback interface
+ * with the server but not its threads.
+ *
+ * 10000 connections need a file descriptor limit above 20000 ({@code ulimit -n}).
+ * Heap and direct memory per stream are measured by {@link SseTransportFootprint}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SseTransportBenchmark {
+
+    private static final long CONNECT_TIMEOUT_MS = 120_000;
+
+    @Param({"servlet", "reactive"})
+    public String transport;
+
+    @Param({"1000", "10000"})
+    public int connections;
+
+    private SseTransportServer server;
+    private SseClients clients;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void open() {
+        server = SseTransportServer.start(transport);
+        clients = new SseClients(connections, i -> server.url("user" + i));
+        // The "connect" frame has reached every client
+        clients.await(1, CONNECT_TIMEOUT_MS);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        clients.close();
+        server.close();
+    }
+
+    @Benchmark
+    public long deliver() {
+        int index = next++ % connections;
+        String data = "{\"sender\":\"bench@dacon.kr\",\"type\":\"candidate\",\"data\":\"" + index + "\"}";
+        long before = clients.frames(index);
+        server.send("user" + index, "signal", data);
+        long after;
+        while ((after = clients.frames(index)) == before) {
+            Thread.onSpinWait();
+        }
+        return after;
+    }
+}
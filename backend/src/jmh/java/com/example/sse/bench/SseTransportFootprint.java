@@ -0,0 +1,118 @@
+package com.example.sse.bench;
+
+import io.netty.util.internal.PlatformDependent;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server memory per open stream, container included, for the servlet (Tomcat +
+ * SseWriterPool) and reactive (Reactor Netty + ReactiveSseHub) transports of
+ * {@link SseTransportServer}. The clients run in a child JVM so that only the server's
+ * side of each connection is counted.
+ *
+ * The results are the secondary counters: heap and direct bytes per stream after a
+ * full GC, and the streams that fit in 1 GB of both. Netty keeps socket buffers off
+ * heap, so heap alone would flatter the reactive side. The primary score is the time
+ * to open the streams and take the measurement, not a result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SseTransportFootprint {
+
+    private static final long GB = 1024L * 1024 * 1024;
+    private static final long CONNECT_TIMEOUT_MS = 120_000;
+
+    @Param({"servlet", "reactive"})
+    public String transport;
+
+    @Param({"10000"})
+    public int connections;
+
+    private SseTransportServer server;
+    private Process clients;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double heapBytesPerStream;
+        public double directBytesPerStream;
+        public double streamsPerGb;
+    }
+
+    @Setup(Level.Iteration)
+    public void start() {
+        server = SseTransportServer.start(transport);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() throws InterruptedException {
+        if (clients != null) {
+            clients.destroyForcibly().waitFor();
+            clients = null;
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public int open(Footprint footprint) throws IOException, InterruptedException {
+        long heapBefore = usedHeapAfterGc();
+        long directBefore = usedDirect();
+
+        clients = launchClients();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MS);
+        while (server.openStreams() < connections) {
+            if (!clients.isAlive() || System.nanoTime() > deadline) {
+                throw new IllegalStateException("Opened " + server.openStreams() + " of " + connections + " streams");
+            }
+            Thread.sleep(10);
+        }
+
+        footprint.heapBytesPerStream = (double) (usedHeapAfterGc() - heapBefore) / connections;
+        footprint.directBytesPerStream = (double) (usedDirect() - directBefore) / connections;
+        double perStream = footprint.heapBytesPerStream + footprint.directBytesPerStream;
+        footprint.streamsPerGb = perStream > 0 ? GB / perStream : 0;
+        return server.openStreams();
+    }
+
+    private Process launchClients() throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-Xmx1g", "-cp", System.getProperty("java.class.path"),
+                SseClients.class.getName(), server.url("user"), Integer.toString(connections))
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // ByteBuffer.allocateDirect plus Netty's own counter when it allocates without a Cleaner
+    private static long usedDirect() {
+        long direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+        return direct + Math.max(0, PlatformDependent.usedDirectMemory());
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.sse.bench;
+
+import com.example.sse.connection.OutboundEvent;
+import com.example.sse.connection.SseConnection;
+import com.example.sse.connection.SseWriterPool;
+import com.example.sse.reactive.ReactiveSseHub;
+import com.example.sse.reactive.ReactiveSseServer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One SSE transport on a real socket, the way the app serves it, minus authentication
+ * and the database: the {@code user} query parameter names the stream.
+ *
+ * servlet: Spring MVC on embedded Tomcat, frames written by {@link SseWriterPool}
+ * through SseEmitter, as /sse/subscribe does.
+ * reactive: {@link ReactiveSseServer} on Reactor Netty over a {@link ReactiveSseHub},
+ * as /sse/reactive/subscribe does.
+ *
+ * Both send a "connect" frame when a stream opens and no heartbeats afterwards.
+ */
+abstract class SseTransportServer implements AutoCloseable {
+
+    static SseTransportServer start(String transport) {
+        return switch (transport) {
+            case "servlet" -> new Servlet();
+            case "reactive" -> new Reactive();
+            default -> throw new IllegalArgumentException("Unknown transport: " + transport);
+        };
+    }
+
+    abstract String url(String userId);
+
+    abstract void send(String userId, String name, String data);
+
+    // Streams the server side currently holds open
+    abstract int openStreams();
+
+    @Override
+    public abstract void close();
+
+    static final class Servlet extends SseTransportServer {
+
+        private final ConfigurableApplicationContext context;
+        private final ServletStreams streams;
+        private final int port;
+
+        Servlet() {
+            // Command-line arguments win over any application.yml on the classpath
+            context = new SpringApplicationBuilder(ServletApp.class)
+                    .web(WebApplicationType.SERVLET)
+                    .run("--spring.config.name=sse-transport-bench",
+                            "--spring.main.banner-mode=off",
+                            "--server.port=0",
+                            // Tomcat defaults to 8192 and queues the rest in the accept backlog
+                            "--server.tomcat.max-connections=200000",
+                            "--logging.level.root=WARN");
+            streams = context.getBean(ServletStreams.class);
+            port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        @Override
+        String url(String userId) {
+            return "http://localhost:" + port + "/sse/subscribe?user=" + userId;
+        }
+
+        @Override
+        void send(String userId, String name, String data) {
+            SseConnection connection = streams.connections.get(userId);
+            if (connection != null) {
+                streams.writerPool.enqueue(connection, new OutboundEvent(name, data));
+            }
+        }
+
+        @Override
+        int openStreams() {
+            return streams.connections.size();
+        }
+
+        @Override
+        public void close() {
+            streams.connections.values().forEach(connection -> connection.close(true));
+            streams.writerPool.shutdown();
+            context.close();
+        }
+    }
+
+    static final class Reactive extends SseTransportServer {
+
+        private final ReactiveSseHub hub = new ReactiveSseHub(256, 3_600_000);
+        private final ReactiveSseServer server;
+
+        Reactive() {
+            server = new ReactiveSseServer(0, token -> token,
+                    userId -> hub.connect(userId, () -> {
+                    }, () -> {
+                    }));
+            server.start();
+        }
+
+        @Override
+        String url(String userId) {
+            return "http://localhost:" + server.getPort() + ReactiveSseServer.SUBSCRIBE_PATH + "?token=" + userId;
+        }
+
+        @Override
+        void send(String userId, String name, String data) {
+            hub.emit(userId, name, data);
+        }
+
+        @Override
+        int openStreams() {
+            return hub.size();
+        }
+
+        @Override
+        public void close() {
+            server.stop();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    public static class ServletApp {
+
+        @Bean
+        public ServletStreams servletStreams() {
+            return new ServletStreams();
+        }
+    }
+
+    // /sse/subscribe without the JWT filter, the replay log and the heartbeat wheel
+    @RestController
+    public static class ServletStreams {
+
+        final SseWriterPool writerPool = new SseWriterPool(4, 256, 128, 5000, 5000);
+        final Map<String, SseConnection> connections = new ConcurrentHashMap<>();
+
+        @GetMapping(value = "/sse/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter subscribe(@RequestParam("user") String userId) {
+            SseEmitter emitter = new SseEmitter(0L);
+            SseConnection connection = writerPool.open(userId, emitter);
+            connections.put(userId, connection);
+            connection.onClose(() -> connections.remove(userId, connection));
+            emitter.onCompletion(() -> connection.close(false));
+            emitter.onTimeout(() -> connection.close(false));
+            emitter.onError(e -> connection.close(false));
+            writerPool.enqueue(connection, new OutboundEvent("connect", "Connected as " + userId));
+            return emitter;
+        }
+    }
+}
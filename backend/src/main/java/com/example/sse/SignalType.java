@@ -0,0 +1,47 @@
+package com.example.sse;
+
+import java.util.Locale;
+
+/**
+ * Signal types understood by {@link SseService#sendSignal}. Wire values are matched
+ * case-insensitively; anything unknown is relayed as {@link #OTHER}.
+ */
+public enum SignalType {
+    OFFER(Path.CALL),
+    ANSWER(Path.CALL),
+    HANGUP(Path.CALL),
+    BYE(Path.CALL),
+    REJECT(Path.CALL),
+    BUSY(Path.CALL),
+    CHAT(Path.CHAT),
+    CANDIDATE(Path.RELAY),
+    OTHER(Path.RELAY);
+
+    // Which side effect, if any, a signal has before it is relayed
+    public enum Path {
+        CALL,   // call_session transition, needs a transaction
+        CHAT,   // chat_message insert
+        RELAY   // straight to the target emitter, no DB
+    }
+
+    private final Path path;
+
+    SignalType(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public static SignalType from(String type) {
+        if (type == null) {
+            return OTHER;
+        }
+        try {
+            return valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return OTHER;
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.sse;
 
+import com.example.sse.dto.ConnectionStatsDto;
+import com.example.sse.dto.PresenceSnapshotDto;
+import com.example.sse.dto.RoutingStatsDto;
+import com.example.sse.dto.UserDirectoryStatsDto;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -19,9 +24,21 @@ public class SseController {
     // 1. Connection (GET)
     @GetMapping(value = "/subscribe", produces = org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter subscribe(
-            @org.springframework.security.core.annotation.AuthenticationPrincipal org.springframework.security.core.userdetails.UserDetails userDetails) {
+            @org.springframework.security.core.annotation.AuthenticationPrincipal org.springframework.security.core.userdetails.UserDetails userDetails,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         String userId = userDetails.getUsername();
-        return sseService.subscribe(userId);
+        return sseService.subscribe(userId, parseEventId(lastEventId));
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return null; // Not one of ours; treat as a fresh connection
+        }
     }
 
     // 2. Signaling (POST)
@@ -29,9 +46,34 @@ public class SseController {
     // }
     @PostMapping("/signal")
     public void sendSignal(@RequestBody SignalRequest request) {
-        System.out.println("SSE IN (Signal): " + request.getType() + " from " + request.getSender() + " to "
-                + request.getTarget());
-        sseService.sendSignal(request.getSender(), request.getTarget(), request.getType(), request.getData());
+        // Taken before any work so sse.signal.latency covers the whole relay
+        long receivedAt = System.nanoTime();
+        sseService.sendSignal(request.getSender(), request.getTarget(), request.getType(), request.getData(),
+                receivedAt);
+    }
+
+    // Presence resync: clients that detect a version gap re-fetch the full snapshot
+    @GetMapping("/presence")
+    public PresenceSnapshotDto presence() {
+        return sseService.getPresenceSnapshot();
+    }
+
+    // In-memory user directory size and hit/miss counters
+    @GetMapping("/directory/stats")
+    public UserDirectoryStatsDto directoryStats() {
+        return sseService.getDirectoryStats();
+    }
+
+    // Outbound queue depth per open connection
+    @GetMapping("/connections")
+    public List<ConnectionStatsDto> connections() {
+        return sseService.getConnectionStats();
+    }
+
+    // Node id and cross-node forwarding counters
+    @GetMapping("/routing")
+    public RoutingStatsDto routing() {
+        return sseService.getRoutingStats();
     }
 
     // 3. Logout (DELETE)
@@ -1,320 +1,501 @@
 package com.example.sse;
 
-import com.example.sse.domain.User;
-import com.example.sse.repository.UserRepository;
+import com.example.sse.connection.HeartbeatWheel;
+import com.example.sse.connection.ReplayLog;
+import com.example.sse.connection.SseConnection;
+import com.example.sse.connection.SseWriterPool;
+import com.example.sse.connection.WriteObserved;
+import com.example.sse.domain.ChatMessage;
+import com.example.sse.dto.ChatCommittedDto;
+import com.example.sse.dto.ChatInboxDto;
+import com.example.sse.dto.ChatInboxMessageDto;
+import com.example.sse.dto.ConnectionStatsDto;
+import com.example.sse.dto.PresenceDeltaDto;
+import com.example.sse.dto.PresenceSnapshotDto;
+import com.example.sse.dto.PresenceUserDto;
+import com.example.sse.dto.RoutingStatsDto;
+import com.example.sse.dto.UserDirectoryStatsDto;
+import com.example.sse.logging.RateLimitedLogger;
+import com.example.sse.presence.PresenceRoster;
+import com.example.sse.reactive.ReactiveSseHub;
+import com.example.sse.routing.SignalRouter;
+import com.example.sse.service.CallSessionRecorder;
 import com.example.sse.service.ChatService;
+import com.example.sse.service.UserDirectory;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
-import com.example.sse.repository.CallSessionRepository;
-import com.example.sse.domain.CallSession;
-import com.example.sse.domain.CallStatus;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class SseService {
 
-    private final CallSessionRepository callSessionRepository;
-    private final UserRepository userRepository;
+    private static final Logger log = LoggerFactory.getLogger(SseService.class);
+    // Connects, logouts and failures: a simulator run produces thousands per second.
+    // One limiter per call site, so a flood of one line never hides another.
+    private static final RateLimitedLogger connectLog = new RateLimitedLogger(log, 10_000, 20);
+    private static final RateLimitedLogger logoutLog = new RateLimitedLogger(log, 10_000, 20);
+    private static final RateLimitedLogger inboxFailureLog = new RateLimitedLogger(log, 10_000, 20);
+    private static final RateLimitedLogger cdcErrorLog = new RateLimitedLogger(log, 10_000, 20);
+    private static final RateLimitedLogger chatSaveFailureLog = new RateLimitedLogger(log, 10_000, 20);
+    private static final RateLimitedLogger targetNotFoundLog = new RateLimitedLogger(log, 10_000, 20);
+
+    private final CallSessionRecorder callSessionRecorder;
+    private final UserDirectory userDirectory;
     private final ChatService chatService;
+    private final SseWriterPool writerPool;
+    private final HeartbeatWheel heartbeatWheel;
+    private final ReplayLog replayLog;
+    private final SignalRouter signalRouter;
+    private final ReactiveSseHub reactiveHub;
+    private final MeterRegistry meterRegistry;
+
+    // Store active connections: userId (email) -> connection (emitter + outbound queue)
+    private final Map<String, SseConnection> emitters = new ConcurrentHashMap<>();
+
+    // Online users for delta presence; its monitor orders versions across connections
+    private final PresenceRoster roster = new PresenceRoster();
+    // Spring's mapper, so LocalDateTime in inbox frames serializes like REST responses
+    private final ObjectMapper objectMapper;
+
+    // "delta": one snapshot on subscribe, then user_joined/user_left.
+    // "full": legacy user_list rebroadcast on every change.
+    @Value("${app.sse.presence-mode:delta}")
+    private String presenceMode;
+
+    // Messages streamed in the "inbox" frame on subscribe; the rest via GET /chat/inbox
+    @Value("${app.chat.inbox.catch-up-limit:200}")
+    private int inboxCatchUpLimit;
+
+    // Signal type -> side effect before relay (see SignalType.Path)
+    private final Map<SignalType, SignalHandler> signalHandlers = buildSignalHandlers();
+
+    // Per signal type, built once so the hot path does no registry lookups
+    private final Map<SignalType, Timer> signalLatency = new EnumMap<>(SignalType.class);
+    private final Map<SignalType, Timer> cdcTime = new EnumMap<>(SignalType.class);
+    private final Map<SignalType, Counter> droppedSignals = new EnumMap<>(SignalType.class);
+    private Timer fanoutTime;
+    private DistributionSummary fanoutEmitters;
+
+    @PostConstruct
+    void registerMeters() {
+        for (SignalType type : SignalType.values()) {
+            signalLatency.put(type, Timer.builder("sse.signal.latency")
+                    .description("POST /sse/signal receipt until the frame is written to the target's stream")
+                    .tag("type", type.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            droppedSignals.put(type, Counter.builder("sse.signal.dropped")
+                    .description("Signals whose target was not connected to any node")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+            if (type.getPath() == SignalType.Path.CALL) {
+                cdcTime.put(type, Timer.builder("sse.cdc.db")
+                        .description("Time spent recording the call_session transition")
+                        .tag("type", type.name())
+                        .register(meterRegistry));
+            }
+        }
+        fanoutTime = Timer.builder("sse.fanout.duration")
+                .description("Presence fan-out to every open stream (enqueue only)")
+                .register(meterRegistry);
+        fanoutEmitters = DistributionSummary.builder("sse.fanout.emitters")
+                .description("Streams reached by one presence fan-out")
+                .register(meterRegistry);
+        meterRegistry.gauge("sse.connections.active", emitters, Map::size);
+    }
 
-    // Store active connections: userId (email) -> SseEmitter
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
-
-    public SseEmitter subscribe(String userId) {
+    /**
+     * @param lastEventId Last-Event-ID sent by a reconnecting EventSource, or null
+     */
+    public SseEmitter subscribe(String userId, Long lastEventId) {
         // Set timeout to a long value (e.g., 30 minutes)
         SseEmitter emitter = new SseEmitter(30 * 60 * 1000L);
+        subscribe(userId, emitter, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Attaches an emitter the caller created. The simulator's pipeline mode uses this
+     * for in-process virtual users whose emitter never reaches a servlet container.
+     */
+    public void subscribe(String userId, SseEmitter emitter, Long lastEventId) {
+        SseConnection connection = writerPool.open(userId, emitter);
 
         // In case of re-connection, we might replace an existing emitter.
         // The previous emitter's "completion" callback might run later.
-        emitters.put(userId, emitter);
-
-        // Define cleanup
-        Runnable cleanup = () -> {
-            // Only remove if the current map value is indeed THIS emitter.
+        emitters.put(userId, connection);
+
+        // Define cleanup. Runs once per connection: on container callbacks,
+        // write failure or slow-consumer eviction.
+        connection.onClose(() -> {
+            // Keeps the replay buffer so a quick reconnect can resume
+            replayLog.detach(userId, connection);
+            // Only remove if the current map value is indeed THIS connection.
             // This prevents removing a NEW session if the OLD session times out/completes.
-            if (emitters.remove(userId, emitter)) {
-                broadcastUserList(); // Update others when user leaves
+            // Stays routed here until the replay buffer expires (see SignalRouter)
+            // Under the roster lock: a re-subscribe that got in first keeps the user in
+            // the roster, and one that comes later joins after this leave.
+            roster.lock();
+            try {
+                if (emitters.remove(userId, connection) && !emitters.containsKey(userId)) {
+                    announceLeave(userId); // Update others when user leaves
+                }
+            } finally {
+                roster.unlock();
             }
-        };
+        });
 
         // Remove emitter on completion or timeout
-        emitter.onCompletion(cleanup);
-        emitter.onTimeout(cleanup);
-        emitter.onError((e) -> cleanup.run());
+        emitter.onCompletion(() -> connection.close(false));
+        emitter.onTimeout(() -> connection.close(false));
+        emitter.onError((e) -> connection.close(false));
+
+        // Frames missed since Last-Event-ID go out before anything else
+        replayLog.attach(userId, connection, lastEventId);
+        // Other nodes forward this user's signals here from now on
+        signalRouter.register(userId);
 
         // Send a dummy event to establish connection immediately (optional but good
         // practice)
-        try {
-            emitter.send(SseEmitter.event().name("connect").data("Connected as " + userId));
-            broadcastUserList(); // Update everyone (including new user)
-        } catch (IOException e) {
-            cleanup.run();
-        }
+        replayLog.send(userId, "connect", "Connected as " + userId, false);
+        // Pings, stall detection and dead-connection eviction (see HeartbeatWheel)
+        heartbeatWheel.register(connection);
+        announceJoin(connection); // Update everyone (including new user)
+        sendInbox(userId);
 
-        System.out.println("User connected: " + userId);
-        return emitter;
+        connectLog.info("User connected: {}", userId);
+    }
+
+    /**
+     * Reactive alternative to {@link #subscribe}, served by ReactiveSseServer: signals
+     * only, no Last-Event-ID replay and no presence events. A user should use one
+     * transport at a time.
+     */
+    public Flux<ServerSentEvent<String>> subscribeReactive(String userId) {
+        return reactiveHub.connect(userId,
+                () -> signalRouter.register(userId),
+                () -> signalRouter.unregister(userId));
     }
 
-    @Transactional
     public void logout(String userId) {
-        SseEmitter emitter = emitters.remove(userId);
-        if (emitter != null) {
-            emitter.complete();
-            broadcastUserList();
-            System.out.println("User explicitly logged out: " + userId);
+        SseConnection connection = emitters.remove(userId);
+        if (connection != null) {
+            replayLog.discard(userId);
+            signalRouter.unregister(userId);
+            connection.close(true);
+            announceLeave(userId);
+            logoutLog.info("User explicitly logged out: {}", userId);
 
             // End any active sessions for this user
-            endActiveSessions(userId);
+            callSessionRecorder.endActiveSessions(userId);
         }
     }
 
-    private void endActiveSessions(String userEmail) {
-        User user = userRepository.findByEmail(userEmail).orElse(null);
-        if (user == null)
-            return;
-        Long userId = user.getId();
+    // Outbound queue depth of every open connection, deepest first
+    public List<ConnectionStatsDto> getConnectionStats() {
+        return emitters.values().stream()
+                .map(c -> new ConnectionStatsDto(c.getUserId(), c.getQueueDepth(),
+                        Instant.ofEpochMilli(c.getConnectedAt())))
+                .sorted(java.util.Comparator.comparingInt(ConnectionStatsDto::getQueueDepth).reversed())
+                .collect(Collectors.toList());
+    }
 
-        // Close sessions where user is caller
-        List<CallSession> activeAsCaller = callSessionRepository.findByCallerIdAndStatus(userId, CallStatus.CONNECTED);
-        activeAsCaller.addAll(callSessionRepository.findByCallerIdAndStatus(userId, CallStatus.TRYING));
+    public UserDirectoryStatsDto getDirectoryStats() {
+        return userDirectory.getStats();
+    }
 
-        for (CallSession session : activeAsCaller) {
-            session.end(CallStatus.ENDED);
-            callSessionRepository.save(session);
-        }
+    public PresenceSnapshotDto getPresenceSnapshot() {
+        return roster.snapshot();
+    }
 
-        // Close sessions where user is callee
-        List<CallSession> activeAsCallee = callSessionRepository.findByCalleeIdAndStatus(userId, CallStatus.CONNECTED);
-        activeAsCallee.addAll(callSessionRepository.findByCalleeIdAndStatus(userId, CallStatus.TRYING));
+    public RoutingStatsDto getRoutingStats() {
+        return signalRouter.getStats();
+    }
 
-        for (CallSession session : activeAsCallee) {
-            session.end(CallStatus.ENDED);
-            callSessionRepository.save(session);
+    // Chat messages received since the last ack, in one frame and one range query
+    private void sendInbox(String userId) {
+        try {
+            ChatInboxDto inbox = chatService.getInbox(userId, null, inboxCatchUpLimit);
+            if (!inbox.getMessages().isEmpty()) {
+                replayLog.send(userId, "inbox", toJson(inbox), false);
+            }
+        } catch (Exception e) {
+            inboxFailureLog.warn("Inbox catch-up failed for {}: {}", userId, e.getMessage());
         }
     }
 
-    @org.springframework.scheduling.annotation.Scheduled(fixedRate = 10000) // 10 seconds
-    public void sendHeartbeat() {
-        System.out.println("Heartbeat task running. Active users: " + emitters.size() + " " + emitters.keySet());
-        java.util.List<String> deadUsers = new java.util.ArrayList<>();
-        emitters.forEach((id, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event().name("ping").data("keep-alive"));
-            } catch (IOException e) {
-                deadUsers.add(id);
-            }
-        });
+    // New connection gets a snapshot; everyone else only gets a user_joined delta
+    private void announceJoin(SseConnection connection) {
+        String email = connection.getUserId();
+        String username = userDirectory.findByEmail(email).map(UserDirectory.Entry::getUsername).orElse(email);
 
-        if (!deadUsers.isEmpty()) {
-            boolean removedAny = false;
-            for (String id : deadUsers) {
-                if (emitters.remove(id) != null) {
-                    removedAny = true;
-                }
+        if (!isDeltaPresence()) {
+            roster.join(email, username);
+            broadcastUserList();
+            return;
+        }
+        roster.lock();
+        try {
+            long version = roster.join(email, username);
+            if (version > 0) {
+                String joined = toJson(new PresenceDeltaDto(version, email, username));
+                long start = System.nanoTime();
+                emitters.keySet().forEach(id -> {
+                    if (!id.equals(email)) {
+                        replayLog.send(id, "user_joined", joined, false);
+                    }
+                });
+                recordFanout(start);
             }
-            if (removedAny) {
-                broadcastUserList();
-                System.out.println("Removed zombie users: " + deadUsers);
+            // Re-connects do not change the roster, but still need a fresh snapshot
+            replayLog.send(email, "presence_snapshot", toJson(roster.snapshot()), false);
+        } finally {
+            roster.unlock();
+        }
+    }
+
+    private void announceLeave(String email) {
+        if (!isDeltaPresence()) {
+            roster.leave(email);
+            broadcastUserList();
+            return;
+        }
+        roster.lock();
+        try {
+            long version = roster.leave(email);
+            if (version > 0) {
+                String left = toJson(new PresenceDeltaDto(version, email, null));
+                long start = System.nanoTime();
+                emitters.keySet().forEach(id -> replayLog.send(id, "user_left", left, false));
+                recordFanout(start);
             }
+        } finally {
+            roster.unlock();
         }
     }
 
-    // Broadcast current user list to all connected clients
-    private void broadcastUserList() {
+    private boolean isDeltaPresence() {
+        return !"full".equalsIgnoreCase(presenceMode);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize SSE payload", e);
+        }
+    }
+
+    // Broadcast current user list to all connected clients (presence-mode: full).
+    // Package-private for PresenceBroadcastBenchmark.
+    void broadcastUserList() {
         if (emitters.isEmpty())
             return;
 
-        Set<String> activeEmails = emitters.keySet();
-        // Database call finishes here, connection returned to pool (OSIV=false)
-        List<User> users = userRepository.findByEmailIn(activeEmails);
-
-        // Convert to list of simple DTOs or Maps
-        List<Map<String, String>> userList = users.stream()
-                .map(u -> {
-                    Map<String, String> map = new HashMap<>();
-                    map.put("email", u.getEmail());
-                    map.put("username", u.getUsername());
-                    return map;
-                })
-                .collect(Collectors.toList());
+        // The roster already holds email/username of everyone online, no DB round trip
+        List<PresenceUserDto> userList = roster.snapshot().getUsers();
 
         String userListJson;
         try {
-            userListJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(userList);
+            userListJson = objectMapper.writeValueAsString(userList);
         } catch (IOException e) {
             userListJson = "[]";
         }
 
         final String payload = userListJson;
 
-        // Sending must happen OUTSIDE the transaction ideally, but for simplicity here
-        // we keep it.
+        // Fan-out only enqueues; the writer pool does the actual socket writes.
         // Since we already materialized the DTOs (Json string), we are safe from
         // LazyLoading.
-        emitters.forEach((id, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event().name("user_list").data(payload));
-            } catch (IOException e) {
-                // Should be handled by onError/onTimeout
-            }
-        });
+        long start = System.nanoTime();
+        emitters.keySet().forEach(id -> replayLog.send(id, "user_list", payload, false));
+        recordFanout(start);
     }
 
-    // Send a message (signal) to a specific target user
-    @Transactional
+    private void recordFanout(long startNanos) {
+        fanoutTime.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        fanoutEmitters.record(emitters.size());
+    }
+
+    // Send a message (signal) to a specific target user.
+    // Not transactional: only CALL-path handlers open a transaction (CallSessionRecorder),
+    // so candidates and other relay-only signals never borrow a JDBC connection.
     public void sendSignal(String senderEmail, String targetEmail, String type, String data) {
-        SseEmitter emitter = emitters.get(targetEmail);
+        sendSignal(senderEmail, targetEmail, type, data, System.nanoTime());
+    }
 
-        // --- CDC Logic Start ---
-        try {
-            User sender = userRepository.findByEmail(senderEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
-            User target = userRepository.findByEmail(targetEmail)
-                    .orElseThrow(() -> new IllegalArgumentException("Target not found"));
-            Long senderId = sender.getId();
-            Long targetId = target.getId();
-
-            if ("offer".equalsIgnoreCase(type)) {
-
-                // BUSY Check
-                if (callSessionRepository.existsActiveSession(targetId)) {
-                    CallSession busySession = new CallSession(
-                            UUID.randomUUID().toString(),
-                            senderId,
-                            targetId,
-                            CallStatus.TRYING // Start as TRYING
-                    );
-                    busySession.end(CallStatus.BUSY); // Immediately end as BUSY
-                    callSessionRepository.save(busySession);
-                    System.out.println("CDC: Created Session (BUSY) " + busySession.getSessionId());
-
-                    // Optional: Send BUSY signal back to sender?
-                    // For now, we just record it as requested.
-
-                    return; // Stop processing OFFER
-                }
+    /**
+     * @param receivedAtNanos System.nanoTime() when the signal arrived; sse.signal.latency
+     *                        runs from here until the frame reaches the target's stream
+     * @return false if the signal was refused and not relayed: an OFFER to a busy callee,
+     *         which is recorded as a BUSY session instead
+     */
+    public boolean sendSignal(String senderEmail, String targetEmail, String type, String data, long receivedAtNanos) {
+        SignalType signalType = SignalType.from(type);
+        SignalHandler handler = signalHandlers.getOrDefault(signalType, this::relayOnly);
+        if (!handler.handle(senderEmail, targetEmail, signalType, data, receivedAtNanos)) {
+            return false;
+        }
+        SignalRouter.Route route = relay(senderEmail, targetEmail, signalType, type, data, receivedAtNanos);
+        if (signalType.getPath() == SignalType.Path.CHAT) {
+            saveChat(senderEmail, targetEmail, data, route);
+        }
+        return true;
+    }
 
-                CallSession session = new CallSession(
-                        UUID.randomUUID().toString(),
-                        senderId,
-                        targetId,
-                        CallStatus.TRYING);
-                callSessionRepository.save(session);
-                System.out.println("CDC: Created Session (TRYING) " + session.getSessionId());
-            } else if ("answer".equalsIgnoreCase(type)) {
-                // Find the session where 'targetId' (original caller) called 'senderId'
-                // (original callee)
-                // Note: targetEmail is the original caller (who OFFERed), senderEmail is the
-                // ANSWERer (callee)
-                // Wait, logic check:
-                // Signal "answer" is sent FROM senderEmail TO targetEmail.
-                // So senderEmail is the Callee answering, targetEmail is the Caller.
-                // findTopByCallerIdAndCalleeId -> Caller=targetId, Callee=senderId
-                callSessionRepository.findTopByCallerIdAndCalleeIdOrderByCreatedAtDesc(targetId, senderId)
-                        .ifPresent(session -> {
-                            if (CallStatus.TRYING.equals(session.getStatus())) {
-                                session.connect();
-                                callSessionRepository.save(session);
-                                System.out.println("CDC: Updated Session (CONNECTED) " + session.getSessionId());
-                            }
-                        });
-            } else if ("hangup".equalsIgnoreCase(type) || "bye".equalsIgnoreCase(type) ||
-                    "reject".equalsIgnoreCase(type) || "busy".equalsIgnoreCase(type)) {
-                // Handle explicit hangup/reject/busy
-                // Case 1: Caller hangs up (senderId is Caller)
-                callSessionRepository.findTopByCallerIdAndCalleeIdOrderByCreatedAtDesc(senderId, targetId)
-                        .ifPresent(session -> {
-                            if (!session.getStatus().isTerminal()) {
-                                if (session.getStatus() == CallStatus.TRYING) {
-                                    // Caller hung up while TRYING -> CANCELLED
-                                    session.end(CallStatus.CANCELLED);
-                                } else {
-                                    // CONNECTED -> ENDED
-                                    session.end(CallStatus.ENDED);
-                                }
-                                callSessionRepository.save(session);
-                            }
-                        });
-                // Case 2: Callee hangs up (senderId is Callee, targetId is Caller)
-                callSessionRepository.findTopByCallerIdAndCalleeIdOrderByCreatedAtDesc(targetId, senderId)
-                        .ifPresent(session -> {
-                            if (!session.getStatus().isTerminal()) {
-                                if (session.getStatus() == CallStatus.TRYING) {
-                                    // Callee responding to TRYING
-                                    if ("busy".equalsIgnoreCase(type)) {
-                                        session.end(CallStatus.BUSY);
-                                    } else {
-                                        // Default to REJECTED for hangup/reject during trying
-                                        session.end(CallStatus.REJECTED);
-                                    }
-                                } else {
-                                    // CONNECTED -> ENDED
-                                    session.end(CallStatus.ENDED);
-                                }
-                                callSessionRepository.save(session);
-                            }
-                        });
+    // Side effect to run before relaying; returns false to refuse the signal
+    @FunctionalInterface
+    private interface SignalHandler {
+        boolean handle(String senderEmail, String targetEmail, SignalType type, String data, long receivedAtNanos);
+    }
+
+    private Map<SignalType, SignalHandler> buildSignalHandlers() {
+        Map<SignalType, SignalHandler> handlers = new EnumMap<>(SignalType.class);
+        for (SignalType signalType : SignalType.values()) {
+            switch (signalType.getPath()) {
+                case CALL -> handlers.put(signalType, this::recordCall);
+                default -> handlers.put(signalType, this::relayOnly);
             }
-        } catch (Exception e) {
-            System.err.println("CDC Error: " + e.getMessage());
-            // Don't fail the signal sending
         }
-        // --- CDC Logic End ---
+        return handlers;
+    }
 
-        // --- Chat Save Logic ---
-        if ("CHAT".equalsIgnoreCase(type)) {
-            try {
-                chatService.saveMessage(senderEmail, targetEmail, data);
-                System.out.println("Chat message saved: " + senderEmail + " -> " + targetEmail);
-            } catch (Exception e) {
-                System.err.println("Chat save error: " + e.getMessage());
-                // Don't fail the signal sending
+    private boolean relayOnly(String senderEmail, String targetEmail, SignalType type, String data,
+                              long receivedAtNanos) {
+        return true;
+    }
+
+    private boolean recordCall(String senderEmail, String targetEmail, SignalType type, String data,
+                               long receivedAtNanos) {
+        // --- CDC Logic ---
+        long start = System.nanoTime();
+        try {
+            switch (type) {
+                case OFFER:
+                    return callSessionRecorder.recordOffer(senderEmail, targetEmail);
+                case ANSWER:
+                    callSessionRecorder.recordAnswer(senderEmail, targetEmail);
+                    break;
+                default:
+                    callSessionRecorder.recordHangup(senderEmail, targetEmail, type);
+                    break;
             }
+        } catch (Exception e) {
+            cdcErrorLog.warn("CDC error for {} {} -> {}: {}", type, senderEmail, targetEmail, e.getMessage());
+            // Don't fail the signal sending
+        } finally {
+            cdcTime.get(type).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        // --- Chat Save Logic End ---
+        return true;
+    }
 
-        if (emitter != null) {
-            try {
-                // Determine event name based on signal type (OFFER, ANSWER, CANDIDATE)
-                // Or just use a generic "signal" event and include type in the data
-                SsePayload payload = new SsePayload(senderEmail, type, data);
-                System.out.println("Processing payload for " + targetEmail + " -> ready to send.");
-                emitter.send(SseEmitter.event().name("signal").data(payload));
-
-                System.out.println("Signal sent from " + senderEmail + " to " + targetEmail + " [" + type + "]");
-            } catch (IOException e) {
-                emitters.remove(targetEmail);
-                System.out.println(
-                        "Failed to send signal to " + targetEmail + " (User disconnected or blocked): "
-                                + e.getMessage());
+    // Runs after the relay; the commit is not on the live path. Once committed, a
+    // chat_committed frame behind it tells the receiver which inbox_seq to acknowledge.
+    // A message relayed as DROPPED is offered again as a one-message inbox frame: a
+    // subscribe that read its inbox before this commit landed has registered by now and
+    // gets it here, so the client never acks a later seq over it. One that registers
+    // after this point reads the committed row in sendInbox.
+    // (In sync mode the future completes inside submitMessage, hence after the relay.)
+    private void saveChat(String senderEmail, String targetEmail, String data, SignalRouter.Route route) {
+        CompletableFuture<ChatMessage> committed;
+        try {
+            // Committed now or by the next group commit, depending on app.chat.durability
+            committed = chatService.submitMessage(senderEmail, targetEmail, data);
+        } catch (Exception e) {
+            committed = CompletableFuture.failedFuture(e);
+        }
+        committed.whenComplete((message, error) -> {
+            if (error != null) {
+                chatSaveFailureLog.warn("Chat save failed for {} -> {}: {}", senderEmail, targetEmail,
+                        error.getMessage());
+            } else if (route != SignalRouter.Route.DROPPED) {
+                signalRouter.deliver(targetEmail, "chat_committed",
+                        new ChatCommittedDto(senderEmail, message.getInboxSeq()), true);
+            } else {
+                ChatInboxMessageDto missed = new ChatInboxMessageDto(message.getId(), senderEmail,
+                        message.getMessage(), message.getCreatedAt(), message.getInboxSeq());
+                signalRouter.deliver(targetEmail, "inbox",
+                        new ChatInboxDto(List.of(missed), missed.getSeq(), false), true);
             }
+        });
+    }
+
+    private SignalRouter.Route relay(String senderEmail, String targetEmail, SignalType signalType, String type,
+                                     String data, long receivedAtNanos) {
+        // Determine event name based on signal type (OFFER, ANSWER, CANDIDATE)
+        // Or just use a generic "signal" event and include type in the data
+        SsePayload payload = new SsePayload(senderEmail, type, data, signalLatency.get(signalType), receivedAtNanos);
+        // Signals are replayable: a target that is mid-reconnect gets them on resume.
+        // Write failures evict the connection asynchronously (see SseWriterPool).
+        // Targets connected to another node are forwarded there (see SignalRouter).
+        SignalRouter.Route route = signalRouter.deliver(targetEmail, "signal", payload, true);
+        if (route != SignalRouter.Route.DROPPED) {
+            log.debug("Signal {} from {} to {} [{}]", route, senderEmail, targetEmail, type);
         } else {
-            System.out.println("Target user not found: " + targetEmail);
+            droppedSignals.get(signalType).increment();
+            targetNotFoundLog.info("Target user not found: {} [{}]", targetEmail, type);
         }
+        return route;
     }
 
     // Helper class for payload (inner class or separate)
-    public static class SsePayload {
+    // Records sse.signal.latency on its first write; replays of the same frame do not.
+    public static class SsePayload implements WriteObserved {
         public String sender;
         public String type;
         public String data; // Can be JSON string of SDP or ICE candidate
 
-        public SsePayload(String sender, String type, String data) {
+        @JsonIgnore
+        private final Timer latency;
+        @JsonIgnore
+        private final long receivedAtNanos;
+        @JsonIgnore
+        private volatile boolean written;
+
+        public SsePayload(String sender, String type, String data, Timer latency, long receivedAtNanos) {
             this.sender = sender;
             this.type = type;
             this.data = data;
+            this.latency = latency;
+            this.receivedAtNanos = receivedAtNanos;
+        }
+
+        // When sendSignal was entered; in-process receivers measure delivery from here
+        @JsonIgnore
+        public long getReceivedAtNanos() {
+            return receivedAtNanos;
+        }
+
+        @Override
+        public void onWritten() {
+            if (!written) {
+                written = true;
+                latency.record(System.nanoTime() - receivedAtNanos, TimeUnit.NANOSECONDS);
+            }
         }
     }
 }
@@ -0,0 +1,103 @@
+package com.example.sse.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the application's own executors, following
+ * {@code spring.threads.virtual.enabled}: the same switch Spring Boot uses for Tomcat
+ * request threads, {@code @Scheduled} and the application task executor.
+ *
+ * The code is compiled for Java 17, so virtual threads are created reflectively and
+ * only when the JVM running the app is 21 or newer. On 17 the switch is ignored and
+ * everything stays on platform threads.
+ */
+@Component
+public class ExecutionThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionThreads.class);
+
+    private final boolean virtual;
+    private final Method ofVirtual;
+    private final Method builderName;
+    private final Method builderFactory;
+    private final Method newThreadPerTaskExecutor;
+
+    public ExecutionThreads(Environment environment) {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        Method[] methods = requested ? lookupVirtualThreadApi() : null;
+        this.virtual = methods != null && Threading.VIRTUAL.isActive(environment);
+        this.ofVirtual = virtual ? methods[0] : null;
+        this.builderName = virtual ? methods[1] : null;
+        this.builderFactory = virtual ? methods[2] : null;
+        this.newThreadPerTaskExecutor = virtual ? methods[3] : null;
+        if (requested && !virtual) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+        } else if (virtual) {
+            log.info("Virtual-thread execution mode enabled");
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    // Named daemon threads; virtual in virtual mode
+    public ThreadFactory factory(String prefix) {
+        if (virtual) {
+            try {
+                Object builder = builderName.invoke(ofVirtual.invoke(null), prefix, 1L);
+                return (ThreadFactory) builderFactory.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread factory", e);
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Executor for blocking work (JDBC, remote calls) fired by a scheduler: one
+     * virtual thread per task in virtual mode, otherwise the task runs on the
+     * calling thread as before.
+     */
+    public Executor blockingTaskExecutor(String prefix) {
+        if (!virtual) {
+            return Runnable::run;
+        }
+        try {
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory(prefix));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private static Method[] lookupVirtualThreadApi() {
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            return new Method[]{
+                    Thread.class.getMethod("ofVirtual"),
+                    builder.getMethod("name", String.class, long.class),
+                    builder.getMethod("factory"),
+                    Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+            };
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.sse.connection;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel that spreads heartbeats over the whole interval.
+ *
+ * Connections are hashed by user id into one of {@code slots} buckets and each tick
+ * visits a single bucket, so every connection is looked at once per interval but only
+ * about 1/slots of them at a time. A bucket's size depends only on who is connected,
+ * not on the order they connected in, so it stays balanced as connections churn. A
+ * visit skips the ping if the connection carried real traffic within the interval, and
+ * evicts it if it is stalled or its queue is stuck.
+ */
+@Component
+public class HeartbeatWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatWheel.class);
+
+    private static final OutboundEvent PING = new OutboundEvent("ping", "keep-alive");
+
+    private final SseWriterPool writerPool;
+    private final long intervalMs;
+    private final long deadTimeoutMs;
+    private final Set<SseConnection>[] wheel;
+    // One bucket visit: ping, stall and slow-consumer checks for 1/slots of the connections
+    private final Timer sweepTime;
+
+    private ScheduledExecutorService ticker;
+    private int cursor;
+
+    @SuppressWarnings("unchecked")
+    public HeartbeatWheel(SseWriterPool writerPool,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.sse.heartbeat-interval-ms:10000}") long intervalMs,
+                          @Value("${app.sse.heartbeat-slots:100}") int slots,
+                          @Value("${app.sse.dead-connection-timeout-ms:30000}") long deadTimeoutMs) {
+        this.writerPool = writerPool;
+        this.intervalMs = intervalMs;
+        this.deadTimeoutMs = deadTimeoutMs;
+        this.sweepTime = Timer.builder("sse.heartbeat.sweep")
+                .description("Heartbeat wheel tick over one bucket")
+                .register(meterRegistry);
+        this.wheel = new Set[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        long tickMs = Math.max(1, intervalMs / wheel.length);
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tickSafe, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    public void register(SseConnection connection) {
+        wheel[slotOf(connection.getUserId())].add(connection);
+    }
+
+    private int slotOf(String userId) {
+        // Similar ids (user1@.., user2@..) differ only in a few hashCode() bits; mix them
+        int h = userId.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, wheel.length);
+    }
+
+    private void tickSafe() {
+        try {
+            sweepTime.record(this::tick);
+        } catch (Exception e) {
+            log.error("Heartbeat tick failed", e);
+        }
+    }
+
+    // Only ever called from the single ticker thread
+    void tick() {
+        Set<SseConnection> bucket = wheel[cursor];
+        cursor = (cursor + 1) % wheel.length;
+
+        long now = System.currentTimeMillis();
+        int pinged = 0;
+        for (SseConnection connection : bucket) {
+            if (connection.isClosed()) {
+                bucket.remove(connection);
+                continue;
+            }
+            long idle = now - connection.getLastWriteAt();
+            if (connection.getQueueDepth() > 0 && idle > deadTimeoutMs) {
+                // Frames are queued but nothing has reached the socket for too long
+                writerPool.evict(connection, "no successful write for " + idle + "ms");
+                bucket.remove(connection);
+                continue;
+            }
+            if (writerPool.checkSlowConsumer(connection)) {
+                bucket.remove(connection);
+                continue;
+            }
+            if (idle >= intervalMs) {
+                writerPool.enqueue(connection, PING);
+                pinged++;
+            }
+        }
+        if (pinged > 0 && log.isTraceEnabled()) {
+            log.trace("Heartbeat slot pinged {} of {} connections", pinged, bucket.size());
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Set<SseConnection> bucket : wheel) {
+            total += bucket.size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.sse.connection;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A single SSE frame waiting in a connection's outbound queue.
+ * Kept transport-neutral so the writer decides how it is put on the wire.
+ *
+ * Frames sent through {@link ReplayLog} carry a monotonically increasing id; pings are
+ * sent without one so they never move the client's Last-Event-ID.
+ */
+public class OutboundEvent {
+
+    private final Long id;
+    private final String name;
+    private final Object data;
+
+    public OutboundEvent(String name, Object data) {
+        this(null, name, data);
+    }
+
+    public OutboundEvent(Long id, String name, Object data) {
+        this.id = id;
+        this.name = name;
+        this.data = data;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public SseEmitter.SseEventBuilder toEmitterEvent() {
+        SseEmitter.SseEventBuilder builder = SseEmitter.event();
+        if (id != null) {
+            builder.id(Long.toString(id));
+        }
+        return builder.name(name).data(data);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.sse.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-user ring of recently sent replayable frames, plus the connection currently
+ * attached to that user. Not thread-safe: {@link ReplayLog} guards every access with
+ * the buffer's monitor, which also serializes id assignment and enqueueing per user.
+ */
+class ReplayBuffer {
+
+    private final OutboundEvent[] ring;
+    private int head;
+    private int size;
+
+    // Frames with id <= floor may be missing (evicted from the ring or sent before
+    // this buffer existed); a Last-Event-ID below it cannot be replayed losslessly.
+    private long floor;
+
+    private SseConnection connection;
+    private long detachedAt;
+    private boolean retired;
+
+    ReplayBuffer(int capacity, long floor) {
+        this.ring = new OutboundEvent[capacity];
+        this.floor = floor;
+        this.detachedAt = System.currentTimeMillis();
+    }
+
+    void add(OutboundEvent event) {
+        int tail = (head + size) % ring.length;
+        if (size == ring.length) {
+            floor = ring[head].getId();
+            head = (head + 1) % ring.length;
+        } else {
+            size++;
+        }
+        ring[tail] = event;
+    }
+
+    boolean covers(long lastEventId) {
+        return lastEventId >= floor;
+    }
+
+    List<OutboundEvent> after(long lastEventId) {
+        List<OutboundEvent> events = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            OutboundEvent event = ring[(head + i) % ring.length];
+            if (event.getId() > lastEventId) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    SseConnection getConnection() {
+        return connection;
+    }
+
+    SseConnection attach(SseConnection connection) {
+        SseConnection previous = this.connection;
+        this.connection = connection;
+        return previous;
+    }
+
+    boolean detach(SseConnection connection) {
+        if (this.connection != connection) {
+            return false;
+        }
+        this.connection = null;
+        this.detachedAt = System.currentTimeMillis();
+        return true;
+    }
+
+    boolean isExpired(long now, long retentionMs) {
+        return connection == null && now - detachedAt > retentionMs;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    void retire() {
+        this.retired = true;
+        this.connection = null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.sse.connection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Routes every per-user frame through a {@link ReplayBuffer}: assigns its event id,
+ * keeps replayable frames in a bounded ring and hands the frame to whatever
+ * connection the user currently has.
+ *
+ * A reconnect that sends Last-Event-ID gets the retained frames after that id before
+ * anything new, so a short network blip costs a few replayed frames instead of a
+ * failed call. Buffers of disconnected users are kept for {@code replay-retention-ms};
+ * until then the user stays routed to this node, so frames from other nodes are
+ * buffered here too.
+ */
+@Component
+public class ReplayLog {
+
+    public enum Delivery {
+        SENT,       // queued on the user's open connection
+        BUFFERED,   // user is between connections; will be replayed on reconnect
+        DROPPED     // user has no stream on this node
+    }
+
+    private final SseWriterPool writerPool;
+    private final int capacity;
+    private final long retentionMs;
+
+    // Seeded from the clock so ids keep increasing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final Map<String, ReplayBuffer> buffers = new ConcurrentHashMap<>();
+    // Told the user id of every buffer dropped for inactivity
+    private volatile Consumer<String> expiryListener = userId -> {
+    };
+
+    public ReplayLog(SseWriterPool writerPool,
+                     @Value("${app.sse.replay-buffer-size:64}") int capacity,
+                     @Value("${app.sse.replay-retention-ms:60000}") long retentionMs) {
+        this.writerPool = writerPool;
+        this.capacity = capacity;
+        this.retentionMs = retentionMs;
+    }
+
+    /**
+     * Makes {@code connection} the user's live stream. Frames after {@code lastEventId}
+     * are queued first; if some may have been lost a {@code replay_gap} frame is sent so
+     * the client can fall back to a full renegotiation.
+     *
+     * A Last-Event-ID with no buffer here always gets the gap: it was issued before this
+     * node last saw the user, or by another node, whose ids are not comparable with ours.
+     */
+    public void attach(String userId, SseConnection connection, Long lastEventId) {
+        SseConnection[] previous = new SseConnection[1];
+        buffers.compute(userId, (id, buffer) -> {
+            boolean created = buffer == null;
+            if (created) {
+                buffer = new ReplayBuffer(capacity, sequence.get());
+            }
+            synchronized (buffer) {
+                previous[0] = buffer.attach(connection);
+                if (lastEventId != null) {
+                    if (created || !buffer.covers(lastEventId)) {
+                        writerPool.enqueue(connection, next("replay_gap", Long.toString(lastEventId)));
+                    }
+                    buffer.after(lastEventId).forEach(event -> writerPool.enqueue(connection, event));
+                }
+            }
+            return buffer;
+        });
+        // The superseded stream no longer receives anything; release it
+        if (previous[0] != null && previous[0] != connection) {
+            previous[0].close(true);
+        }
+    }
+
+    public void detach(String userId, SseConnection connection) {
+        ReplayBuffer buffer = buffers.get(userId);
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.detach(connection);
+            }
+        }
+    }
+
+    // Explicit logout: nothing to replay later
+    public void discard(String userId) {
+        ReplayBuffer buffer = buffers.remove(userId);
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.retire();
+            }
+        }
+    }
+
+    /**
+     * Drops the user's buffer unless a connection is attached to it, e.g. once the user
+     * has reconnected on another node and frames for them must be routed there.
+     */
+    public void discardDetached(String userId) {
+        buffers.computeIfPresent(userId, (id, buffer) -> {
+            synchronized (buffer) {
+                SseConnection connection = buffer.getConnection();
+                if (connection != null && !connection.isClosed()) {
+                    return buffer;
+                }
+                buffer.retire();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Like {@link #send} but only if the user has an open connection on this node;
+     * nothing is buffered (and no event id is used) otherwise.
+     */
+    public boolean sendIfAttached(String userId, String name, Object data, boolean replayable) {
+        ReplayBuffer buffer = buffers.get(userId);
+        if (buffer == null) {
+            return false;
+        }
+        synchronized (buffer) {
+            SseConnection connection = buffer.getConnection();
+            if (buffer.isRetired() || connection == null || connection.isClosed()) {
+                return false;
+            }
+            OutboundEvent event = next(name, data);
+            if (replayable) {
+                buffer.add(event);
+            }
+            writerPool.enqueue(connection, event);
+            return true;
+        }
+    }
+
+    /**
+     * Sends a frame to the user's current connection with the next event id.
+     *
+     * @param replayable whether the frame is kept for Last-Event-ID replay
+     */
+    public Delivery send(String userId, String name, Object data, boolean replayable) {
+        ReplayBuffer buffer = buffers.get(userId);
+        if (buffer == null) {
+            return Delivery.DROPPED;
+        }
+        synchronized (buffer) {
+            if (buffer.isRetired()) {
+                return Delivery.DROPPED;
+            }
+            OutboundEvent event = next(name, data);
+            if (replayable) {
+                buffer.add(event);
+            }
+            SseConnection connection = buffer.getConnection();
+            if (connection != null && !connection.isClosed()) {
+                writerPool.enqueue(connection, event);
+                return Delivery.SENT;
+            }
+            return replayable ? Delivery.BUFFERED : Delivery.DROPPED;
+        }
+    }
+
+    public void onExpired(Consumer<String> listener) {
+        this.expiryListener = listener;
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.replay-retention-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        buffers.keySet().forEach(userId -> {
+            boolean[] expired = new boolean[1];
+            buffers.computeIfPresent(userId, (id, buffer) -> {
+                synchronized (buffer) {
+                    if (buffer.isExpired(now, retentionMs)) {
+                        buffer.retire();
+                        expired[0] = true;
+                        return null;
+                    }
+                    return buffer;
+                }
+            });
+            if (expired[0]) {
+                expiryListener.accept(userId);
+            }
+        });
+    }
+
+    private OutboundEvent next(String name, Object data) {
+        return new OutboundEvent(sequence.incrementAndGet(), name, data);
+    }
+}
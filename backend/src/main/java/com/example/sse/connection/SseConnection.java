@@ -0,0 +1,171 @@
+package com.example.sse.connection;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One open SSE stream plus its bounded outbound queue.
+ *
+ * Producers never touch the emitter directly: they {@link #offer} into a lock-free
+ * queue and {@link SseWriterPool} drains it. At most one writer drains a connection
+ * at a time, which keeps frames in order without holding a lock on the send path.
+ */
+public class SseConnection {
+
+    private final String userId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final long connectedAt = System.currentTimeMillis();
+
+    private final ConcurrentLinkedQueue<OutboundEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    // 0 while the queue is at or below the high-water mark
+    private volatile long aboveHighWaterSince;
+    // Last time a frame actually reached the emitter; drives ping suppression
+    private volatile long lastWriteAt = connectedAt;
+    private volatile Runnable closeHandler = () -> {
+    };
+    // Set while a writer is inside emitter.send (see SseWriterPool's write watchdog)
+    private volatile long writeStartedAt;
+    private volatile Thread writerThread;
+    // Evicted mid-write: the emitter is completed by the writer once the send returns
+    private final AtomicBoolean evictedMidWrite = new AtomicBoolean();
+
+    public SseConnection(String userId, SseEmitter emitter, int capacity) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    public long getConnectedAt() {
+        return connectedAt;
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public void onClose(Runnable handler) {
+        this.closeHandler = handler;
+    }
+
+    /**
+     * @return false if the connection is closed or the queue is full
+     */
+    boolean offer(OutboundEvent event) {
+        if (closed.get()) {
+            return false;
+        }
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        return true;
+    }
+
+    OutboundEvent poll() {
+        OutboundEvent event = queue.poll();
+        if (event != null) {
+            depth.decrementAndGet();
+        }
+        return event;
+    }
+
+    boolean hasPending() {
+        return !queue.isEmpty();
+    }
+
+    boolean tryStartDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void endDrain() {
+        draining.set(false);
+    }
+
+    void beginWrite(Thread writer, long at) {
+        this.writerThread = writer;
+        this.writeStartedAt = at;
+    }
+
+    // Synchronized with interruptWriter so a writer that has moved on is never interrupted
+    synchronized void endWrite() {
+        this.writeStartedAt = 0;
+        this.writerThread = null;
+    }
+
+    synchronized void interruptWriter() {
+        if (writeStartedAt != 0 && writerThread != null) {
+            writerThread.interrupt();
+        }
+    }
+
+    long getWriteStartedAt() {
+        return writeStartedAt;
+    }
+
+    boolean markEvictedMidWrite() {
+        return evictedMidWrite.compareAndSet(false, true);
+    }
+
+    boolean isEvictedMidWrite() {
+        return evictedMidWrite.get();
+    }
+
+    public long getLastWriteAt() {
+        return lastWriteAt;
+    }
+
+    void markWritten(long at) {
+        this.lastWriteAt = at;
+    }
+
+    long getAboveHighWaterSince() {
+        return aboveHighWaterSince;
+    }
+
+    void setAboveHighWaterSince(long since) {
+        this.aboveHighWaterSince = since;
+    }
+
+    /**
+     * Closes the connection once. Pending frames are discarded and the close handler runs.
+     *
+     * @param completeEmitter false when the container already finished the emitter
+     *                        (completion, timeout or error callbacks)
+     */
+    public void close(boolean completeEmitter) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        queue.clear();
+        depth.set(0);
+        if (completeEmitter) {
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Emitter already finished by the container
+            }
+        }
+        closeHandler.run();
+    }
+}
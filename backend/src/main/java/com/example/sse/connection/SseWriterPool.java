@@ -0,0 +1,238 @@
+package com.example.sse.connection;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains {@link SseConnection} queues on a small pool of writer threads so that
+ * request, scheduler and fan-out threads never block on a slow socket.
+ *
+ * A connection whose queue overflows, or stays above the high-water mark for longer
+ * than the grace period, is evicted: its emitter is completed and it is dropped.
+ *
+ * A single write that blocks longer than {@code write-timeout-ms} (a client with a
+ * stalled TCP window) is evicted by a watchdog: the connection is closed, the writer
+ * is interrupted, and a spare writer thread is added until the stuck write returns,
+ * so a few stalled clients cannot hold every writer and starve the others.
+ *
+ * Writers stay on platform threads even in virtual-thread mode: SseEmitter.send
+ * holds the emitter's monitor during the socket write, which would pin the carrier
+ * anyway, and a small fixed pool bounds how many sockets are written at once.
+ */
+@Component
+public class SseWriterPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SseWriterPool.class);
+
+    // Frames written per drain task before yielding the thread to other connections
+    private static final int MAX_FRAMES_PER_DRAIN = 64;
+
+    private final int queueCapacity;
+    private final int highWaterMark;
+    private final long slowConsumerGraceMs;
+    private final long writeTimeoutMs;
+    private final int writerThreads;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService watchdog;
+
+    // Connections a writer is currently draining
+    private final Set<SseConnection> inFlight = ConcurrentHashMap.newKeySet();
+    // Writes stuck past the timeout and the extra writers standing in for them; guarded by this
+    private int stuckWrites;
+    private int spareWriters;
+
+    public SseWriterPool(@Value("${app.sse.writer-threads:4}") int writerThreads,
+                         @Value("${app.sse.queue-capacity:256}") int queueCapacity,
+                         @Value("${app.sse.high-water-mark:128}") int highWaterMark,
+                         @Value("${app.sse.slow-consumer-grace-ms:5000}") long slowConsumerGraceMs,
+                         @Value("${app.sse.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.queueCapacity = queueCapacity;
+        this.highWaterMark = Math.min(highWaterMark, queueCapacity);
+        this.slowConsumerGraceMs = slowConsumerGraceMs;
+        this.writeTimeoutMs = writeTimeoutMs;
+        this.writerThreads = writerThreads;
+        this.executor = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("sse-writer-"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(namedThreads("sse-write-watchdog-"));
+        long period = Math.max(100, writeTimeoutMs / 4);
+        watchdog.scheduleWithFixedDelay(this::evictStuckWrites, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public SseConnection open(String userId, SseEmitter emitter) {
+        return new SseConnection(userId, emitter, queueCapacity);
+    }
+
+    /**
+     * Queues a frame for the connection and makes sure a writer is draining it.
+     * Never blocks.
+     */
+    public void enqueue(SseConnection connection, OutboundEvent event) {
+        if (connection.isClosed()) {
+            return;
+        }
+        if (!connection.offer(event)) {
+            evict(connection, "outbound queue full (" + queueCapacity + ")");
+            return;
+        }
+        if (checkSlowConsumer(connection)) {
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    /**
+     * Evicts the connection if it has been above the high-water mark for longer than
+     * the grace period.
+     *
+     * @return true if the connection was evicted
+     */
+    public boolean checkSlowConsumer(SseConnection connection) {
+        if (connection.getQueueDepth() <= highWaterMark) {
+            connection.setAboveHighWaterSince(0);
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long since = connection.getAboveHighWaterSince();
+        if (since == 0) {
+            connection.setAboveHighWaterSince(now);
+            return false;
+        }
+        if (now - since > slowConsumerGraceMs) {
+            evict(connection, "above high-water mark (" + highWaterMark + ") for " + (now - since) + "ms");
+            return true;
+        }
+        return false;
+    }
+
+    private void scheduleDrain(SseConnection connection) {
+        if (connection.tryStartDrain()) {
+            try {
+                executor.execute(() -> drain(connection));
+            } catch (RuntimeException e) {
+                // Pool is shutting down
+                connection.endDrain();
+            }
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        inFlight.add(connection);
+        try {
+            int written = 0;
+            OutboundEvent event;
+            while (written < MAX_FRAMES_PER_DRAIN && !connection.isClosed()
+                    && (event = connection.poll()) != null) {
+                connection.beginWrite(Thread.currentThread(), System.currentTimeMillis());
+                try {
+                    connection.getEmitter().send(event.toEmitterEvent());
+                } finally {
+                    connection.endWrite();
+                }
+                if (event.getData() instanceof WriteObserved observed) {
+                    observed.onWritten();
+                }
+                written++;
+            }
+            if (written > 0) {
+                connection.markWritten(System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            // IOException for a broken pipe, IllegalStateException for a completed emitter
+            connection.endDrain();
+            evict(connection, "write failed: " + e.getMessage());
+            return;
+        } finally {
+            inFlight.remove(connection);
+            if (connection.isEvictedMidWrite()) {
+                finishStuckWrite(connection);
+            }
+        }
+        connection.endDrain();
+        if (connection.getQueueDepth() <= highWaterMark) {
+            connection.setAboveHighWaterSince(0);
+        }
+        // A producer may have offered after our last poll but before endDrain
+        if (connection.hasPending() && !connection.isClosed()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void evictStuckWrites() {
+        long now = System.currentTimeMillis();
+        for (SseConnection connection : inFlight) {
+            long started = connection.getWriteStartedAt();
+            if (started != 0 && now - started > writeTimeoutMs && connection.markEvictedMidWrite()) {
+                log.warn("Evicting SSE connection {}: write blocked for {}ms", connection.getUserId(), now - started);
+                // Completing the emitter would wait on the stuck send; the writer does it once released
+                connection.close(false);
+                connection.interruptWriter();
+                trackStuckWrites(1);
+            }
+        }
+    }
+
+    // Runs on the writer once the stuck send has returned or failed
+    private void finishStuckWrite(SseConnection connection) {
+        try {
+            connection.getEmitter().complete();
+        } catch (Exception ignored) {
+            // Emitter already finished by the container
+        }
+        trackStuckWrites(-1);
+    }
+
+    private synchronized void trackStuckWrites(int delta) {
+        stuckWrites += delta;
+        // Capped so a mass stall cannot grow the pool without bound
+        int spare = Math.min(stuckWrites, writerThreads * 4);
+        if (spare == spareWriters) {
+            return;
+        }
+        spareWriters = spare;
+        int size = writerThreads + spare;
+        if (size > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(size);
+            executor.setCorePoolSize(size);
+        } else {
+            executor.setCorePoolSize(size);
+            executor.setMaximumPoolSize(size);
+        }
+    }
+
+    void evict(SseConnection connection, String reason) {
+        if (connection.isClosed()) {
+            return;
+        }
+        log.warn("Evicting SSE connection {}: {}", connection.getUserId(), reason);
+        connection.close(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
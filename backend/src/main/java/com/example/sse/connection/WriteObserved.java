@@ -0,0 +1,11 @@
+package com.example.sse.connection;
+
+/**
+ * Frame payload that wants to know when it reached a transport: written to the
+ * emitter by {@link SseWriterPool}, or handed to a reactive stream's sink. Called from
+ * writer threads, so implementations must be cheap and non-blocking.
+ */
+public interface WriteObserved {
+
+    void onWritten();
+}
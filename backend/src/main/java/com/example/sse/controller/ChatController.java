@@ -1,6 +1,9 @@
 package com.example.sse.controller;
 
-import com.example.sse.dto.ChatMessageDto;
+import com.example.sse.dto.ChatHistoryPageDto;
+import com.example.sse.dto.ChatInboxDto;
+import com.example.sse.dto.ChatSearchPageDto;
+import com.example.sse.dto.ChatWriterStatsDto;
 import com.example.sse.dto.ConversationPartnerDto;
 import com.example.sse.service.ChatService;
 import lombok.RequiredArgsConstructor;
@@ -9,7 +12,9 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -22,16 +27,20 @@ public class ChatController {
     private final ChatService chatService;
 
     @GetMapping("/history/{partnerEmail}")
-    public ResponseEntity<List<ChatMessageDto>> getConversation(
+    public ResponseEntity<ChatHistoryPageDto> getConversation(
             @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable String partnerEmail
+            @PathVariable String partnerEmail,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit
     ) {
         try {
-            List<ChatMessageDto> messages = chatService.getConversation(
+            ChatHistoryPageDto page = chatService.getConversation(
                     userDetails.getUsername(),
-                    partnerEmail
+                    partnerEmail,
+                    before,
+                    limit
             );
-            return ResponseEntity.ok(messages);
+            return ResponseEntity.ok(page);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -50,4 +59,52 @@ public class ChatController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @GetMapping("/search")
+    public ResponseEntity<ChatSearchPageDto> search(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(chatService.search(userDetails.getUsername(), q, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Inbox catch-up past the first page streamed on subscribe
+    @GetMapping("/inbox")
+    public ResponseEntity<ChatInboxDto> getInbox(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(chatService.getInbox(userDetails.getUsername(), after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Without lastSeq, acknowledges everything received so far
+    @PostMapping("/inbox/ack")
+    public ResponseEntity<Void> ackInbox(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(required = false) Long lastSeq
+    ) {
+        try {
+            chatService.ackInbox(userDetails.getUsername(), lastSeq);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Group-commit flush sizes and commit latency
+    @GetMapping("/writer/stats")
+    public ChatWriterStatsDto getWriterStats() {
+        return chatService.getWriterStats();
+    }
 }
@@ -0,0 +1,22 @@
+package com.example.sse.controller;
+
+import com.example.sse.dto.OutboxStatsDto;
+import com.example.sse.outbox.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/outbox")
+@RequiredArgsConstructor
+public class OutboxController {
+
+    private final OutboxRelay outboxRelay;
+
+    @GetMapping("/stats")
+    public ResponseEntity<OutboxStatsDto> getStats() {
+        return ResponseEntity.ok(outboxRelay.getStats());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.sse.domain;
+
+/**
+ * Shape of the simulator's call arrival rate over time (see WorkloadGenerator).
+ */
+public enum ArrivalCurve {
+    // Evenly spaced arrivals at the requested rate (the original fixed-rate behaviour)
+    STEADY,
+    // Poisson arrivals at the requested rate
+    POISSON,
+    // Poisson at the requested rate, multiplied for a few seconds of every period
+    BURST,
+    // Poisson following a cosine day curve from 10% of the requested rate up to 100% and back
+    DIURNAL
+}
@@ -1,16 +1,16 @@
 package com.example.sse.domain;
 
 import jakarta.persistence.*;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@EntityListeners(AuditingEntityListener.class)
 @Table(name = "call_session")
-public class CallSession {
+public class CallSession implements Persistable<String> {
 
+    // Table key is (session_id, created_at) since V12 partitions by month
     @Id
     @Column(name = "session_id")
     private String sessionId;
@@ -25,7 +25,7 @@ public class CallSession {
     @Column(name = "status", nullable = false)
     private CallStatus status;
 
-    @CreatedDate
+    // Set by the constructor rather than on persist: updates carry it to hit one partition
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
@@ -35,6 +35,11 @@ public class CallSession {
     @Column(name = "ended_at")
     private LocalDateTime endedAt;
 
+    // session_id is assigned by us, so tell Spring Data whether to persist or merge.
+    // Without this every save() of a new session would SELECT it first.
+    @Transient
+    private boolean isNew = true;
+
     // JPA requires a no-arg constructor
     protected CallSession() {
     }
@@ -44,6 +49,24 @@ public class CallSession {
         this.callerId = callerId;
         this.calleeId = calleeId;
         this.status = status;
+        // Microseconds, as stored, so the value matches the row in later WHERE clauses
+        this.createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    public String getId() {
+        return sessionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
     }
 
     // Getters
@@ -0,0 +1,39 @@
+package com.example.sse.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Highest inbox_seq of the user's received chat_message rows they have acknowledged. Rows are only written through
+ * {@code ChatInboxCursorRepository.advance}, which never moves the cursor backwards.
+ */
+@Entity
+@Table(name = "chat_inbox_cursor")
+public class ChatInboxCursor {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_acked_seq", nullable = false)
+    private Long lastAckedSeq;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected ChatInboxCursor() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getLastAckedSeq() {
+        return lastAckedSeq;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.sse.domain;
 
+import com.example.sse.dto.ChatInboxMessageDto;
+import com.example.sse.dto.ChatMessageDto;
+import com.example.sse.dto.ChatSearchHitDto;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -9,10 +12,43 @@ import java.time.LocalDateTime;
 @Entity
 @EntityListeners(AuditingEntityListener.class)
 @Table(name = "chat_message")
+// History rows read straight into DTOs with the sender email joined in (see ChatMessageRepository)
+@SqlResultSetMapping(name = "ChatMessageDto", classes = @ConstructorResult(
+        targetClass = ChatMessageDto.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "sender_email", type = String.class),
+                @ColumnResult(name = "message", type = String.class),
+                @ColumnResult(name = "created_at", type = LocalDateTime.class)
+        }))
+// Inbox rows carry their inbox_seq, the cursor the client acknowledges
+@SqlResultSetMapping(name = "ChatInboxMessageDto", classes = @ConstructorResult(
+        targetClass = ChatInboxMessageDto.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "sender_email", type = String.class),
+                @ColumnResult(name = "message", type = String.class),
+                @ColumnResult(name = "created_at", type = LocalDateTime.class),
+                @ColumnResult(name = "inbox_seq", type = Long.class)
+        }))
+// Search hits with both parties' emails joined in (see ChatMessageRepository.search*)
+@SqlResultSetMapping(name = "ChatSearchHitDto", classes = @ConstructorResult(
+        targetClass = ChatSearchHitDto.class,
+        columns = {
+                @ColumnResult(name = "id", type = Long.class),
+                @ColumnResult(name = "partner_email", type = String.class),
+                @ColumnResult(name = "sender_email", type = String.class),
+                @ColumnResult(name = "message", type = String.class),
+                @ColumnResult(name = "created_at", type = LocalDateTime.class),
+                @ColumnResult(name = "rank", type = Float.class)
+        }))
 public class ChatMessage {
 
+    // Pooled sequence (see V5) so inserts can be JDBC-batched. The table key is
+    // (id, created_at) since V12 partitions by month; id alone is still unique.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chat_message_seq")
+    @SequenceGenerator(name = "chat_message_seq", sequenceName = "chat_message_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "sender_id", nullable = false)
@@ -28,6 +64,10 @@ public class ChatMessage {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // Position in the receiver's inbox, in commit order (see V17 and InboxSequencer)
+    @Column(name = "inbox_seq", nullable = false, updatable = false)
+    private Long inboxSeq;
+
     protected ChatMessage() {
     }
 
@@ -37,6 +77,12 @@ public class ChatMessage {
         this.message = message;
     }
 
+    // Same content without the id (and inbox_seq) a rolled-back persist() left behind; a
+    // retry must not pass the old instance, which Hibernate would treat as detached
+    public ChatMessage unsavedCopy() {
+        return new ChatMessage(senderId, receiverId, message);
+    }
+
     public Long getId() {
         return id;
     }
@@ -56,4 +102,12 @@ public class ChatMessage {
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public Long getInboxSeq() {
+        return inboxSeq;
+    }
+
+    public void assignInboxSeq(long inboxSeq) {
+        this.inboxSeq = inboxSeq;
+    }
 }
@@ -0,0 +1,106 @@
+package com.example.sse.domain;
+
+import com.example.sse.dto.ConversationPartnerDto;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Read model for the partner list, keyed by the ordered user pair. Rows are only
+ * written through {@code ConversationSummaryRepository.recordMessages}.
+ */
+@Entity
+@Table(name = "conversation_summary")
+@IdClass(ConversationSummary.Key.class)
+// Partner list rows with the partner's email and name joined in (see ConversationSummaryRepository)
+@SqlResultSetMapping(name = "ConversationPartnerDto", classes = @ConstructorResult(
+        targetClass = ConversationPartnerDto.class,
+        columns = {
+                @ColumnResult(name = "partner_email", type = String.class),
+                @ColumnResult(name = "partner_username", type = String.class),
+                @ColumnResult(name = "last_message", type = String.class),
+                @ColumnResult(name = "last_message_at", type = LocalDateTime.class),
+                @ColumnResult(name = "unread", type = Integer.class)
+        }))
+public class ConversationSummary {
+
+    @Id
+    @Column(name = "user_low")
+    private Long userLow;
+
+    @Id
+    @Column(name = "user_high")
+    private Long userHigh;
+
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id", nullable = false)
+    private Long lastSenderId;
+
+    @Column(name = "last_message", nullable = false, columnDefinition = "TEXT")
+    private String lastMessage;
+
+    @Column(name = "last_message_at", nullable = false)
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_low", nullable = false)
+    private int unreadLow;
+
+    @Column(name = "unread_high", nullable = false)
+    private int unreadHigh;
+
+    protected ConversationSummary() {
+    }
+
+    public Long getUserLow() {
+        return userLow;
+    }
+
+    public Long getUserHigh() {
+        return userHigh;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public static class Key implements Serializable {
+        private Long userLow;
+        private Long userHigh;
+
+        protected Key() {
+        }
+
+        public Key(Long userLow, Long userHigh) {
+            this.userLow = userLow;
+            this.userHigh = userHigh;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(userLow, key.userLow) && Objects.equals(userHigh, key.userHigh);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userLow, userHigh);
+        }
+    }
+}
@@ -60,6 +60,62 @@ public class SimulatorHistory {
     @Column(name = "calls_busy", nullable = false)
     private int callsBusy = 0;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "mode", nullable = false, length = 16)
+    private SimulatorMode mode = SimulatorMode.DIRECT;
+
+    @Column(name = "candidates_per_call", nullable = false)
+    private int candidatesPerCall = 0;
+
+    // Pipeline mode only: signals handed to sendSignal and signals written to a virtual user's emitter
+    @Column(name = "signals_sent", nullable = false)
+    private long signalsSent = 0;
+
+    @Column(name = "signals_delivered", nullable = false)
+    private long signalsDelivered = 0;
+
+    @Column(name = "signals_failed", nullable = false)
+    private long signalsFailed = 0;
+
+    @Column(name = "signals_per_second")
+    private Double signalsPerSecond;
+
+    // sendSignal entry to the frame reaching the target's emitter
+    @Column(name = "latency_p50_ms")
+    private Double latencyP50Ms;
+
+    @Column(name = "latency_p99_ms")
+    private Double latencyP99Ms;
+
+    @Column(name = "latency_max_ms")
+    private Double latencyMaxMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "arrival_curve", nullable = false, length = 16)
+    private ArrivalCurve arrivalCurve = ArrivalCurve.STEADY;
+
+    @Column(name = "generator_threads", nullable = false)
+    private int generatorThreads = 1;
+
+    // Configured rate; calls_per_minute keeps the same value rounded for older readers
+    @Column(name = "calls_per_second", nullable = false)
+    private double callsPerSecond;
+
+    // Mean rate the arrival curve asked for over the run, and the rate calls were actually generated at
+    @Column(name = "requested_calls_per_second")
+    private Double requestedCallsPerSecond;
+
+    @Column(name = "achieved_calls_per_second")
+    private Double achievedCallsPerSecond;
+
+    // Arrivals whose caller was already in a call
+    @Column(name = "calls_skipped", nullable = false)
+    private int callsSkipped = 0;
+
+    // Worst delay between an arrival's due time and the generator getting to it
+    @Column(name = "max_schedule_lag_ms")
+    private Double maxScheduleLagMs;
+
     @Column(name = "running", nullable = false)
     private boolean running = true;
 
@@ -75,7 +131,9 @@ public class SimulatorHistory {
 
     public SimulatorHistory(int userCount, int callsPerMinute, int chatMessagesPerCall,
                            int minCallDurationSeconds, int maxCallDurationSeconds,
-                           int connectedPercent, int rejectedPercent, int cancelledPercent) {
+                           int connectedPercent, int rejectedPercent, int cancelledPercent,
+                           SimulatorMode mode, int candidatesPerCall,
+                           ArrivalCurve arrivalCurve, int generatorThreads, double callsPerSecond) {
         this.userCount = userCount;
         this.callsPerMinute = callsPerMinute;
         this.chatMessagesPerCall = chatMessagesPerCall;
@@ -84,6 +142,11 @@ public class SimulatorHistory {
         this.connectedPercent = connectedPercent;
         this.rejectedPercent = rejectedPercent;
         this.cancelledPercent = cancelledPercent;
+        this.mode = mode;
+        this.candidatesPerCall = candidatesPerCall;
+        this.arrivalCurve = arrivalCurve;
+        this.generatorThreads = generatorThreads;
+        this.callsPerSecond = callsPerSecond;
     }
 
     // Getters
@@ -103,6 +166,22 @@ public class SimulatorHistory {
     public int getCallsRejected() { return callsRejected; }
     public int getCallsCancelled() { return callsCancelled; }
     public int getCallsBusy() { return callsBusy; }
+    public SimulatorMode getMode() { return mode; }
+    public int getCandidatesPerCall() { return candidatesPerCall; }
+    public long getSignalsSent() { return signalsSent; }
+    public long getSignalsDelivered() { return signalsDelivered; }
+    public long getSignalsFailed() { return signalsFailed; }
+    public Double getSignalsPerSecond() { return signalsPerSecond; }
+    public Double getLatencyP50Ms() { return latencyP50Ms; }
+    public Double getLatencyP99Ms() { return latencyP99Ms; }
+    public Double getLatencyMaxMs() { return latencyMaxMs; }
+    public ArrivalCurve getArrivalCurve() { return arrivalCurve; }
+    public int getGeneratorThreads() { return generatorThreads; }
+    public double getCallsPerSecond() { return callsPerSecond; }
+    public Double getRequestedCallsPerSecond() { return requestedCallsPerSecond; }
+    public Double getAchievedCallsPerSecond() { return achievedCallsPerSecond; }
+    public int getCallsSkipped() { return callsSkipped; }
+    public Double getMaxScheduleLagMs() { return maxScheduleLagMs; }
     public boolean isRunning() { return running; }
     public LocalDateTime getStartedAt() { return startedAt; }
     public LocalDateTime getStoppedAt() { return stoppedAt; }
@@ -119,6 +198,25 @@ public class SimulatorHistory {
         this.callsBusy = busy;
     }
 
+    public void updateSignalStats(long sent, long delivered, long failed, double perSecond,
+                                  Double p50Ms, Double p99Ms, Double maxMs) {
+        this.signalsSent = sent;
+        this.signalsDelivered = delivered;
+        this.signalsFailed = failed;
+        this.signalsPerSecond = perSecond;
+        this.latencyP50Ms = p50Ms;
+        this.latencyP99Ms = p99Ms;
+        this.latencyMaxMs = maxMs;
+    }
+
+    public void updateRateStats(double requestedPerSecond, double achievedPerSecond, int skipped,
+                                double maxLagMs) {
+        this.requestedCallsPerSecond = requestedPerSecond;
+        this.achievedCallsPerSecond = achievedPerSecond;
+        this.callsSkipped = skipped;
+        this.maxScheduleLagMs = maxLagMs;
+    }
+
     public void stop() {
         this.running = false;
         this.stoppedAt = LocalDateTime.now();
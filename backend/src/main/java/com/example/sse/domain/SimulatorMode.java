@@ -0,0 +1,11 @@
+package com.example.sse.domain;
+
+/**
+ * How the simulator produces load.
+ */
+public enum SimulatorMode {
+    // Writes call_session and chat_message rows directly through the repositories
+    DIRECT,
+    // Virtual users hold in-process emitters and call each other through SseService.sendSignal
+    PIPELINE
+}
@@ -0,0 +1,20 @@
+package com.example.sse.dto;
+
+// Payload of chat_committed: the inbox_seq a relayed CHAT frame was stored under
+public class ChatCommittedDto {
+    private String sender;
+    private long seq;
+
+    public ChatCommittedDto(String sender, long seq) {
+        this.sender = sender;
+        this.seq = seq;
+    }
+
+    public String getSender() {
+        return sender;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.sse.dto;
+
+import java.util.List;
+
+public class ChatHistoryPageDto {
+    private List<ChatMessageDto> messages;
+    private String nextCursor;
+
+    public ChatHistoryPageDto(List<ChatMessageDto> messages, String nextCursor) {
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+    }
+
+    // Oldest first within the page
+    public List<ChatMessageDto> getMessages() {
+        return messages;
+    }
+
+    // Pass as ?before= to load older messages; null when the conversation start is reached
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
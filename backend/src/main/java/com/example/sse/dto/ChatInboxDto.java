@@ -0,0 +1,30 @@
+package com.example.sse.dto;
+
+import java.util.List;
+
+public class ChatInboxDto {
+    private List<ChatInboxMessageDto> messages;
+    private Long lastSeq;
+    private boolean hasMore;
+
+    public ChatInboxDto(List<ChatInboxMessageDto> messages, Long lastSeq, boolean hasMore) {
+        this.messages = messages;
+        this.lastSeq = lastSeq;
+        this.hasMore = hasMore;
+    }
+
+    // Received after the acknowledged cursor, in commit order
+    public List<ChatInboxMessageDto> getMessages() {
+        return messages;
+    }
+
+    // Ack this (POST /chat/inbox/ack?lastSeq=) once the messages are shown; null when empty
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+
+    // More messages follow: GET /chat/inbox?after={lastSeq}
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.sse.dto;
+
+import java.time.LocalDateTime;
+
+// A received message with its position in the receiver's inbox
+public class ChatInboxMessageDto extends ChatMessageDto {
+    private Long seq;
+
+    public ChatInboxMessageDto(Long id, String sender, String text, LocalDateTime time, Long seq) {
+        super(id, sender, text, time);
+        this.seq = seq;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+}
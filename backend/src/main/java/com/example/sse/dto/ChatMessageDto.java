@@ -3,16 +3,22 @@ package com.example.sse.dto;
 import java.time.LocalDateTime;
 
 public class ChatMessageDto {
+    private Long id;
     private String sender;
     private String text;
     private LocalDateTime time;
 
-    public ChatMessageDto(String sender, String text, LocalDateTime time) {
+    public ChatMessageDto(Long id, String sender, String text, LocalDateTime time) {
+        this.id = id;
         this.sender = sender;
         this.text = text;
         this.time = time;
     }
 
+    public Long getId() {
+        return id;
+    }
+
     public String getSender() {
         return sender;
     }
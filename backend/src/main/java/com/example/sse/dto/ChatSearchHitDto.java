@@ -0,0 +1,46 @@
+package com.example.sse.dto;
+
+import java.time.LocalDateTime;
+
+public class ChatSearchHitDto {
+    private Long id;
+    private String partner;
+    private String sender;
+    private String text;
+    private LocalDateTime time;
+    private float rank;
+
+    public ChatSearchHitDto(Long id, String partner, String sender, String text, LocalDateTime time, Float rank) {
+        this.id = id;
+        this.partner = partner;
+        this.sender = sender;
+        this.text = text;
+        this.time = time;
+        this.rank = rank;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // The other side of the conversation; open /chat/history/{partner} from here
+    public String getPartner() {
+        return partner;
+    }
+
+    public String getSender() {
+        return sender;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public float getRank() {
+        return rank;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.sse.dto;
+
+import java.util.List;
+
+public class ChatSearchPageDto {
+    private List<ChatSearchHitDto> hits;
+    private String nextCursor;
+
+    public ChatSearchPageDto(List<ChatSearchHitDto> hits, String nextCursor) {
+        this.hits = hits;
+        this.nextCursor = nextCursor;
+    }
+
+    // Best match first
+    public List<ChatSearchHitDto> getHits() {
+        return hits;
+    }
+
+    // Pass as ?after= for the next page; null on the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
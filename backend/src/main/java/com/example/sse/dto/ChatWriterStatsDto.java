@@ -0,0 +1,85 @@
+package com.example.sse.dto;
+
+public class ChatWriterStatsDto {
+    private String durability;
+    private int queued;
+    private long commits;
+    private long messagesCommitted;
+    private int lastFlushSize;
+    private int maxFlushSize;
+    private double avgFlushSize;
+    private long lastCommitMicros;
+    private long maxCommitMicros;
+    private long avgCommitMicros;
+    private long syncFallbacks;
+    private long failedMessages;
+
+    public ChatWriterStatsDto(String durability, int queued, long commits, long messagesCommitted,
+                              int lastFlushSize, int maxFlushSize, double avgFlushSize,
+                              long lastCommitMicros, long maxCommitMicros, long avgCommitMicros,
+                              long syncFallbacks, long failedMessages) {
+        this.durability = durability;
+        this.queued = queued;
+        this.commits = commits;
+        this.messagesCommitted = messagesCommitted;
+        this.lastFlushSize = lastFlushSize;
+        this.maxFlushSize = maxFlushSize;
+        this.avgFlushSize = avgFlushSize;
+        this.lastCommitMicros = lastCommitMicros;
+        this.maxCommitMicros = maxCommitMicros;
+        this.avgCommitMicros = avgCommitMicros;
+        this.syncFallbacks = syncFallbacks;
+        this.failedMessages = failedMessages;
+    }
+
+    public String getDurability() {
+        return durability;
+    }
+
+    // Messages waiting in the ring
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getMessagesCommitted() {
+        return messagesCommitted;
+    }
+
+    public int getLastFlushSize() {
+        return lastFlushSize;
+    }
+
+    public int getMaxFlushSize() {
+        return maxFlushSize;
+    }
+
+    public double getAvgFlushSize() {
+        return avgFlushSize;
+    }
+
+    public long getLastCommitMicros() {
+        return lastCommitMicros;
+    }
+
+    public long getMaxCommitMicros() {
+        return maxCommitMicros;
+    }
+
+    public long getAvgCommitMicros() {
+        return avgCommitMicros;
+    }
+
+    // Ring was full; the caller committed its own message
+    public long getSyncFallbacks() {
+        return syncFallbacks;
+    }
+
+    // Dropped after repeated commit failures
+    public long getFailedMessages() {
+        return failedMessages;
+    }
+}
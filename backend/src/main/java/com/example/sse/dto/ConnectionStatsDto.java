@@ -0,0 +1,27 @@
+package com.example.sse.dto;
+
+import java.time.Instant;
+
+public class ConnectionStatsDto {
+    private String userId;
+    private int queueDepth;
+    private Instant connectedAt;
+
+    public ConnectionStatsDto(String userId, int queueDepth, Instant connectedAt) {
+        this.userId = userId;
+        this.queueDepth = queueDepth;
+        this.connectedAt = connectedAt;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public Instant getConnectedAt() {
+        return connectedAt;
+    }
+}
@@ -7,12 +7,15 @@ public class ConversationPartnerDto {
     private String username;
     private String lastMessage;
     private LocalDateTime lastMessageTime;
+    private int unreadCount;
 
-    public ConversationPartnerDto(String email, String username, String lastMessage, LocalDateTime lastMessageTime) {
+    public ConversationPartnerDto(String email, String username, String lastMessage, LocalDateTime lastMessageTime,
+                                  int unreadCount) {
         this.email = email;
         this.username = username;
         this.lastMessage = lastMessage;
         this.lastMessageTime = lastMessageTime;
+        this.unreadCount = unreadCount;
     }
 
     public String getEmail() {
@@ -30,4 +33,9 @@ public class ConversationPartnerDto {
     public LocalDateTime getLastMessageTime() {
         return lastMessageTime;
     }
+
+    // Messages from this partner not yet read by the current user
+    public int getUnreadCount() {
+        return unreadCount;
+    }
 }
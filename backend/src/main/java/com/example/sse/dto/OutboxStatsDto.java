@@ -0,0 +1,33 @@
+package com.example.sse.dto;
+
+public class OutboxStatsDto {
+    private long publishedTotal;
+    private int lastBatchSize;
+    private long lastBatchLagMs;
+    private long backlogAgeMs;
+
+    public OutboxStatsDto(long publishedTotal, int lastBatchSize, long lastBatchLagMs, long backlogAgeMs) {
+        this.publishedTotal = publishedTotal;
+        this.lastBatchSize = lastBatchSize;
+        this.lastBatchLagMs = lastBatchLagMs;
+        this.backlogAgeMs = backlogAgeMs;
+    }
+
+    public long getPublishedTotal() {
+        return publishedTotal;
+    }
+
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    // created_at -> publish time of the oldest event in the last relayed batch
+    public long getLastBatchLagMs() {
+        return lastBatchLagMs;
+    }
+
+    // Age of the oldest event still waiting, 0 when caught up
+    public long getBacklogAgeMs() {
+        return backlogAgeMs;
+    }
+}
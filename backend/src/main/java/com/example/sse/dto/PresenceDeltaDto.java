@@ -0,0 +1,26 @@
+package com.example.sse.dto;
+
+// Payload of user_joined / user_left. username is null for user_left.
+public class PresenceDeltaDto {
+    private long version;
+    private String email;
+    private String username;
+
+    public PresenceDeltaDto(long version, String email, String username) {
+        this.version = version;
+        this.email = email;
+        this.username = username;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.sse.dto;
+
+import java.util.List;
+
+public class PresenceSnapshotDto {
+    private long version;
+    private List<PresenceUserDto> users;
+
+    public PresenceSnapshotDto(long version, List<PresenceUserDto> users) {
+        this.version = version;
+        this.users = users;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<PresenceUserDto> getUsers() {
+        return users;
+    }
+}
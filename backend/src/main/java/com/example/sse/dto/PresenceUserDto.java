@@ -0,0 +1,19 @@
+package com.example.sse.dto;
+
+public class PresenceUserDto {
+    private String email;
+    private String username;
+
+    public PresenceUserDto(String email, String username) {
+        this.email = email;
+        this.username = username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sse.dto;
+
+public class RoutingStatsDto {
+    private String nodeId;
+    private long forwarded;
+    private long batchesSent;
+    private long received;
+    private long dropped;
+
+    public RoutingStatsDto(String nodeId, long forwarded, long batchesSent, long received, long dropped) {
+        this.nodeId = nodeId;
+        this.forwarded = forwarded;
+        this.batchesSent = batchesSent;
+        this.received = received;
+        this.dropped = dropped;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // Frames queued for another node
+    public long getForwarded() {
+        return forwarded;
+    }
+
+    public long getBatchesSent() {
+        return batchesSent;
+    }
+
+    // Frames delivered here on behalf of another node
+    public long getReceived() {
+        return received;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.sse.dto;
 
+import com.example.sse.domain.ArrivalCurve;
+import com.example.sse.domain.SimulatorMode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -8,8 +10,15 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 public class SimulatorConfigRequest {
-    private int userCount = 10;                    // 가상유저 수 (2-1000, vuser1~vuserN 사용)
-    private int callsPerMinute = 10;               // 분당 통화 생성 수 (1-60)
+    private int userCount = 10;                    // 가상유저 수 (2-100000, PIPELINE은 2-1000, vuser1~vuserN 사용)
+    private int callsPerMinute = 10;               // 분당 통화 생성 수 (1-60), callsPerSecond가 0일 때만 사용
+    private double callsPerSecond = 0;             // 초당 통화 생성 수 (DIRECT 최대 20000, PIPELINE 최대 1000), 0이면 callsPerMinute 사용
+    private ArrivalCurve arrivalCurve = ArrivalCurve.STEADY; // 도착 분포: STEADY(균등 간격), POISSON, BURST, DIURNAL
+    private int generatorThreads = 4;              // 통화 생성 스레드 수 (1-64), 요청 속도를 나눠 가짐
+    private double burstMultiplier = 5;            // BURST: 버스트 구간의 속도 배수 (1-100)
+    private int burstSeconds = 10;                 // BURST: 주기마다 버스트가 지속되는 시간(초)
+    private int burstPeriodSeconds = 60;           // BURST: 버스트 주기(초)
+    private int rampPeriodSeconds = 600;           // DIURNAL: 최저 -> 최고 -> 최저 한 주기(초)
     private int chatMessagesPerCall = 3;           // 통화당 채팅 메시지 수 (0-20)
     private int minCallDurationSeconds = 5;        // 최소 통화 시간
     private int maxCallDurationSeconds = 30;       // 최대 통화 시간
@@ -17,4 +26,11 @@ public class SimulatorConfigRequest {
     private int rejectedPercent = 20;              // 거절 비율
     private int cancelledPercent = 15;             // 취소 비율
     // BUSY = 100 - connected - rejected - cancelled (기본 5)
+    private SimulatorMode mode = SimulatorMode.DIRECT; // DIRECT: 저장소 직접 기록, PIPELINE: SseService.sendSignal 경유
+    private int candidatesPerCall = 8;             // PIPELINE 모드에서 양쪽이 각각 보내는 ICE candidate 수 (0-50)
+
+    // 평균 요청 속도 (초당)
+    public double effectiveCallsPerSecond() {
+        return callsPerSecond > 0 ? callsPerSecond : callsPerMinute / 60.0;
+    }
 }
@@ -1,6 +1,8 @@
 package com.example.sse.dto;
 
+import com.example.sse.domain.ArrivalCurve;
 import com.example.sse.domain.SimulatorHistory;
+import com.example.sse.domain.SimulatorMode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -24,6 +26,22 @@ public class SimulatorHistoryDto {
     private int totalCallsGenerated;
     private int totalMessagesGenerated;
     private Map<String, Integer> callsByStatus;
+    private SimulatorMode mode;
+    private int candidatesPerCall;
+    private long signalsSent;
+    private long signalsDelivered;
+    private long signalsFailed;
+    private Double signalsPerSecond;
+    private Double latencyP50Ms;
+    private Double latencyP99Ms;
+    private Double latencyMaxMs;
+    private ArrivalCurve arrivalCurve;
+    private int generatorThreads;
+    private double callsPerSecond;
+    private Double requestedCallsPerSecond;
+    private Double achievedCallsPerSecond;
+    private int callsSkipped;
+    private Double maxScheduleLagMs;
     private boolean running;
     private LocalDateTime startedAt;
     private LocalDateTime stoppedAt;
@@ -48,6 +66,22 @@ public class SimulatorHistoryDto {
                 "CANCELLED", history.getCallsCancelled(),
                 "BUSY", history.getCallsBusy()
         ));
+        dto.setMode(history.getMode());
+        dto.setCandidatesPerCall(history.getCandidatesPerCall());
+        dto.setSignalsSent(history.getSignalsSent());
+        dto.setSignalsDelivered(history.getSignalsDelivered());
+        dto.setSignalsFailed(history.getSignalsFailed());
+        dto.setSignalsPerSecond(history.getSignalsPerSecond());
+        dto.setLatencyP50Ms(history.getLatencyP50Ms());
+        dto.setLatencyP99Ms(history.getLatencyP99Ms());
+        dto.setLatencyMaxMs(history.getLatencyMaxMs());
+        dto.setArrivalCurve(history.getArrivalCurve());
+        dto.setGeneratorThreads(history.getGeneratorThreads());
+        dto.setCallsPerSecond(history.getCallsPerSecond());
+        dto.setRequestedCallsPerSecond(history.getRequestedCallsPerSecond());
+        dto.setAchievedCallsPerSecond(history.getAchievedCallsPerSecond());
+        dto.setCallsSkipped(history.getCallsSkipped());
+        dto.setMaxScheduleLagMs(history.getMaxScheduleLagMs());
         dto.setRunning(history.isRunning());
         dto.setStartedAt(history.getStartedAt());
         dto.setStoppedAt(history.getStoppedAt());
@@ -1,5 +1,7 @@
 package com.example.sse.dto;
 
+import com.example.sse.domain.ArrivalCurve;
+import com.example.sse.domain.SimulatorMode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -18,4 +20,18 @@ public class SimulatorStatusResponse {
     private Map<String, Integer> callsByStatus;
     private LocalDateTime startedAt;
     private LocalDateTime lastCallAt;
+    private SimulatorMode mode;
+    private ArrivalCurve arrivalCurve;
+    private int callsSkipped;
+    // Generator rates while running; null otherwise
+    private Double requestedCallsPerSecond;
+    private Double achievedCallsPerSecond;
+    private Double currentCallsPerSecond;
+    private Double maxScheduleLagMs;
+    // Pipeline mode only; null otherwise
+    private Long signalsSent;
+    private Long signalsDelivered;
+    private Double signalsPerSecond;
+    private Double latencyP50Ms;
+    private Double latencyP99Ms;
 }
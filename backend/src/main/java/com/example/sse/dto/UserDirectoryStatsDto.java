@@ -0,0 +1,30 @@
+package com.example.sse.dto;
+
+public class UserDirectoryStatsDto {
+    private int size;
+    private long hits;
+    private long misses;
+
+    public UserDirectoryStatsDto(int size, long hits, long misses) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.sse.jwt;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.GenericFilterBean;
@@ -12,6 +14,8 @@ import java.io.IOException;
 
 public class JwtAuthenticationFilter extends GenericFilterBean {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtTokenProvider jwtTokenProvider;
 
     public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider) {
@@ -23,17 +27,14 @@ public class JwtAuthenticationFilter extends GenericFilterBean {
             throws IOException, ServletException {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         String token = resolveToken(httpRequest);
-        String requestURI = httpRequest.getRequestURI();
-
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            Authentication authentication = jwtTokenProvider.getAuthentication(token);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            System.out.println("JwtFilter: Auth Success for " + requestURI + " User: " + authentication.getName());
-        } else {
-            if (token == null) {
-                // System.out.println("JwtFilter: No Token for " + requestURI);
-            } else {
-                System.out.println("JwtFilter: Invalid Token for " + requestURI);
+
+        if (token != null) {
+            // One verification (or cache hit) per request
+            Authentication authentication = jwtTokenProvider.authenticate(token);
+            if (authentication != null) {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } else if (log.isDebugEnabled()) {
+                log.debug("Invalid token for {}", httpRequest.getRequestURI());
             }
         }
         chain.doFilter(request, response);
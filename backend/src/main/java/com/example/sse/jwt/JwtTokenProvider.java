@@ -19,9 +19,15 @@ public class JwtTokenProvider {
 
     private final Key key;
     private final long validityInMilliseconds = 3600000 * 24; // 24h
+    // Thread-safe and immutable: built once instead of per request
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    public JwtTokenProvider(@Value("${jwt.secret}") String secretKey) {
+    public JwtTokenProvider(@Value("${jwt.secret}") String secretKey,
+                            @Value("${app.jwt.verified-cache-size:10000}") int verifiedCacheSize) {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheSize);
     }
 
     public String createToken(String userId) {
@@ -36,23 +42,34 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        UserDetails userDetails = new User(claims.getSubject(), "", Collections.emptyList());
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
-    }
+    /**
+     * Verifies the token and returns its authentication, or null if the token is invalid
+     * or expired. The signature is checked at most once per token: later calls are served
+     * from the verified-token cache until the token expires.
+     */
+    public Authentication authenticate(String token) {
+        long now = System.currentTimeMillis();
+        if (verifiedTokens.isEnabled()) {
+            Authentication cached = verifiedTokens.get(token, now);
+            if (cached != null) {
+                return cached;
+            }
+        }
 
-    public boolean validateToken(String token) {
+        Claims claims;
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
+        }
+
+        UserDetails userDetails = new User(claims.getSubject(), "", Collections.emptyList());
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        // Tokens without an expiry are valid forever, so they are never cached
+        if (verifiedTokens.isEnabled() && claims.getExpiration() != null) {
+            verifiedTokens.put(token, authentication, claims.getExpiration().getTime());
         }
+        return authentication;
     }
 }
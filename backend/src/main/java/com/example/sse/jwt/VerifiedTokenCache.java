@@ -0,0 +1,83 @@
+package com.example.sse.jwt;
+
+import org.springframework.security.core.Authentication;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded map of tokens whose signature has already been checked. Keys are SHA-256
+ * digests, so raw bearer tokens are never kept in memory. An entry is valid until the
+ * token's own expiry, which is as long as a fresh verification would accept the token.
+ *
+ * When full, expired entries are swept first. If that is not enough, arbitrary entries
+ * are dropped, and those tokens just pay one more verification.
+ */
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    Authentication get(String token, long now) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now >= entry.expiresAt) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.authentication;
+    }
+
+    void put(String token, Authentication authentication, long expiresAt) {
+        if (entries.size() >= maxSize) {
+            evict(System.currentTimeMillis());
+        }
+        entries.put(digest(token), new Entry(authentication, expiresAt));
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAt);
+        // Still near capacity: trim to 90% so the next puts do not sweep again
+        Iterator<String> keys = entries.keySet().iterator();
+        for (int excess = entries.size() - maxSize * 9 / 10; excess > 0 && keys.hasNext(); excess--) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Entry {
+        private final Authentication authentication;
+        private final long expiresAt;
+
+        Entry(Authentication authentication, long expiresAt) {
+            this.authentication = authentication;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.sse.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps a logger so that one call site writes at most {@code maxPerWindow} lines per
+ * window. Suppressed lines are counted, and the count is reported with the first line
+ * of the next window, at the highest level among the suppressed lines. Use one instance
+ * per call site: instances do not share a budget. Meant for per-signal and
+ * per-connection events, which a simulator run can produce thousands of times a second.
+ *
+ * Checks the level first, so a disabled level costs one branch and no allocation
+ * beyond the varargs array.
+ */
+public class RateLimitedLogger {
+
+    private final Logger delegate;
+    private final long windowMs;
+    private final int maxPerWindow;
+
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicInteger inWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+    private final AtomicInteger suppressedLevel = new AtomicInteger(Integer.MIN_VALUE);
+
+    public RateLimitedLogger(Logger delegate, long windowMs, int maxPerWindow) {
+        this.delegate = delegate;
+        this.windowMs = windowMs;
+        this.maxPerWindow = maxPerWindow;
+    }
+
+    public void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args);
+    }
+
+    public void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+
+    public void warn(String format, Object... args) {
+        log(Level.WARN, format, args);
+    }
+
+    private void log(Level level, String format, Object... args) {
+        if (!delegate.isEnabledForLevel(level)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long start = windowStart.get();
+        if (now - start >= windowMs && windowStart.compareAndSet(start, now)) {
+            inWindow.set(0);
+            long dropped = suppressed.getAndSet(0);
+            int droppedLevel = suppressedLevel.getAndSet(Integer.MIN_VALUE);
+            if (dropped > 0) {
+                Level reportLevel = droppedLevel > level.toInt() ? Level.intToLevel(droppedLevel) : level;
+                delegate.atLevel(reportLevel).log("{} similar log lines suppressed in the last {}ms",
+                        dropped, windowMs);
+            }
+        }
+        if (inWindow.incrementAndGet() > maxPerWindow) {
+            suppressed.incrementAndGet();
+            suppressedLevel.accumulateAndGet(level.toInt(), Math::max);
+            return;
+        }
+        delegate.atLevel(level).log(format, args);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.sse.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Appends each event as one JSON line to a local file, for testing consumers
+ * without a broker. Delivery is at-least-once: a crash after the write but before
+ * commit re-appends the batch.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    // Serializes appends; a lock rather than a monitor because the write blocks on I/O
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          @Value("${app.outbox.file-path:outbox-events.jsonl}") String path) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        lock.lock();
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : batch) {
+                writer.write(objectMapper.writeValueAsString(message));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append outbox batch to " + path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
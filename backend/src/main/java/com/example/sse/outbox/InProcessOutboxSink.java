@@ -0,0 +1,28 @@
+package com.example.sse.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each batch as an {@link OutboxBatchEvent}; consumers subscribe with
+ * {@code @EventListener}. Listeners run inside the relay transaction, so a failing
+ * listener makes the batch retry.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "in-process", matchIfMissing = true)
+public class InProcessOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        eventPublisher.publishEvent(new OutboxBatchEvent(batch));
+    }
+}
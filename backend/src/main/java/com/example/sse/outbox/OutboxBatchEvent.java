@@ -0,0 +1,16 @@
+package com.example.sse.outbox;
+
+import java.util.List;
+
+// Spring application event carrying one relayed batch (in-process sink)
+public class OutboxBatchEvent {
+    private final List<OutboxMessage> messages;
+
+    public OutboxBatchEvent(List<OutboxMessage> messages) {
+        this.messages = messages;
+    }
+
+    public List<OutboxMessage> getMessages() {
+        return messages;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.sse.outbox;
+
+import com.example.sse.domain.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+// Detached, immutable view of an outbox row handed to sinks
+public class OutboxMessage {
+    private final Long id;
+    private final String aggregateType;
+    private final String aggregateId;
+    private final String eventType;
+    private final String payload;
+    private final LocalDateTime createdAt;
+
+    public OutboxMessage(Long id, String aggregateType, String aggregateId, String eventType,
+                         String payload, LocalDateTime createdAt) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getEventType(), event.getPayload(), event.getCreatedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
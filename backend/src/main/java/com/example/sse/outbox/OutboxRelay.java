@@ -0,0 +1,154 @@
+package com.example.sse.outbox;
+
+import com.example.sse.domain.OutboxEvent;
+import com.example.sse.dto.OutboxStatsDto;
+import com.example.sse.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Polls outbox_event and publishes batches through the configured {@link OutboxSink}.
+ *
+ * Events are split into {@code relay-partitions} by a hash of their aggregate, stored
+ * as relay_bucket (V19), and a partition has one owner at a time: a batch is claimed
+ * under a transaction-scoped advisory lock on its partition, then published and marked
+ * in the same transaction.
+ * Several relay instances can run side by side, each draining different partitions,
+ * and the events of one aggregate are published in order_seq order (see V18). A batch
+ * that fails only holds back its own partition; the others keep draining.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // First key of the partition advisory locks; the partition number is the second
+    private static final int PARTITION_LOCK_CLASS = 0x0B0C;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    // Must be the same on every instance, or two relays could own one aggregate
+    @Value("${app.outbox.relay-partitions:16}")
+    private int relayPartitions;
+
+    @Value("${app.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    // relay_bucket values of each partition, fixed once relayPartitions is known
+    private List<List<Integer>> partitionBuckets;
+
+    // Stats
+    private volatile long publishedTotal;
+    private volatile int lastBatchSize;
+    private volatile long lastBatchLagMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink sink,
+                       TransactionTemplate transactionTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void assignBuckets() {
+        if (relayPartitions < 1 || relayPartitions > OutboxEventRepository.RELAY_BUCKETS) {
+            throw new IllegalStateException("app.outbox.relay-partitions must be between 1 and "
+                    + OutboxEventRepository.RELAY_BUCKETS + ", was " + relayPartitions);
+        }
+        List<List<Integer>> buckets = new ArrayList<>(relayPartitions);
+        for (int partition = 0; partition < relayPartitions; partition++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int bucket = 0; bucket < OutboxEventRepository.RELAY_BUCKETS; bucket++) {
+            buckets.get(bucket % relayPartitions).add(bucket);
+        }
+        partitionBuckets = buckets.stream().map(List::copyOf).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        for (int partition = 0; partition < relayPartitions; partition++) {
+            try {
+                relayPartition(partition);
+            } catch (Exception e) {
+                // Only this partition waits for the next poll
+                log.error("Outbox relay of partition {} failed, batch will be retried", partition, e);
+            }
+        }
+    }
+
+    private void relayPartition(int partition) {
+        // One index probe; an idle partition costs no transaction or lock
+        if (!outboxEventRepository.hasBacklog(partitionBuckets.get(partition))) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            Integer relayed = transactionTemplate.execute(status -> relayBatch(partition));
+            if (relayed == null || relayed < batchSize) {
+                return; // Caught up, or owned by another relay
+            }
+        }
+    }
+
+    private int relayBatch(int partition) {
+        if (!outboxEventRepository.tryLockPartition(PARTITION_LOCK_CLASS, partition)) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(partitionBuckets.get(partition), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        sink.publish(batch.stream().map(OutboxMessage::from).collect(Collectors.toList()));
+
+        LocalDateTime now = LocalDateTime.now();
+        batch.forEach(event -> event.markPublished(now));
+
+        publishedTotal += batch.size();
+        lastBatchSize = batch.size();
+        lastBatchLagMs = Duration.between(batch.get(0).getCreatedAt(), now).toMillis();
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.prune-interval-ms:3600000}")
+    public void prunePublished() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (deleted != null && deleted > 0) {
+            log.info("Pruned {} published outbox events", deleted);
+        }
+    }
+
+    public OutboxStatsDto getStats() {
+        LocalDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt();
+        long backlogAgeMs = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+        return new OutboxStatsDto(publishedTotal, lastBatchSize, lastBatchLagMs, backlogAgeMs);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.sse.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for relayed outbox events. A batch counts as published only if
+ * {@link #publish} returns normally; throwing rolls the batch back for a retry.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch);
+}
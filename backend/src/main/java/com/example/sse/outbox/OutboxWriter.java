@@ -0,0 +1,97 @@
+package com.example.sse.outbox;
+
+import com.example.sse.domain.CallSession;
+import com.example.sse.domain.CallStatus;
+import com.example.sse.domain.ChatMessage;
+import com.example.sse.domain.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends outbox_event rows. Must be called inside the transaction that changes the
+ * source row, so the change and its event commit or roll back together.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String CALL_SESSION = "CallSession";
+    public static final String CHAT_MESSAGE = "ChatMessage";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEvent event) {
+        entityManager.persist(event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void callSessionChanged(String sessionId, Long callerId, Long calleeId, CallStatus status,
+                                   LocalDateTime at) {
+        append(callSessionEvent(sessionId, callerId, calleeId, status, at));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void callSessionChanged(CallSession session) {
+        append(forCallSession(session));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void chatMessageCreated(ChatMessage message) {
+        append(forChatMessage(message));
+    }
+
+    // event_type is the status the session moved to
+    public OutboxEvent forCallSession(CallSession session) {
+        LocalDateTime at = session.getEndedAt() != null ? session.getEndedAt()
+                : session.getConnectedAt() != null ? session.getConnectedAt()
+                : LocalDateTime.now();
+        return callSessionEvent(session.getSessionId(), session.getCallerId(), session.getCalleeId(),
+                session.getStatus(), at);
+    }
+
+    // Call after the message is persisted so id and created_at are set
+    public OutboxEvent forChatMessage(ChatMessage message) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", message.getId());
+        payload.put("senderId", message.getSenderId());
+        payload.put("receiverId", message.getReceiverId());
+        payload.put("message", message.getMessage());
+        payload.put("createdAt", message.getCreatedAt());
+        return new OutboxEvent(CHAT_MESSAGE, String.valueOf(message.getId()), "CREATED", toJson(payload));
+    }
+
+    private OutboxEvent callSessionEvent(String sessionId, Long callerId, Long calleeId, CallStatus status,
+                                         LocalDateTime at) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("sessionId", sessionId);
+        payload.put("callerId", callerId);
+        payload.put("calleeId", calleeId);
+        payload.put("status", status.name());
+        payload.put("at", at);
+        return new OutboxEvent(CALL_SESSION, sessionId, status.name(), toJson(payload));
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+}
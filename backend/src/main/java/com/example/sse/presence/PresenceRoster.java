@@ -0,0 +1,80 @@
+package com.example.sse.presence;
+
+import com.example.sse.dto.PresenceSnapshotDto;
+import com.example.sse.dto.PresenceUserDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory list of online users with a version that increases on every join and leave.
+ *
+ * Callers that fan a delta out to connections should hold the roster's lock for the
+ * whole join/leave + enqueue sequence, so every connection sees versions in order.
+ * A ReentrantLock rather than a monitor, so a virtual thread waiting on it unmounts.
+ */
+public class PresenceRoster {
+
+    private final Map<String, PresenceUserDto> online = new LinkedHashMap<>();
+    private long version;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public void lock() {
+        lock.lock();
+    }
+
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * @return the new version, or -1 if the user was already online
+     */
+    public long join(String email, String username) {
+        lock.lock();
+        try {
+            if (online.containsKey(email)) {
+                return -1;
+            }
+            online.put(email, new PresenceUserDto(email, username));
+            return ++version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the new version, or -1 if the user was not online
+     */
+    public long leave(String email) {
+        lock.lock();
+        try {
+            if (online.remove(email) == null) {
+                return -1;
+            }
+            return ++version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PresenceUserDto get(String email) {
+        lock.lock();
+        try {
+            return online.get(email);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PresenceSnapshotDto snapshot() {
+        lock.lock();
+        try {
+            return new PresenceSnapshotDto(version, new ArrayList<>(online.values()));
+        } finally {
+            lock.unlock();
+        }
+    }
+}
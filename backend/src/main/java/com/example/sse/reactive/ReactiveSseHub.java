@@ -0,0 +1,128 @@
+package com.example.sse.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reactor fan-out for SSE: one shared multicast sink per user, and a {@link Flux}
+ * per subscriber. No writer pool and no outbound queue objects: each subscriber only
+ * buffers what its own socket has not requested yet.
+ *
+ * The streams are served by {@link ReactiveSseServer} on Reactor Netty, so frames
+ * go from the sink to a non-blocking socket write on an event loop.
+ *
+ * Backpressure is per subscriber. A subscriber that falls {@code buffer-size}
+ * frames behind gets an error and its stream ends (the client reconnects), without
+ * slowing the sink or other subscribers. Frames have no ids, so the reactive
+ * transport does not replay on reconnect.
+ */
+@Component
+public class ReactiveSseHub {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveSseHub.class);
+
+    private final int bufferSize;
+    private final Duration heartbeatInterval;
+    private final Map<String, UserStream> streams = new ConcurrentHashMap<>();
+
+    public ReactiveSseHub(@Value("${app.sse.reactive.buffer-size:256}") int bufferSize,
+                          @Value("${app.sse.heartbeat-interval-ms:10000}") long heartbeatIntervalMs) {
+        this.bufferSize = bufferSize;
+        this.heartbeatInterval = Duration.ofMillis(heartbeatIntervalMs);
+    }
+
+    /**
+     * @param onFirst runs when the user's first subscriber arrives
+     * @param onLast  runs when the user's last subscriber goes away
+     */
+    public Flux<ServerSentEvent<String>> connect(String userId, Runnable onFirst, Runnable onLast) {
+        return Flux.defer(() -> {
+            UserStream stream = acquire(userId, onFirst);
+            ServerSentEvent<String> connected = ServerSentEvent.builder("Connected as " + userId)
+                    .event("connect")
+                    .build();
+            Flux<ServerSentEvent<String>> heartbeats = Flux.interval(heartbeatInterval)
+                    .map(tick -> ServerSentEvent.<String>builder().event("ping").data("keep-alive").build());
+            return Flux.concat(Flux.just(connected), stream.sink.asFlux())
+                    .mergeWith(heartbeats)
+                    .onBackpressureBuffer(bufferSize,
+                            dropped -> log.warn("Reactive SSE subscriber for {} overflowed, closing", userId),
+                            BufferOverflowStrategy.ERROR)
+                    .doFinally(signal -> release(userId, stream, onLast));
+        });
+    }
+
+    /**
+     * @return true if the user has at least one reactive subscriber on this node
+     */
+    public boolean emit(String userId, String name, String data) {
+        UserStream stream = streams.get(userId);
+        if (stream == null) {
+            return false;
+        }
+        ServerSentEvent<String> event = ServerSentEvent.builder(data).event(name).build();
+        // Sinks reject concurrent emitters; serialize them
+        stream.lock.lock();
+        try {
+            return stream.sink.tryEmitNext(event).isSuccess();
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    public boolean isConnected(String userId) {
+        return streams.containsKey(userId);
+    }
+
+    public int size() {
+        return streams.size();
+    }
+
+    private UserStream acquire(String userId, Runnable onFirst) {
+        boolean[] created = new boolean[1];
+        UserStream stream = streams.compute(userId, (id, existing) -> {
+            UserStream current = existing != null ? existing : new UserStream();
+            created[0] = current.subscribers.getAndIncrement() == 0;
+            return current;
+        });
+        if (created[0]) {
+            onFirst.run();
+        }
+        return stream;
+    }
+
+    private void release(String userId, UserStream stream, Runnable onLast) {
+        boolean[] removed = new boolean[1];
+        streams.computeIfPresent(userId, (id, current) -> {
+            if (current != stream || current.subscribers.decrementAndGet() > 0) {
+                return current;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            stream.sink.tryEmitComplete();
+            onLast.run();
+        }
+    }
+
+    private static class UserStream {
+        // directBestEffort: a subscriber that is not ready loses the frame instead of
+        // blocking the others; the per-subscriber buffer makes that rare
+        private final Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().multicast().directBestEffort();
+        private final AtomicInteger subscribers = new AtomicInteger();
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.sse.reactive;
+
+import com.example.sse.SseService;
+import com.example.sse.jwt.JwtTokenProvider;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.util.function.Function;
+
+/**
+ * Serves {@code GET /sse/reactive/subscribe} from WebFlux on Reactor Netty, on its own
+ * port next to the servlet container. Frames from {@link ReactiveSseHub} are written by
+ * Netty's event loops with non-blocking socket writes: an open stream holds no thread
+ * and no servlet async request, and a slow client only fills its own subscriber buffer.
+ *
+ * Spring Security does not cover this port (it guards the servlet filter chain), so the
+ * JWT is checked here, from the Authorization header or the {@code token} query
+ * parameter, as {@link com.example.sse.jwt.JwtAuthenticationFilter} does.
+ */
+@Component
+@ConditionalOnProperty(name = "app.sse.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveSseServer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveSseServer.class);
+
+    public static final String SUBSCRIBE_PATH = "/sse/reactive/subscribe";
+
+    private final int port;
+    private final Function<String, String> userForToken;
+    private final Function<String, Flux<ServerSentEvent<String>>> streams;
+
+    private DisposableServer server;
+
+    @Autowired
+    public ReactiveSseServer(SseService sseService,
+                             JwtTokenProvider jwtTokenProvider,
+                             @Value("${app.sse.reactive.port:9089}") int port) {
+        this(port, token -> {
+            Authentication authentication = jwtTokenProvider.authenticate(token);
+            return authentication == null ? null : authentication.getName();
+        }, sseService::subscribeReactive);
+    }
+
+    /**
+     * @param port         0 picks a free port (see {@link #getPort})
+     * @param userForToken user id for a valid token, or null
+     * @param streams      the frames of one user's stream
+     */
+    public ReactiveSseServer(int port, Function<String, String> userForToken,
+                             Function<String, Flux<ServerSentEvent<String>>> streams) {
+        this.port = port;
+        this.userForToken = userForToken;
+        this.streams = streams;
+    }
+
+    @PostConstruct
+    public void start() {
+        ReactorHttpHandlerAdapter handler = new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(
+                RouterFunctions.route(RequestPredicates.GET(SUBSCRIBE_PATH), this::subscribe)));
+        server = HttpServer.create().port(port).handle(handler).bindNow();
+        log.info("Reactive SSE endpoint listening on port {}", server.port());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    public int getPort() {
+        return server.port();
+    }
+
+    private Mono<ServerResponse> subscribe(ServerRequest request) {
+        String token = resolveToken(request);
+        String userId = token == null ? null : userForToken.apply(token);
+        if (userId == null) {
+            return ServerResponse.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                // EventSource from the frontend dev server; same policy as SecurityConfig
+                .header(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*")
+                .body(BodyInserters.fromServerSentEvents(streams.apply(userId)));
+    }
+
+    private static String resolveToken(ServerRequest request) {
+        String bearerToken = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return request.queryParam("token").filter(token -> !token.isEmpty()).orElse(null);
+    }
+}
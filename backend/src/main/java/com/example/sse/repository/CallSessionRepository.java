@@ -4,19 +4,28 @@ import com.example.sse.domain.CallSession;
 import com.example.sse.domain.CallStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 public interface CallSessionRepository extends JpaRepository<CallSession, String> {
 
-    // Find latest session between two users (for linking OFFER/ANSWER)
-    Optional<CallSession> findTopByCallerIdAndCalleeIdOrderByCreatedAtDesc(Long callerId, Long calleeId);
+    // Startup rebuild of the in-memory CallRegistry
+    List<CallSession> findByStatusIn(Collection<CallStatus> statuses);
 
-    // For finding active sessions to close on logout
-    List<CallSession> findByCallerIdAndStatus(Long callerId, CallStatus status);
+    // Transition-only writes; the CallRegistry has already validated the transition.
+    // createdAt is the partition key (V12): with it the UPDATE touches one partition
+    // instead of probing the primary key index of every month.
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE CallSession c SET c.status = com.example.sse.domain.CallStatus.CONNECTED, c.connectedAt = :at WHERE c.sessionId = :sessionId AND c.createdAt = :createdAt")
+    int markConnected(@org.springframework.data.repository.query.Param("sessionId") String sessionId,
+                      @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+                      @org.springframework.data.repository.query.Param("at") LocalDateTime at);
 
-    List<CallSession> findByCalleeIdAndStatus(Long calleeId, CallStatus status);
-
-    @org.springframework.data.jpa.repository.Query("SELECT count(c) > 0 FROM CallSession c WHERE (c.callerId = :userId OR c.calleeId = :userId) AND c.status IN (com.example.sse.domain.CallStatus.TRYING, com.example.sse.domain.CallStatus.CONNECTED)")
-    boolean existsActiveSession(@org.springframework.data.repository.query.Param("userId") Long userId);
+    @org.springframework.data.jpa.repository.Modifying
+    @org.springframework.data.jpa.repository.Query("UPDATE CallSession c SET c.status = :status, c.endedAt = :at WHERE c.sessionId = :sessionId AND c.createdAt = :createdAt")
+    int markEnded(@org.springframework.data.repository.query.Param("sessionId") String sessionId,
+                  @org.springframework.data.repository.query.Param("createdAt") LocalDateTime createdAt,
+                  @org.springframework.data.repository.query.Param("status") CallStatus status,
+                  @org.springframework.data.repository.query.Param("at") LocalDateTime at);
 }
@@ -0,0 +1,24 @@
+package com.example.sse.repository;
+
+import com.example.sse.domain.ChatInboxCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ChatInboxCursorRepository extends JpaRepository<ChatInboxCursor, Long> {
+
+    @Query("SELECT c.lastAckedSeq FROM ChatInboxCursor c WHERE c.userId = :userId")
+    Optional<Long> findLastAckedSeq(@Param("userId") Long userId);
+
+    // Forward-only: a late or duplicate ack cannot un-deliver newer messages
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}chat_inbox_cursor AS c (user_id, last_acked_seq, updated_at) " +
+                   "VALUES (:userId, :ackedSeq, NOW()) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "  last_acked_seq = EXCLUDED.last_acked_seq, updated_at = EXCLUDED.updated_at " +
+                   "WHERE c.last_acked_seq < EXCLUDED.last_acked_seq", nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("ackedSeq") Long ackedSeq);
+}
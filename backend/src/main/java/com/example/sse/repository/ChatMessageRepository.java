@@ -1,31 +1,81 @@
 package com.example.sse.repository;
 
 import com.example.sse.domain.ChatMessage;
-import org.springframework.data.domain.Pageable;
+import com.example.sse.dto.ChatInboxMessageDto;
+import com.example.sse.dto.ChatMessageDto;
+import com.example.sse.dto.ChatSearchHitDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    @Query("SELECT m FROM ChatMessage m " +
-           "WHERE (m.senderId = :user1 AND m.receiverId = :user2) " +
-           "   OR (m.senderId = :user2 AND m.receiverId = :user1) " +
-           "ORDER BY m.createdAt DESC")
-    List<ChatMessage> findRecentConversation(@Param("user1") Long user1, @Param("user2") Long user2, Pageable pageable);
-
-    @Query("SELECT m FROM ChatMessage m " +
-           "WHERE (m.senderId = :user1 AND m.receiverId = :user2) " +
-           "   OR (m.senderId = :user2 AND m.receiverId = :user1) " +
-           "ORDER BY m.createdAt ASC")
-    List<ChatMessage> findConversation(@Param("user1") Long user1, @Param("user2") Long user2);
-
-    @Query("SELECT DISTINCT CASE " +
-           "  WHEN m.senderId = :userId THEN m.receiverId " +
-           "  ELSE m.senderId END " +
-           "FROM ChatMessage m " +
-           "WHERE m.senderId = :userId OR m.receiverId = :userId")
-    List<Long> findConversationPartnerIds(@Param("userId") Long userId);
+    // Conversation queries take the pair as (LEAST, GREATEST) so they match
+    // idx_chat_message_pair_keyset (V8) and page with an index range scan. The sender
+    // email is joined in, so a page is one statement however many messages it holds.
+    @NativeQuery(value = "SELECT m.id, u.email AS sender_email, m.message, m.created_at " +
+                         "FROM {h-schema}chat_message m JOIN {h-schema}users u ON u.id = m.sender_id " +
+                         "WHERE LEAST(m.sender_id, m.receiver_id) = :low AND GREATEST(m.sender_id, m.receiver_id) = :high " +
+                         "ORDER BY m.created_at DESC, m.id DESC " +
+                         "LIMIT :limit",
+                 sqlResultSetMapping = "ChatMessageDto")
+    List<ChatMessageDto> findLatestInConversation(@Param("low") Long low, @Param("high") Long high,
+                                                  @Param("limit") int limit);
+
+    @NativeQuery(value = "SELECT m.id, u.email AS sender_email, m.message, m.created_at " +
+                         "FROM {h-schema}chat_message m JOIN {h-schema}users u ON u.id = m.sender_id " +
+                         "WHERE LEAST(m.sender_id, m.receiver_id) = :low AND GREATEST(m.sender_id, m.receiver_id) = :high " +
+                         "  AND (m.created_at, m.id) < (:beforeAt, :beforeId) " +
+                         "ORDER BY m.created_at DESC, m.id DESC " +
+                         "LIMIT :limit",
+                 sqlResultSetMapping = "ChatMessageDto")
+    List<ChatMessageDto> findInConversationBefore(@Param("low") Long low, @Param("high") Long high,
+                                                  @Param("beforeAt") LocalDateTime beforeAt,
+                                                  @Param("beforeId") Long beforeId,
+                                                  @Param("limit") int limit);
+
+    // Inbox catch-up: everything received after the acknowledged inbox_seq, in commit
+    // order. One range scan on idx_chat_message_receiver_seq (V17).
+    @NativeQuery(value = "SELECT m.id, u.email AS sender_email, m.message, m.created_at, m.inbox_seq " +
+                         "FROM {h-schema}chat_message m JOIN {h-schema}users u ON u.id = m.sender_id " +
+                         "WHERE m.receiver_id = :receiverId AND m.inbox_seq > :afterSeq " +
+                         "ORDER BY m.inbox_seq " +
+                         "LIMIT :limit",
+                 sqlResultSetMapping = "ChatInboxMessageDto")
+    List<ChatInboxMessageDto> findInboxAfter(@Param("receiverId") Long receiverId, @Param("afterSeq") Long afterSeq,
+                                             @Param("limit") int limit);
+
+    // Ranked full-text search over the user's own conversations. The GIN index on
+    // search_vector (V11) finds the matches; rank is computed for those rows only.
+    String SEARCH_SELECT = "SELECT m.id, p.email AS partner_email, s.email AS sender_email, m.message, m.created_at, " +
+                           "       ts_rank(m.search_vector, q.query) AS rank " +
+                           "FROM {h-schema}chat_message m " +
+                           "CROSS JOIN websearch_to_tsquery('simple', :query) AS q(query) " +
+                           "JOIN {h-schema}users s ON s.id = m.sender_id " +
+                           "JOIN {h-schema}users p ON p.id = CASE WHEN m.sender_id = :userId THEN m.receiver_id ELSE m.sender_id END " +
+                           "WHERE m.search_vector @@ q.query AND (m.sender_id = :userId OR m.receiver_id = :userId) ";
+
+    @NativeQuery(value = SEARCH_SELECT +
+                         "ORDER BY rank DESC, m.id DESC " +
+                         "LIMIT :limit",
+                 sqlResultSetMapping = "ChatSearchHitDto")
+    List<ChatSearchHitDto> search(@Param("userId") Long userId, @Param("query") String query,
+                                  @Param("limit") int limit);
+
+    @NativeQuery(value = SEARCH_SELECT +
+                         "  AND (ts_rank(m.search_vector, q.query), m.id) < (CAST(:afterRank AS real), :afterId) " +
+                         "ORDER BY rank DESC, m.id DESC " +
+                         "LIMIT :limit",
+                 sqlResultSetMapping = "ChatSearchHitDto")
+    List<ChatSearchHitDto> searchAfter(@Param("userId") Long userId, @Param("query") String query,
+                                       @Param("afterRank") float afterRank, @Param("afterId") Long afterId,
+                                       @Param("limit") int limit);
+
+    @Query("SELECT MAX(m.inboxSeq) FROM ChatMessage m WHERE m.receiverId = :receiverId")
+    Optional<Long> findLatestReceivedSeq(@Param("receiverId") Long receiverId);
 }
@@ -0,0 +1,63 @@
+package com.example.sse.repository;
+
+import com.example.sse.domain.ConversationSummary;
+import com.example.sse.dto.ConversationPartnerDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, ConversationSummary.Key> {
+
+    /**
+     * Folds new messages into the pair's summary. The last_* columns only move forward,
+     * so batches arriving out of order keep the newest message; unread counters add up.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}conversation_summary AS s " +
+                   "  (user_low, user_high, last_message_id, last_sender_id, last_message, last_message_at, " +
+                   "   unread_low, unread_high) " +
+                   "VALUES (:low, :high, :messageId, :senderId, :message, :at, :unreadLow, :unreadHigh) " +
+                   "ON CONFLICT (user_low, user_high) DO UPDATE SET " +
+                   "  last_message_id = CASE WHEN (EXCLUDED.last_message_at, EXCLUDED.last_message_id) " +
+                   "      >= (s.last_message_at, s.last_message_id) THEN EXCLUDED.last_message_id ELSE s.last_message_id END, " +
+                   "  last_sender_id = CASE WHEN (EXCLUDED.last_message_at, EXCLUDED.last_message_id) " +
+                   "      >= (s.last_message_at, s.last_message_id) THEN EXCLUDED.last_sender_id ELSE s.last_sender_id END, " +
+                   "  last_message = CASE WHEN (EXCLUDED.last_message_at, EXCLUDED.last_message_id) " +
+                   "      >= (s.last_message_at, s.last_message_id) THEN EXCLUDED.last_message ELSE s.last_message END, " +
+                   "  last_message_at = GREATEST(EXCLUDED.last_message_at, s.last_message_at), " +
+                   "  unread_low = s.unread_low + EXCLUDED.unread_low, " +
+                   "  unread_high = s.unread_high + EXCLUDED.unread_high", nativeQuery = true)
+    int recordMessages(@Param("low") Long low, @Param("high") Long high,
+                       @Param("messageId") Long messageId, @Param("senderId") Long senderId,
+                       @Param("message") String message, @Param("at") LocalDateTime at,
+                       @Param("unreadLow") int unreadLow, @Param("unreadHigh") int unreadHigh);
+
+    // Both sides of the pair, each an index scan on (user_x, last_message_at DESC), with
+    // the partner joined in: the whole partner list is one statement
+    @NativeQuery(value = "SELECT u.email AS partner_email, u.username AS partner_username, " +
+                         "       s.last_message, s.last_message_at, s.unread_low AS unread " +
+                         "FROM {h-schema}conversation_summary s JOIN {h-schema}users u ON u.id = s.user_high " +
+                         "WHERE s.user_low = :userId " +
+                         "UNION ALL " +
+                         "SELECT u.email, u.username, s.last_message, s.last_message_at, s.unread_high " +
+                         "FROM {h-schema}conversation_summary s JOIN {h-schema}users u ON u.id = s.user_low " +
+                         "WHERE s.user_high = :userId " +
+                         "ORDER BY last_message_at DESC",
+                 sqlResultSetMapping = "ConversationPartnerDto")
+    List<ConversationPartnerDto> findPartners(@Param("userId") Long userId);
+
+    // No-op (no row version churn) when the reader has nothing unread
+    @Modifying
+    @Query(value = "UPDATE {h-schema}conversation_summary SET " +
+                   "  unread_low = CASE WHEN user_low = :readerId THEN 0 ELSE unread_low END, " +
+                   "  unread_high = CASE WHEN user_high = :readerId THEN 0 ELSE unread_high END " +
+                   "WHERE user_low = :low AND user_high = :high " +
+                   "  AND ((user_low = :readerId AND unread_low > 0) OR (user_high = :readerId AND unread_high > 0))",
+           nativeQuery = true)
+    int markRead(@Param("low") Long low, @Param("high") Long high, @Param("readerId") Long readerId);
+}
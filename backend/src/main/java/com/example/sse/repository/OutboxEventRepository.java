@@ -0,0 +1,42 @@
+package com.example.sse.repository;
+
+import com.example.sse.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Buckets of the stored relay_bucket column (V19); a relay partition is bucket % partitions,
+    // so all events of one aggregate land in the same one
+    int RELAY_BUCKETS = 1024;
+
+    // Whether one partition's buckets hold any unpublished row. Stops at the first entry
+    // of idx_outbox_event_unpublished_bucket, so an idle poll reads no backlog rows.
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM {h-schema}outbox_event " +
+                   "WHERE published_at IS NULL AND relay_bucket IN (:buckets))", nativeQuery = true)
+    boolean hasBacklog(@Param("buckets") List<Integer> buckets);
+
+    // Held until the transaction ends; false if another relay is draining the partition
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockClass, :partition)", nativeQuery = true)
+    boolean tryLockPartition(@Param("lockClass") int lockClass, @Param("partition") int partition);
+
+    // Oldest unpublished rows of one partition's buckets, in insert order (order_seq, V18).
+    // Reads idx_outbox_event_unpublished_bucket instead of hashing every unpublished row.
+    @Query(value = "SELECT * FROM {h-schema}outbox_event " +
+                   "WHERE published_at IS NULL AND relay_bucket IN (:buckets) " +
+                   "ORDER BY order_seq " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("buckets") List<Integer> buckets, @Param("limit") int limit);
+
+    @Query("SELECT min(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,86 @@
+package com.example.sse.routing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JVM-wide directory for the loopback mode. Static so that several application
+ * contexts started in one JVM (multi-node tests) share it.
+ *
+ * Behaves like {@link JdbcPresenceDirectory} without the cache: every node refreshes
+ * a heartbeat, lookups ignore nodes whose heartbeat is older than {@code node-timeout-ms},
+ * and a periodic sweep drops their entries, so a node that stops heartbeating (a test
+ * "crashing" it) stops receiving signals.
+ */
+@Component
+@ConditionalOnProperty(name = "app.routing.mode", havingValue = "loopback", matchIfMissing = true)
+public class InMemoryPresenceDirectory implements PresenceDirectory {
+
+    private static final Map<String, String> NODE_BY_USER = new ConcurrentHashMap<>();
+    private static final Map<String, Long> HEARTBEAT_BY_NODE = new ConcurrentHashMap<>();
+
+    private final NodeIdentity nodeIdentity;
+    private final long nodeTimeoutMs;
+
+    public InMemoryPresenceDirectory(NodeIdentity nodeIdentity,
+                                     @Value("${app.routing.loopback.node-timeout-ms:30000}") long nodeTimeoutMs) {
+        this.nodeIdentity = nodeIdentity;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat();
+    }
+
+    @PreDestroy
+    public void stop() {
+        NODE_BY_USER.values().removeIf(nodeIdentity.getId()::equals);
+        HEARTBEAT_BY_NODE.remove(nodeIdentity.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.routing.loopback.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        HEARTBEAT_BY_NODE.put(nodeIdentity.getId(), System.currentTimeMillis());
+    }
+
+    // Removes the entries of nodes that stopped heartbeating
+    @Scheduled(fixedDelayString = "${app.routing.loopback.node-timeout-ms:30000}")
+    public void expireDeadNodes() {
+        long now = System.currentTimeMillis();
+        HEARTBEAT_BY_NODE.entrySet().removeIf(node -> !isAlive(node.getValue(), now));
+        NODE_BY_USER.values().removeIf(node -> !HEARTBEAT_BY_NODE.containsKey(node));
+    }
+
+    @Override
+    public void register(String userId, String nodeId) {
+        NODE_BY_USER.put(userId, nodeId);
+    }
+
+    @Override
+    public void unregister(String userId, String nodeId) {
+        NODE_BY_USER.remove(userId, nodeId);
+    }
+
+    @Override
+    public Optional<String> lookup(String userId) {
+        String node = NODE_BY_USER.get(userId);
+        if (node == null) {
+            return Optional.empty();
+        }
+        Long heartbeat = HEARTBEAT_BY_NODE.get(node);
+        return heartbeat != null && isAlive(heartbeat, System.currentTimeMillis()) ? Optional.of(node) : Optional.empty();
+    }
+
+    private boolean isAlive(long heartbeatAt, long now) {
+        return now - heartbeatAt < nodeTimeoutMs;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.sse.routing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared directory in the sse_presence table (one row per connected user). A
+ * reconnect to another node simply overwrites the row; a node clears its own rows
+ * on startup and shutdown.
+ *
+ * Each node also refreshes its heartbeat in sse_node. Lookups ignore nodes whose
+ * heartbeat is older than {@code node-timeout-ms}, and a periodic sweep deletes their
+ * rows, so a crashed node's users stop being routed to it.
+ *
+ * Hits are cached for {@code presence-cache-ms}, so a burst of ICE candidates costs one
+ * SELECT. A cached entry can point at a node the user just left; that node looks the
+ * user up again with {@link #invalidate} and forwards the frame.
+ */
+@Component
+@ConditionalOnProperty(name = "app.routing.mode", havingValue = "postgres")
+public class JdbcPresenceDirectory implements PresenceDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcPresenceDirectory.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NodeIdentity nodeIdentity;
+    private final String table;
+    private final String nodeTable;
+    private final long cacheMs;
+    private final long nodeTimeoutMs;
+
+    private final Map<String, CachedNode> cache = new ConcurrentHashMap<>();
+
+    public JdbcPresenceDirectory(JdbcTemplate jdbcTemplate, NodeIdentity nodeIdentity,
+                                 @Value("${spring.jpa.properties.hibernate.default_schema:conference_chat}") String schema,
+                                 @Value("${app.routing.postgres.presence-cache-ms:1000}") long cacheMs,
+                                 @Value("${app.routing.postgres.node-timeout-ms:30000}") long nodeTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeIdentity = nodeIdentity;
+        this.table = schema + ".sse_presence";
+        this.nodeTable = schema + ".sse_node";
+        this.cacheMs = cacheMs;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        clearOwnEntries();
+        heartbeat();
+    }
+
+    @PreDestroy
+    public void stop() {
+        clearOwnEntries();
+        jdbcTemplate.update("DELETE FROM " + nodeTable + " WHERE node_id = ?", nodeIdentity.getId());
+    }
+
+    private void clearOwnEntries() {
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE node_id = ?", nodeIdentity.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.routing.postgres.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        jdbcTemplate.update("INSERT INTO " + nodeTable + " (node_id, heartbeat_at) VALUES (?, NOW()) " +
+                "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = NOW()", nodeIdentity.getId());
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    // Removes the rows of nodes that stopped heartbeating (crashed or partitioned away)
+    @Scheduled(fixedDelayString = "${app.routing.postgres.node-timeout-ms:30000}")
+    public void expireDeadNodes() {
+        int users = jdbcTemplate.update("DELETE FROM " + table + " p WHERE NOT EXISTS (SELECT 1 FROM " + nodeTable +
+                " n WHERE n.node_id = p.node_id AND n.heartbeat_at > NOW() - ? * INTERVAL '1 millisecond')",
+                nodeTimeoutMs);
+        int nodes = jdbcTemplate.update("DELETE FROM " + nodeTable +
+                " WHERE heartbeat_at <= NOW() - ? * INTERVAL '1 millisecond'", nodeTimeoutMs);
+        if (users > 0 || nodes > 0) {
+            log.info("Expired {} dead nodes and {} presence entries", nodes, users);
+        }
+    }
+
+    @Override
+    public void register(String userId, String nodeId) {
+        jdbcTemplate.update("INSERT INTO " + table + " (user_id, node_id, updated_at) VALUES (?, ?, NOW()) " +
+                        "ON CONFLICT (user_id) DO UPDATE SET node_id = EXCLUDED.node_id, updated_at = NOW()",
+                userId, nodeId);
+        cache.remove(userId);
+    }
+
+    @Override
+    public void unregister(String userId, String nodeId) {
+        jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ? AND node_id = ?", userId, nodeId);
+        cache.remove(userId);
+    }
+
+    @Override
+    public Optional<String> lookup(String userId) {
+        long now = System.currentTimeMillis();
+        CachedNode cached = cache.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return Optional.of(cached.nodeId);
+        }
+        List<String> nodes = jdbcTemplate.queryForList(
+                "SELECT p.node_id FROM " + table + " p JOIN " + nodeTable + " n ON n.node_id = p.node_id " +
+                        "WHERE p.user_id = ? AND n.heartbeat_at > NOW() - ? * INTERVAL '1 millisecond'",
+                String.class, userId, nodeTimeoutMs);
+        Optional<String> node = nodes.stream().findFirst();
+        // Only hits are cached: a user who just connected must be reachable right away
+        node.ifPresentOrElse(id -> cache.put(userId, new CachedNode(id, now + cacheMs)), () -> cache.remove(userId));
+        return node;
+    }
+
+    @Override
+    public void invalidate(String userId) {
+        cache.remove(userId);
+    }
+
+    private record CachedNode(String nodeId, long expiresAt) {
+    }
+}
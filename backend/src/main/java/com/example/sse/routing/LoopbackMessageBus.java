@@ -0,0 +1,59 @@
+package com.example.sse.routing;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus: nodes are application contexts in the same JVM. Batches are
+ * handed over on a separate thread so the sender sees the same asynchrony as with
+ * a real transport.
+ */
+@Component
+@ConditionalOnProperty(name = "app.routing.mode", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackMessageBus implements MessageBus {
+
+    private static final Logger log = LoggerFactory.getLogger(LoopbackMessageBus.class);
+
+    private static final Map<String, Consumer<List<RoutedSignal>>> NODES = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "loopback-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile String subscribedNode;
+
+    @Override
+    public void send(String nodeId, List<RoutedSignal> batch) {
+        Consumer<List<RoutedSignal>> handler = NODES.get(nodeId);
+        if (handler == null) {
+            log.debug("No loopback node {}, dropping {} signals", nodeId, batch.size());
+            return;
+        }
+        executor.execute(() -> handler.accept(batch));
+    }
+
+    @Override
+    public void subscribe(String nodeId, Consumer<List<RoutedSignal>> handler) {
+        NODES.put(nodeId, handler);
+        subscribedNode = nodeId;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (subscribedNode != null) {
+            NODES.remove(subscribedNode);
+        }
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.sse.routing;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Node-to-node transport for {@link RoutedSignal} batches. Delivery is best effort:
+ * a batch sent to a node that is not listening is lost, like a signal to an
+ * offline user.
+ */
+public interface MessageBus {
+
+    void send(String nodeId, List<RoutedSignal> batch);
+
+    // Starts delivering batches addressed to nodeId to the handler
+    void subscribe(String nodeId, Consumer<List<RoutedSignal>> handler);
+}
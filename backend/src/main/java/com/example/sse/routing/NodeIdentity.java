@@ -0,0 +1,27 @@
+package com.example.sse.routing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Id of this backend instance in the presence directory and on the message bus.
+ * Random per start unless {@code app.routing.node-id} is set; kept to lower-case
+ * letters, digits and underscores so it can be used in a LISTEN channel name.
+ */
+@Component
+public class NodeIdentity {
+
+    private final String id;
+
+    public NodeIdentity(@Value("${app.routing.node-id:}") String configured) {
+        String raw = configured.isBlank() ? UUID.randomUUID().toString().substring(0, 8) : configured;
+        this.id = raw.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    }
+
+    public String getId() {
+        return id;
+    }
+}
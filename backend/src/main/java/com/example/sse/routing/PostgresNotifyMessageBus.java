@@ -0,0 +1,212 @@
+package com.example.sse.routing;
+
+import com.example.sse.config.ExecutionThreads;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Postgres LISTEN/NOTIFY transport. Each node listens on {@code sse_node_<id>} over a
+ * dedicated connection (outside the Hikari pool) and senders NOTIFY that channel.
+ *
+ * NOTIFY payloads are limited to 8000 bytes, so a batch is split into as many
+ * JSON arrays as needed. A single signal that is larger on its own (a long SDP) is
+ * parked in sse_route_spill and only its id is notified.
+ */
+@Component
+@ConditionalOnProperty(name = "app.routing.mode", havingValue = "postgres")
+public class PostgresNotifyMessageBus implements MessageBus {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresNotifyMessageBus.class);
+
+    // Leaves headroom below the server's 8000-byte limit
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String SPILL_PREFIX = "spill:";
+    private static final TypeReference<List<RoutedSignal>> BATCH_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final ExecutionThreads executionThreads;
+    private final String spillTable;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+
+    private volatile boolean running = true;
+    private Thread listener;
+
+    public PostgresNotifyMessageBus(JdbcTemplate jdbcTemplate,
+                                    DataSourceProperties dataSourceProperties,
+                                    ObjectMapper objectMapper,
+                                    ExecutionThreads executionThreads,
+                                    @Value("${spring.jpa.properties.hibernate.default_schema:conference_chat}") String schema,
+                                    @Value("${app.routing.postgres.poll-timeout-ms:500}") int pollTimeoutMs,
+                                    @Value("${app.routing.postgres.reconnect-delay-ms:2000}") long reconnectDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.executionThreads = executionThreads;
+        this.spillTable = schema + ".sse_route_spill";
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @Override
+    public void send(String nodeId, List<RoutedSignal> batch) {
+        String channel = channel(nodeId);
+        for (String payload : pack(batch)) {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> {
+            }, channel, payload);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(String nodeId, Consumer<List<RoutedSignal>> handler) {
+        if (listener != null) {
+            throw new IllegalStateException("Already listening");
+        }
+        listener = executionThreads.factory("pg-notify-listener-").newThread(() -> listen(channel(nodeId), handler));
+        listener.start();
+    }
+
+    // Splits the batch into JSON arrays that each fit in one NOTIFY payload
+    private List<String> pack(List<RoutedSignal> batch) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder("[");
+        int currentBytes = 2; // "[" + "]"
+        for (RoutedSignal signal : batch) {
+            String json = toJson(signal);
+            int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+            if (bytes + 2 > MAX_PAYLOAD_BYTES) {
+                payloads.add(spill("[" + json + "]"));
+                continue;
+            }
+            int needed = bytes + (current.length() > 1 ? 1 : 0);
+            if (currentBytes + needed > MAX_PAYLOAD_BYTES) {
+                payloads.add(current.append(']').toString());
+                current = new StringBuilder("[");
+                currentBytes = 2;
+                needed = bytes;
+            }
+            if (current.length() > 1) {
+                current.append(',');
+            }
+            current.append(json);
+            currentBytes += needed;
+        }
+        if (current.length() > 1) {
+            payloads.add(current.append(']').toString());
+        }
+        return payloads;
+    }
+
+    private String spill(String json) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO " + spillTable + " (payload) VALUES (?) RETURNING id", Long.class, json);
+        return SPILL_PREFIX + id;
+    }
+
+    private List<RoutedSignal> unpack(String payload) throws JsonProcessingException {
+        String json = payload;
+        if (payload.startsWith(SPILL_PREFIX)) {
+            long id = Long.parseLong(payload.substring(SPILL_PREFIX.length()));
+            List<String> rows = jdbcTemplate.queryForList(
+                    "DELETE FROM " + spillTable + " WHERE id = ? RETURNING payload", String.class, id);
+            if (rows.isEmpty()) {
+                return Collections.emptyList();
+            }
+            json = rows.get(0);
+        }
+        return objectMapper.readValue(json, BATCH_TYPE);
+    }
+
+    private void listen(String channel, Consumer<List<RoutedSignal>> handler) {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for routed signals on {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter(), handler);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("LISTEN connection lost, reconnecting in {}ms: {}", reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload, Consumer<List<RoutedSignal>> handler) {
+        try {
+            handler.accept(unpack(payload));
+        } catch (Exception e) {
+            log.error("Failed to handle routed batch", e);
+        }
+    }
+
+    // Spilled signals whose receiver went away before reading them
+    @Scheduled(fixedDelayString = "${app.routing.postgres.spill-prune-interval-ms:60000}")
+    public void pruneSpill() {
+        jdbcTemplate.update("DELETE FROM " + spillTable + " WHERE created_at < NOW() - INTERVAL '5 minutes'");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private static String channel(String nodeId) {
+        return "sse_node_" + nodeId;
+    }
+
+    private String toJson(RoutedSignal signal) {
+        try {
+            return objectMapper.writeValueAsString(signal);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize routed signal", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.sse.routing;
+
+import java.util.Optional;
+
+// Which node holds each user's SSE stream
+public interface PresenceDirectory {
+
+    void register(String userId, String nodeId);
+
+    // No-op unless the user is still registered on nodeId (a newer stream may live elsewhere)
+    void unregister(String userId, String nodeId);
+
+    // May be served from a short-lived cache
+    Optional<String> lookup(String userId);
+
+    // Drops any cached entry, so the next lookup reads the directory itself
+    default void invalidate(String userId) {
+    }
+}
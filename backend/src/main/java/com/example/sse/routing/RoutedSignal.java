@@ -0,0 +1,39 @@
+package com.example.sse.routing;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// One frame forwarded to the node that owns the target user's stream
+public class RoutedSignal {
+    private final String userId;
+    private final String name;
+    private final String data; // Already serialized; sent to the emitter as-is
+    private final boolean replayable;
+
+    @JsonCreator
+    public RoutedSignal(@JsonProperty("userId") String userId,
+                        @JsonProperty("name") String name,
+                        @JsonProperty("data") String data,
+                        @JsonProperty("replayable") boolean replayable) {
+        this.userId = userId;
+        this.name = name;
+        this.data = data;
+        this.replayable = replayable;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public boolean isReplayable() {
+        return replayable;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.sse.routing;
+
+import com.example.sse.config.ExecutionThreads;
+import com.example.sse.connection.ReplayLog;
+import com.example.sse.connection.WriteObserved;
+import com.example.sse.dto.RoutingStatsDto;
+import com.example.sse.reactive.ReactiveSseHub;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers per-user frames wherever the user's stream lives. Users connected to this
+ * node are served straight from the {@link ReplayLog} (servlet streams) or the
+ * {@link ReactiveSseHub}; others are looked up in the {@link PresenceDirectory} and
+ * forwarded over the {@link MessageBus}.
+ *
+ * A user stays registered here after their stream closes, for as long as the replay
+ * buffer is kept, so frames from other nodes are buffered for a reconnect like local
+ * ones. Reconnecting to another node re-registers them there; that node's replay log
+ * cannot cover ids issued here, so the client gets a {@code replay_gap} instead.
+ *
+ * Forwarded frames are queued per destination node and sent as one batch after a
+ * short window (or as soon as a batch is full), so a burst of ICE candidates costs
+ * one bus message instead of one per candidate.
+ */
+@Component
+public class SignalRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(SignalRouter.class);
+
+    public enum Route {
+        LOCAL,      // user's stream is on this node, or they are between connections here
+        FORWARDED,  // queued for the owning node
+        DROPPED     // user is not connected anywhere
+    }
+
+    private final ReplayLog replayLog;
+    private final ReactiveSseHub reactiveHub;
+    private final PresenceDirectory presenceDirectory;
+    private final MessageBus messageBus;
+    private final NodeIdentity nodeIdentity;
+    private final ObjectMapper objectMapper;
+    private final long batchWindowMs;
+    private final int maxBatchSize;
+
+    private final Map<String, NodeQueue> outgoing = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    // Stats
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SignalRouter(ReplayLog replayLog,
+                        ReactiveSseHub reactiveHub,
+                        PresenceDirectory presenceDirectory,
+                        MessageBus messageBus,
+                        NodeIdentity nodeIdentity,
+                        ObjectMapper objectMapper,
+                        ExecutionThreads executionThreads,
+                        @Value("${app.routing.batch-window-ms:5}") long batchWindowMs,
+                        @Value("${app.routing.max-batch-size:100}") int maxBatchSize) {
+        this.replayLog = replayLog;
+        this.reactiveHub = reactiveHub;
+        this.presenceDirectory = presenceDirectory;
+        this.messageBus = messageBus;
+        this.nodeIdentity = nodeIdentity;
+        this.objectMapper = objectMapper;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatchSize = maxBatchSize;
+        // Flushes block on the bus (a NOTIFY round trip in postgres mode)
+        this.flusher = Executors.newSingleThreadScheduledExecutor(executionThreads.factory("signal-router-"));
+    }
+
+    @PostConstruct
+    public void start() {
+        messageBus.subscribe(nodeIdentity.getId(), this::receive);
+        // Nothing left to replay here: stop routing the user to this node
+        replayLog.onExpired(this::unregister);
+    }
+
+    // Called when a stream opens on this node, and once it is gone for good (logout,
+    // replay buffer expired)
+    public void register(String userId) {
+        presenceDirectory.register(userId, nodeIdentity.getId());
+    }
+
+    public void unregister(String userId) {
+        presenceDirectory.unregister(userId, nodeIdentity.getId());
+    }
+
+    public Route deliver(String userId, String name, Object data, boolean replayable) {
+        if (deliverLive(userId, name, data, replayable)) {
+            return Route.LOCAL;
+        }
+        Optional<String> node = presenceDirectory.lookup(userId);
+        if (node.isEmpty() || node.get().equals(nodeIdentity.getId())) {
+            // Between connections on this node: keep the frame for Last-Event-ID replay
+            if (replayLog.send(userId, name, data, replayable) == ReplayLog.Delivery.BUFFERED) {
+                return Route.LOCAL;
+            }
+            dropped.incrementAndGet();
+            return Route.DROPPED;
+        }
+        forward(node.get(), new RoutedSignal(userId, name, serialize(data), replayable));
+        return Route.FORWARDED;
+    }
+
+    private void forward(String nodeId, RoutedSignal signal) {
+        // The user reconnected elsewhere; a buffer still held here would swallow the frame
+        replayLog.discardDetached(signal.getUserId());
+        NodeQueue queue = outgoing.computeIfAbsent(nodeId, NodeQueue::new);
+        queue.signals.offer(signal);
+        forwarded.incrementAndGet();
+        if (queue.size.incrementAndGet() >= maxBatchSize) {
+            scheduleFlush(queue, 0);
+        } else {
+            scheduleFlush(queue, batchWindowMs);
+        }
+    }
+
+    private void scheduleFlush(NodeQueue queue, long delayMs) {
+        if (queue.scheduled.compareAndSet(false, true)) {
+            try {
+                flusher.schedule(() -> flush(queue), delayMs, TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                // Shutting down
+                queue.scheduled.set(false);
+            }
+        }
+    }
+
+    private void flush(NodeQueue queue) {
+        try {
+            while (queue.size.get() > 0) {
+                List<RoutedSignal> batch = new ArrayList<>(Math.min(queue.size.get(), maxBatchSize));
+                RoutedSignal signal;
+                while (batch.size() < maxBatchSize && (signal = queue.signals.poll()) != null) {
+                    batch.add(signal);
+                }
+                queue.size.addAndGet(-batch.size());
+                if (batch.isEmpty()) {
+                    break;
+                }
+                messageBus.send(queue.nodeId, batch);
+                batchesSent.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.error("Failed to forward signals to node {}", queue.nodeId, e);
+        } finally {
+            queue.scheduled.set(false);
+        }
+        // An offer may have raced with the final poll
+        if (queue.size.get() > 0) {
+            scheduleFlush(queue, batchWindowMs);
+        }
+    }
+
+    private void receive(List<RoutedSignal> batch) {
+        for (RoutedSignal signal : batch) {
+            received.incrementAndGet();
+            if (deliverLive(signal.getUserId(), signal.getName(), signal.getData(), signal.isReplayable())) {
+                continue;
+            }
+            // The sender's cached lookup may predate a reconnect to another node
+            presenceDirectory.invalidate(signal.getUserId());
+            Optional<String> node = presenceDirectory.lookup(signal.getUserId());
+            if (node.isPresent() && !node.get().equals(nodeIdentity.getId())) {
+                forward(node.get(), signal);
+                continue;
+            }
+            // Buffered if the user is between connections here, as for a frame that originated here
+            if (replayLog.send(signal.getUserId(), signal.getName(), signal.getData(), signal.isReplayable())
+                    == ReplayLog.Delivery.DROPPED) {
+                // The user moved on or disconnected while the batch was in flight
+                dropped.incrementAndGet();
+                log.debug("Routed {} for {} arrived after the stream closed", signal.getName(), signal.getUserId());
+            }
+        }
+    }
+
+    // Only an open stream on this node counts; a detached replay buffer may be stale
+    private boolean deliverLive(String userId, String name, Object data, boolean replayable) {
+        if (replayLog.sendIfAttached(userId, name, data, replayable)) {
+            return true;
+        }
+        if (reactiveHub.isConnected(userId) && reactiveHub.emit(userId, name, serialize(data))) {
+            // The sink is the reactive stream's hand-off to its writer
+            if (data instanceof WriteObserved observed) {
+                observed.onWritten();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public RoutingStatsDto getStats() {
+        return new RoutingStatsDto(nodeIdentity.getId(), forwarded.get(), batchesSent.get(), received.get(),
+                dropped.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    // Remote nodes receive the same text the local emitter would have written
+    private String serialize(Object data) {
+        if (data instanceof String text) {
+            return text;
+        }
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize routed frame", e);
+        }
+    }
+
+    private static class NodeQueue {
+        private final String nodeId;
+        private final Queue<RoutedSignal> signals = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private NodeQueue(String nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.CallSession;
+import com.example.sse.domain.CallStatus;
+import com.example.sse.domain.ChatMessage;
+import com.example.sse.domain.OutboxEvent;
+import com.example.sse.outbox.OutboxWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Inserts many rows per round trip. Entities are persisted in one transaction and
+ * flushed every {@code batch_size} rows, so Hibernate sends them as JDBC batches
+ * (rewritten into multi-row INSERTs by the driver). Each row is followed by its
+ * outbox_event, which batches the same way. Chat messages get their inbox_seq from
+ * {@link InboxSequencer} first, one statement per group.
+ *
+ * Status changes to existing call_session rows go through JdbcTemplate instead: a
+ * batched UPDATE needs neither a SELECT nor a managed entity per row.
+ */
+@Service
+public class BatchWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final OutboxWriter outboxWriter;
+    private final ConversationSummaryRecorder conversationSummaryRecorder;
+    private final InboxSequencer inboxSequencer;
+    private final JdbcTemplate jdbcTemplate;
+    private final String callSessionTable;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    public BatchWriter(OutboxWriter outboxWriter, ConversationSummaryRecorder conversationSummaryRecorder,
+                       InboxSequencer inboxSequencer, JdbcTemplate jdbcTemplate,
+                       @Value("${spring.jpa.properties.hibernate.default_schema:conference_chat}") String schema) {
+        this.outboxWriter = outboxWriter;
+        this.conversationSummaryRecorder = conversationSummaryRecorder;
+        this.inboxSequencer = inboxSequencer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.callSessionTable = schema + ".call_session";
+    }
+
+    @Transactional
+    public void insertChatMessages(Collection<ChatMessage> messages) {
+        inboxSequencer.assign(messages);
+        persistAll(messages, outboxWriter::forChatMessage);
+        conversationSummaryRecorder.recordAll(messages);
+    }
+
+    @Transactional
+    public void insertCallSessions(Collection<CallSession> sessions) {
+        persistAll(sessions, outboxWriter::forCallSession);
+    }
+
+    /**
+     * Moves CONNECTED sessions to their terminal status with one batched UPDATE, and
+     * appends an outbox event for each row that changed.
+     *
+     * @return the ends that matched no CONNECTED row, e.g. because the session's own
+     *         INSERT has not been flushed yet
+     */
+    @Transactional
+    public List<SessionEnd> endCallSessions(Collection<SessionEnd> ends) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "UPDATE " + callSessionTable + " SET status = ?, ended_at = ? " +
+                        "WHERE session_id = ? AND created_at = ? AND status = ?",
+                ends, batchSize, (ps, end) -> {
+                    ps.setString(1, end.status().name());
+                    ps.setObject(2, end.endedAt());
+                    ps.setString(3, end.session().getSessionId());
+                    // Partition key: the UPDATE goes to one partition only
+                    ps.setObject(4, end.session().getCreatedAt());
+                    ps.setString(5, CallStatus.CONNECTED.name());
+                });
+        List<SessionEnd> unmatched = new ArrayList<>();
+        int count = 0;
+        int index = 0;
+        for (SessionEnd end : ends) {
+            int updated = counts[index / batchSize][index % batchSize];
+            index++;
+            if (updated == 0) {
+                unmatched.add(end);
+                continue;
+            }
+            // Otherwise one row, or SUCCESS_NO_INFO if the driver did not count
+            CallSession session = end.session();
+            outboxWriter.callSessionChanged(session.getSessionId(), session.getCallerId(),
+                    session.getCalleeId(), end.status(), end.endedAt());
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return unmatched;
+    }
+
+    private <T> void persistAll(Collection<T> entities, Function<T, OutboxEvent> toEvent) {
+        int count = 0;
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            entityManager.persist(toEvent.apply(entity));
+            if (++count % batchSize == 0) {
+                // Send the batch and keep the persistence context small
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    public record SessionEnd(CallSession session, CallStatus status, LocalDateTime endedAt) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.CallStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Authoritative registry of live (non-terminal) calls. Busy checks and OFFER/ANSWER/HANGUP
+ * session lookups go here; call_session only receives the resulting transitions.
+ *
+ * Every transition is validated with {@link CallStatus#verifyTransition}. The loopback
+ * mode keeps the registry in memory; the postgres mode shares it between nodes, since
+ * the ANSWER or HANGUP of a call may be handled by another node than its OFFER.
+ */
+public interface CallRegistry {
+
+    boolean isBusy(Long userId);
+
+    /**
+     * Registers a new TRYING call, atomically reserving both the callee and the caller.
+     *
+     * @param createdAt the call_session row's created_at (its partition key)
+     * @return empty if either side is already in a live call (BUSY)
+     */
+    Optional<LiveCall> tryStart(String sessionId, Long callerId, Long calleeId, LocalDateTime createdAt);
+
+    // Live call placed by callerId to calleeId, if any
+    Optional<LiveCall> find(Long callerId, Long calleeId);
+
+    Optional<LiveCall> findBySession(String sessionId);
+
+    Optional<LiveCall> findByUser(Long userId);
+
+    // Every live call the user takes part in
+    List<LiveCall> findAllByUser(Long userId);
+
+    /**
+     * Moves the call to {@code next}. Terminal states drop it from the registry.
+     *
+     * @return false if the transition is not allowed (e.g. a concurrent hangup won)
+     */
+    boolean transition(LiveCall call, CallStatus next);
+
+    int size();
+
+    class LiveCall {
+        private final String sessionId;
+        private final Long callerId;
+        private final Long calleeId;
+        private final LocalDateTime createdAt;
+        // Guarded by this
+        private CallStatus status;
+
+        LiveCall(String sessionId, Long callerId, Long calleeId, LocalDateTime createdAt, CallStatus status) {
+            this.sessionId = sessionId;
+            this.callerId = callerId;
+            this.calleeId = calleeId;
+            this.createdAt = createdAt;
+            this.status = status;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public Long getCallerId() {
+            return callerId;
+        }
+
+        public Long getCalleeId() {
+            return calleeId;
+        }
+
+        // Partition key of the call_session row; updates filter on it
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public synchronized CallStatus getStatus() {
+            return status;
+        }
+
+        // Returns the replaced status, or null if the call may not move to next
+        synchronized CallStatus advance(CallStatus next) {
+            CallStatus previous = status;
+            if (previous.isTerminal()) {
+                return null;
+            }
+            try {
+                previous.verifyTransition(next);
+            } catch (IllegalStateException e) {
+                return null;
+            }
+            status = next;
+            return previous;
+        }
+
+        synchronized void reset(CallStatus previous) {
+            status = previous;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.sse.service;
+
+import com.example.sse.SignalType;
+import com.example.sse.domain.CallSession;
+import com.example.sse.domain.CallStatus;
+import com.example.sse.outbox.OutboxWriter;
+import com.example.sse.repository.CallSessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Persists call_session transitions for OFFER / ANSWER / HANGUP-like signals.
+ * Only these signals open a transaction; relay-only signals never reach this class.
+ *
+ * Busy checks and session lookups go to the in-memory {@link CallRegistry}; the
+ * database only sees one INSERT per call and one UPDATE per transition. Every
+ * transition also appends an outbox_event in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class CallSessionRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(CallSessionRecorder.class);
+
+    private final CallSessionRepository callSessionRepository;
+    private final CallRegistry callRegistry;
+    private final UserDirectory userDirectory;
+    private final OutboxWriter outboxWriter;
+
+    /**
+     * @return false if the target is busy and the OFFER must not be relayed
+     */
+    @Transactional
+    public boolean recordOffer(String senderEmail, String targetEmail) {
+        Long senderId = resolve(senderEmail, "Sender not found");
+        Long targetId = resolve(targetEmail, "Target not found");
+        String sessionId = UUID.randomUUID().toString();
+
+        // Re-dialing while the caller's own previous call is still live replaces that call;
+        // being in someone else's call makes the caller busy (checked by tryStart)
+        callRegistry.findByUser(senderId)
+                .filter(previous -> previous.getCallerId().equals(senderId))
+                .ifPresent(previous -> end(previous,
+                        previous.getStatus() == CallStatus.TRYING ? CallStatus.CANCELLED : CallStatus.ENDED));
+
+        // Start as TRYING; created first so the registry knows the row's created_at
+        CallSession session = new CallSession(
+                sessionId,
+                senderId,
+                targetId,
+                CallStatus.TRYING);
+
+        // BUSY Check (atomically reserves callee and caller when both are free)
+        if (callRegistry.tryStart(sessionId, senderId, targetId, session.getCreatedAt()).isEmpty()) {
+            session.end(CallStatus.BUSY); // Immediately end as BUSY
+            callSessionRepository.save(session);
+            outboxWriter.callSessionChanged(session);
+            log.debug("CDC: Created Session (BUSY) {}", session.getSessionId());
+
+            // Optional: Send BUSY signal back to sender?
+            // For now, we just record it as requested.
+
+            return false; // Stop processing OFFER
+        }
+
+        callSessionRepository.save(session);
+        outboxWriter.callSessionChanged(session);
+        log.debug("CDC: Created Session (TRYING) {}", session.getSessionId());
+        return true;
+    }
+
+    @Transactional
+    public void recordAnswer(String senderEmail, String targetEmail) {
+        Long senderId = resolve(senderEmail, "Sender not found");
+        Long targetId = resolve(targetEmail, "Target not found");
+
+        // Signal "answer" is sent FROM senderEmail TO targetEmail.
+        // So senderEmail is the Callee answering, targetEmail is the Caller.
+        callRegistry.find(targetId, senderId).ifPresent(call -> {
+            if (call.getStatus() == CallStatus.TRYING && callRegistry.transition(call, CallStatus.CONNECTED)) {
+                LocalDateTime now = LocalDateTime.now();
+                callSessionRepository.markConnected(call.getSessionId(), call.getCreatedAt(), now);
+                outboxWriter.callSessionChanged(call.getSessionId(), call.getCallerId(), call.getCalleeId(),
+                        CallStatus.CONNECTED, now);
+                log.debug("CDC: Updated Session (CONNECTED) {}", call.getSessionId());
+            }
+        });
+    }
+
+    // Handle explicit hangup/bye/reject/busy
+    @Transactional
+    public void recordHangup(String senderEmail, String targetEmail, SignalType type) {
+        Long senderId = resolve(senderEmail, "Sender not found");
+        Long targetId = resolve(targetEmail, "Target not found");
+
+        // Case 1: Caller hangs up (senderId is Caller)
+        callRegistry.find(senderId, targetId).ifPresent(call -> {
+            // Caller hung up while TRYING -> CANCELLED, CONNECTED -> ENDED
+            end(call, call.getStatus() == CallStatus.TRYING ? CallStatus.CANCELLED : CallStatus.ENDED);
+        });
+        // Case 2: Callee hangs up (senderId is Callee, targetId is Caller)
+        callRegistry.find(targetId, senderId).ifPresent(call -> {
+            if (call.getStatus() == CallStatus.TRYING) {
+                // Callee responding to TRYING: BUSY, otherwise REJECTED for hangup/reject
+                end(call, type == SignalType.BUSY ? CallStatus.BUSY : CallStatus.REJECTED);
+            } else {
+                // CONNECTED -> ENDED
+                end(call, CallStatus.ENDED);
+            }
+        });
+    }
+
+    // End any active session for this user (logout)
+    @Transactional
+    public void endActiveSessions(String userEmail) {
+        UserDirectory.Entry user = userDirectory.findByEmail(userEmail).orElse(null);
+        if (user == null)
+            return;
+
+        callRegistry.findAllByUser(user.getId()).forEach(call -> end(call, CallStatus.ENDED));
+    }
+
+    private void end(CallRegistry.LiveCall call, CallStatus endStatus) {
+        if (callRegistry.transition(call, endStatus)) {
+            LocalDateTime now = LocalDateTime.now();
+            callSessionRepository.markEnded(call.getSessionId(), call.getCreatedAt(), endStatus, now);
+            outboxWriter.callSessionChanged(call.getSessionId(), call.getCallerId(), call.getCalleeId(),
+                    endStatus, now);
+        }
+    }
+
+    private Long resolve(String email, String notFoundMessage) {
+        return userDirectory.findByEmail(email)
+                .map(UserDirectory.Entry::getId)
+                .orElseThrow(() -> new IllegalArgumentException(notFoundMessage));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.sse.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position in a conversation: the (created_at, id) of the oldest message a
+ * client has seen. Encoded as URL-safe base64 so clients treat it as a token.
+ */
+final class ChatCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    ChatCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChatCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ChatCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
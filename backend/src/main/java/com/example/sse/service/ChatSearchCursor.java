@@ -0,0 +1,48 @@
+package com.example.sse.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a ranked search: the (rank, id) of the last hit a client has seen.
+ * The rank is Postgres {@code real}, so the float round-trips exactly through its
+ * decimal form.
+ */
+final class ChatSearchCursor {
+
+    private final float rank;
+    private final Long id;
+
+    ChatSearchCursor(float rank, Long id) {
+        this.rank = rank;
+        this.id = id;
+    }
+
+    float getRank() {
+        return rank;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = rank + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ChatSearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ChatSearchCursor(Float.parseFloat(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
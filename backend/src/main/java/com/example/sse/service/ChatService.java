@@ -1,33 +1,47 @@
 package com.example.sse.service;
 
 import com.example.sse.domain.ChatMessage;
-import com.example.sse.domain.User;
+import com.example.sse.dto.ChatHistoryPageDto;
+import com.example.sse.dto.ChatInboxDto;
+import com.example.sse.dto.ChatInboxMessageDto;
 import com.example.sse.dto.ChatMessageDto;
+import com.example.sse.dto.ChatSearchHitDto;
+import com.example.sse.dto.ChatSearchPageDto;
+import com.example.sse.dto.ChatWriterStatsDto;
 import com.example.sse.dto.ConversationPartnerDto;
+import com.example.sse.outbox.OutboxWriter;
+import com.example.sse.repository.ChatInboxCursorRepository;
 import com.example.sse.repository.ChatMessageRepository;
-import com.example.sse.repository.UserRepository;
+import com.example.sse.repository.ConversationSummaryRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 public class ChatService {
 
     private final ChatMessageRepository chatMessageRepository;
-    private final UserRepository userRepository;
+    private final UserDirectory userDirectory;
+    private final BatchWriter batchWriter;
+    private final OutboxWriter outboxWriter;
+    private final ConversationSummaryRecorder conversationSummaryRecorder;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final GroupCommitChatWriter groupCommitChatWriter;
+    private final ChatInboxCursorRepository chatInboxCursorRepository;
+    private final InboxSequencer inboxSequencer;
 
     @Transactional
     public ChatMessage saveMessage(String senderEmail, String receiverEmail, String message) {
-        User sender = userRepository.findByEmail(senderEmail)
+        UserDirectory.Entry sender = userDirectory.findByEmail(senderEmail)
                 .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
-        User receiver = userRepository.findByEmail(receiverEmail)
+        UserDirectory.Entry receiver = userDirectory.findByEmail(receiverEmail)
                 .orElseThrow(() -> new IllegalArgumentException("Receiver not found"));
 
         ChatMessage chatMessage = new ChatMessage(
@@ -35,62 +49,166 @@ public class ChatService {
                 receiver.getId(),
                 message
         );
-        return chatMessageRepository.save(chatMessage);
+        inboxSequencer.assign(List.of(chatMessage));
+        ChatMessage saved = chatMessageRepository.save(chatMessage);
+        outboxWriter.chatMessageCreated(saved);
+        conversationSummaryRecorder.record(saved);
+        return saved;
     }
 
-    private static final int MAX_MESSAGES = 100;
+    /**
+     * Persists a chat signal according to {@code app.chat.durability}: committed before
+     * returning ({@code sync}) or queued for the next group commit ({@code group-commit}).
+     * Unknown users still fail fast here, on the caller's thread.
+     *
+     * @return completes with the committed message (and its inbox_seq), or exceptionally
+     *         if the message could not be committed
+     */
+    public CompletableFuture<ChatMessage> submitMessage(String senderEmail, String receiverEmail, String message) {
+        UserDirectory.Entry sender = userDirectory.findByEmail(senderEmail)
+                .orElseThrow(() -> new IllegalArgumentException("Sender not found"));
+        UserDirectory.Entry receiver = userDirectory.findByEmail(receiverEmail)
+                .orElseThrow(() -> new IllegalArgumentException("Receiver not found"));
 
-    @Transactional(readOnly = true)
-    public List<ChatMessageDto> getConversation(String userEmail, String partnerEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        return groupCommitChatWriter.submit(new ChatMessage(sender.getId(), receiver.getId(), message));
+    }
+
+    public ChatWriterStatsDto getWriterStats() {
+        return groupCommitChatWriter.getStats();
+    }
+
+    // Inserts already-resolved messages as JDBC batches in a single transaction
+    public void saveMessages(Collection<ChatMessage> messages) {
+        if (!messages.isEmpty()) {
+            batchWriter.insertChatMessages(messages);
+        }
+    }
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * One page of a conversation, newest page first. Pass the returned nextCursor as
+     * {@code before} to load the page before it; every page is an index range scan.
+     *
+     * Reading the latest page clears the reader's unread count for the conversation.
+     * Cost per call: one SELECT with senders joined in, plus that UPDATE on the latest page.
+     *
+     * @param before cursor from a previous page, or null for the latest messages
+     */
+    @Transactional
+    public ChatHistoryPageDto getConversation(String userEmail, String partnerEmail, String before, Integer limit) {
+        UserDirectory.Entry user = userDirectory.findByEmail(userEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        User partner = userRepository.findByEmail(partnerEmail)
+        UserDirectory.Entry partner = userDirectory.findByEmail(partnerEmail)
                 .orElseThrow(() -> new IllegalArgumentException("Partner not found"));
 
-        // 최신순으로 100건 조회 후 오래된 순으로 정렬
-        List<ChatMessageDto> messages = chatMessageRepository
-                .findRecentConversation(user.getId(), partner.getId(), PageRequest.of(0, MAX_MESSAGES))
-                .stream()
-                .map(m -> {
-                    User sender = userRepository.findById(m.getSenderId()).orElse(null);
-                    String senderEmail = sender != null ? sender.getEmail() : "unknown";
-                    return new ChatMessageDto(senderEmail, m.getMessage(), m.getCreatedAt());
-                })
-                .collect(Collectors.toList());
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long low = Math.min(user.getId(), partner.getId());
+        long high = Math.max(user.getId(), partner.getId());
+
+        // One extra row tells us whether an older page exists
+        List<ChatMessageDto> rows;
+        if (before == null || before.isBlank()) {
+            rows = chatMessageRepository.findLatestInConversation(low, high, pageSize + 1);
+            conversationSummaryRepository.markRead(low, high, user.getId());
+        } else {
+            ChatCursor cursor = ChatCursor.decode(before);
+            rows = chatMessageRepository.findInConversationBefore(low, high,
+                    cursor.getCreatedAt(), cursor.getId(), pageSize + 1);
+        }
 
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatMessageDto> messages = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        String nextCursor = null;
+        if (hasMore) {
+            ChatMessageDto oldest = messages.get(messages.size() - 1);
+            nextCursor = new ChatCursor(oldest.getTime(), oldest.getId()).encode();
+        }
+
+        // 최신순으로 조회 후 오래된 순으로 정렬
         Collections.reverse(messages);
-        return messages;
+        return new ChatHistoryPageDto(messages, nextCursor);
+    }
+
+    /**
+     * Ranked full-text search across the user's conversations, best match first. Words
+     * are matched whole (Postgres 'simple' config); quotes, OR and -word work as in
+     * web search. Pass the returned nextCursor as {@code after} for the next page.
+     */
+    @Transactional(readOnly = true)
+    public ChatSearchPageDto search(String userEmail, String query, String after, Integer limit) {
+        UserDirectory.Entry user = userDirectory.findByEmail(userEmail)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query is required");
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ChatSearchHitDto> rows;
+        if (after == null || after.isBlank()) {
+            rows = chatMessageRepository.search(user.getId(), query, pageSize + 1);
+        } else {
+            ChatSearchCursor cursor = ChatSearchCursor.decode(after);
+            rows = chatMessageRepository.searchAfter(user.getId(), query,
+                    cursor.getRank(), cursor.getId(), pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatSearchHitDto> hits = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ChatSearchHitDto last = hits.get(hits.size() - 1);
+            nextCursor = new ChatSearchCursor(last.getRank(), last.getId()).encode();
+        }
+        return new ChatSearchPageDto(hits, nextCursor);
+    }
+
+    /**
+     * Messages received after inbox_seq {@code after}, or after the user's acknowledged
+     * inbox cursor when {@code after} is null. One range scan on (receiver_id, inbox_seq);
+     * the cursor itself only moves through {@link #ackInbox}.
+     */
+    @Transactional(readOnly = true)
+    public ChatInboxDto getInbox(String userEmail, Long after, Integer limit) {
+        UserDirectory.Entry user = userDirectory.findByEmail(userEmail)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Users without a cursor row registered after V10, so their whole inbox is new
+        long afterSeq = after != null ? after
+                : chatInboxCursorRepository.findLastAckedSeq(user.getId()).orElse(0L);
+
+        List<ChatInboxMessageDto> rows = chatMessageRepository.findInboxAfter(user.getId(), afterSeq, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ChatInboxMessageDto> messages = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        Long lastSeq = messages.isEmpty() ? null : messages.get(messages.size() - 1).getSeq();
+        return new ChatInboxDto(messages, lastSeq, hasMore);
+    }
+
+    /**
+     * Moves the inbox cursor forward to {@code lastSeq}: the inbox frame's lastSeq, or the
+     * seq of the latest chat_committed frame. Without one everything received so far
+     * is acknowledged.
+     */
+    @Transactional
+    public void ackInbox(String userEmail, Long lastSeq) {
+        UserDirectory.Entry user = userDirectory.findByEmail(userEmail)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        Long ackedSeq = lastSeq != null ? lastSeq
+                : chatMessageRepository.findLatestReceivedSeq(user.getId()).orElse(null);
+        if (ackedSeq != null) {
+            chatInboxCursorRepository.advance(user.getId(), ackedSeq);
+        }
     }
 
+    // Single indexed read of conversation_summary with the partner joined in
     @Transactional(readOnly = true)
     public List<ConversationPartnerDto> getConversationPartners(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        UserDirectory.Entry user = userDirectory.findByEmail(userEmail)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        List<Long> partnerIds = chatMessageRepository.findConversationPartnerIds(user.getId());
-
-        return partnerIds.stream()
-                .map(partnerId -> {
-                    User partner = userRepository.findById(partnerId).orElse(null);
-                    if (partner == null) {
-                        return null;
-                    }
-
-                    // 최근 1건만 조회
-                    List<ChatMessage> recentMessages = chatMessageRepository
-                            .findRecentConversation(user.getId(), partnerId, PageRequest.of(0, 1));
-                    ChatMessage lastMessage = recentMessages.isEmpty() ? null : recentMessages.get(0);
-
-                    return new ConversationPartnerDto(
-                            partner.getEmail(),
-                            partner.getUsername(),
-                            lastMessage != null ? lastMessage.getMessage() : "",
-                            lastMessage != null ? lastMessage.getCreatedAt() : null
-                    );
-                })
-                .filter(dto -> dto != null)
-                .sorted(Comparator.comparing(ConversationPartnerDto::getLastMessageTime,
-                        Comparator.nullsLast(Comparator.reverseOrder())))
-                .collect(Collectors.toList());
+        return conversationSummaryRepository.findPartners(user.getId());
     }
 }
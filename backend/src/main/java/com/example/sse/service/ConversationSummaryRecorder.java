@@ -0,0 +1,75 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.ChatMessage;
+import com.example.sse.repository.ConversationSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps conversation_summary in step with chat_message. Runs in the transaction that
+ * inserts the messages, so the partner list never shows a message that was rolled back.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationSummaryRecorder {
+
+    // Lock summary rows in key order so concurrent batches cannot deadlock
+    private static final Comparator<long[]> PAIR_ORDER =
+            Comparator.<long[]>comparingLong(pair -> pair[0]).thenComparingLong(pair -> pair[1]);
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChatMessage message) {
+        recordAll(List.of(message));
+    }
+
+    // One upsert per conversation, however many of its messages are in the batch
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<ChatMessage> messages) {
+        Map<long[], PairUpdate> updates = new TreeMap<>(PAIR_ORDER);
+        for (ChatMessage message : messages) {
+            if (message.getSenderId().equals(message.getReceiverId())) {
+                continue;
+            }
+            long low = Math.min(message.getSenderId(), message.getReceiverId());
+            long high = Math.max(message.getSenderId(), message.getReceiverId());
+            updates.computeIfAbsent(new long[]{low, high}, key -> new PairUpdate()).add(message, low);
+        }
+        updates.forEach((pair, update) -> conversationSummaryRepository.recordMessages(
+                pair[0], pair[1],
+                update.last.getId(), update.last.getSenderId(), update.last.getMessage(), update.last.getCreatedAt(),
+                update.unreadLow, update.unreadHigh));
+    }
+
+    private static class PairUpdate {
+        private ChatMessage last;
+        private int unreadLow;
+        private int unreadHigh;
+
+        private void add(ChatMessage message, long low) {
+            // The receiver has one more unread message
+            if (message.getReceiverId() == low) {
+                unreadLow++;
+            } else {
+                unreadHigh++;
+            }
+            if (last == null || isNewer(message, last)) {
+                last = message;
+            }
+        }
+
+        private static boolean isNewer(ChatMessage a, ChatMessage b) {
+            int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+            return byTime > 0 || (byTime == 0 && a.getId() > b.getId());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.sse.service;
+
+import com.example.sse.config.ExecutionThreads;
+import com.example.sse.domain.ChatMessage;
+import com.example.sse.dto.ChatWriterStatsDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists chat messages off the signaling path.
+ *
+ * In {@code group-commit} mode messages go into a bounded ring and a single writer
+ * thread commits them in groups: a group closes when it reaches {@code max-batch}
+ * messages or {@code window-ms} after its first message, whichever comes first. One
+ * commit (and one JDBC batch) then covers many chat signals. When the ring is full the
+ * caller writes its own message synchronously, so overload degrades to sync mode
+ * instead of dropping messages.
+ *
+ * A failed group is retried with fresh copies of its messages, then committed one
+ * message at a time so a single bad row cannot drop the rest of the group.
+ *
+ * {@link #submit} returns a future that completes with the committed message, whose
+ * inbox_seq the receiver acknowledges (chat_committed). The live CHAT frame does not
+ * wait for it, so messages still queued when the process dies may have been shown but
+ * are not in the history or inbox: the durability window is one group. After
+ * {@link #stop} every future still completes: later submissions commit synchronously
+ * and anything the writer did not drain in time fails.
+ */
+@Service
+public class GroupCommitChatWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitChatWriter.class);
+
+    // Whole-group attempts before falling back to one transaction per message
+    private static final int MAX_GROUP_ATTEMPTS = 2;
+
+    private final BatchWriter batchWriter;
+    private final ExecutionThreads executionThreads;
+    private final boolean groupCommit;
+    private final int maxBatch;
+    private final long windowMs;
+    private final BlockingQueue<Pending> ring;
+
+    private volatile boolean running = true;
+    private Thread writer;
+
+    // Stats
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong messagesCommitted = new AtomicLong();
+    private final AtomicLong commitMicrosTotal = new AtomicLong();
+    private final AtomicLong syncFallbacks = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private volatile int lastFlushSize;
+    private volatile int maxFlushSize;
+    private volatile long lastCommitMicros;
+    private volatile long maxCommitMicros;
+    private final DistributionSummary flushSize;
+    private final Timer commitTime;
+
+    public GroupCommitChatWriter(BatchWriter batchWriter,
+                                 ExecutionThreads executionThreads,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.chat.durability:group-commit}") String durability,
+                                 @Value("${app.chat.group-commit.capacity:10000}") int capacity,
+                                 @Value("${app.chat.group-commit.max-batch:500}") int maxBatch,
+                                 @Value("${app.chat.group-commit.window-ms:10}") long windowMs) {
+        this.batchWriter = batchWriter;
+        this.executionThreads = executionThreads;
+        this.groupCommit = !"sync".equalsIgnoreCase(durability);
+        this.maxBatch = maxBatch;
+        this.windowMs = windowMs;
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.flushSize = DistributionSummary.builder("chat.writer.flush.size")
+                .description("Chat messages written by one commit")
+                .register(meterRegistry);
+        this.commitTime = Timer.builder("chat.writer.commit")
+                .description("One chat commit (JDBC batch insert and transaction)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("chat.writer.queued", ring, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (groupCommit) {
+            writer = executionThreads.factory("chat-group-commit-").newThread(this::run);
+            writer.start();
+        }
+    }
+
+    /**
+     * Hands a resolved message to the writer. In {@code sync} mode (or when the ring is
+     * full) the message is committed before this returns.
+     *
+     * @return completes with the committed instance, or exceptionally if it was dropped
+     */
+    public CompletableFuture<ChatMessage> submit(ChatMessage message) {
+        if (!groupCommit || !running) {
+            return commitNow(message);
+        }
+        Pending pending = new Pending(message, new CompletableFuture<>());
+        if (!ring.offer(pending)) {
+            syncFallbacks.incrementAndGet();
+            return commitNow(message);
+        }
+        // Raced with stop(): take it back unless the writer or stop() already has it
+        if (!running && ring.remove(pending)) {
+            return commitNow(message);
+        }
+        return pending.committed();
+    }
+
+    // On the caller's thread; a failure is the caller's to report, as for any sync write
+    private CompletableFuture<ChatMessage> commitNow(ChatMessage message) {
+        try {
+            commit(List.of(message));
+            return CompletableFuture.completedFuture(message);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatch);
+        while (running || !ring.isEmpty()) {
+            try {
+                Pending first = ring.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                // Keep the group open for the window unless it fills up first
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (group.size() < maxBatch) {
+                    ring.drainTo(group, maxBatch - group.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (group.size() >= maxBatch || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Pending next = ring.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commitWithRetry(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commitWithRetry(List<Pending> group) {
+        List<ChatMessage> attemptGroup = group.stream().map(Pending::message).toList();
+        for (int attempt = 1; attempt <= MAX_GROUP_ATTEMPTS; attempt++) {
+            try {
+                commit(attemptGroup);
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).committed().complete(attemptGroup.get(i));
+                }
+                return;
+            } catch (Exception e) {
+                log.warn("Chat group commit of {} messages failed (attempt {}): {}",
+                        group.size(), attempt, e.getMessage());
+                attemptGroup = group.stream().map(pending -> pending.message().unsavedCopy()).toList();
+            }
+        }
+        // Isolate the bad rows: everything else still gets committed
+        int failed = 0;
+        for (Pending pending : group) {
+            ChatMessage message = pending.message().unsavedCopy();
+            try {
+                commit(List.of(message));
+                pending.committed().complete(message);
+            } catch (Exception e) {
+                failed++;
+                pending.committed().completeExceptionally(e);
+                log.error("Dropping chat message {} -> {} after failed commits", message.getSenderId(),
+                        message.getReceiverId(), e);
+            }
+        }
+        if (failed > 0) {
+            failedMessages.addAndGet(failed);
+        }
+    }
+
+    private void commit(List<ChatMessage> group) {
+        long start = System.nanoTime();
+        batchWriter.insertChatMessages(group);
+        long nanos = System.nanoTime() - start;
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        flushSize.record(group.size());
+        commitTime.record(nanos, TimeUnit.NANOSECONDS);
+
+        commits.incrementAndGet();
+        messagesCommitted.addAndGet(group.size());
+        commitMicrosTotal.addAndGet(micros);
+        lastFlushSize = group.size();
+        lastCommitMicros = micros;
+        if (group.size() > maxFlushSize) {
+            maxFlushSize = group.size();
+        }
+        if (micros > maxCommitMicros) {
+            maxCommitMicros = micros;
+        }
+    }
+
+    public ChatWriterStatsDto getStats() {
+        long commitCount = commits.get();
+        return new ChatWriterStatsDto(
+                groupCommit ? "group-commit" : "sync",
+                ring.size(),
+                commitCount,
+                messagesCommitted.get(),
+                lastFlushSize,
+                maxFlushSize,
+                commitCount == 0 ? 0 : (double) messagesCommitted.get() / commitCount,
+                lastCommitMicros,
+                maxCommitMicros,
+                commitCount == 0 ? 0 : commitMicrosTotal.get() / commitCount,
+                syncFallbacks.get(),
+                failedMessages.get());
+    }
+
+    @PreDestroy
+    public void stop() {
+        // No interrupt: the writer sees the flag within one poll and drains the ring
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the writer did not reach; fail it so no caller waits forever
+        List<Pending> stranded = new ArrayList<>();
+        ring.drainTo(stranded);
+        if (!stranded.isEmpty()) {
+            log.warn("{} chat messages were not committed before shutdown", stranded.size());
+            IllegalStateException shutdown = new IllegalStateException("Chat writer stopped before commit");
+            stranded.forEach(pending -> pending.committed().completeExceptionally(shutdown));
+            failedMessages.addAndGet(stranded.size());
+        }
+    }
+
+    private record Pending(ChatMessage message, CompletableFuture<ChatMessage> committed) {
+    }
+}
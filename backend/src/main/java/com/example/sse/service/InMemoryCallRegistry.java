@@ -0,0 +1,152 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.CallSession;
+import com.example.sse.domain.CallStatus;
+import com.example.sse.repository.CallSessionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry for the loopback (single node) mode: live calls indexed by user id and by
+ * session id in memory. Busy checks and OFFER/ANSWER/HANGUP session lookups are O(1)
+ * map reads; the database only receives the resulting transitions.
+ *
+ * Inside a transaction, changes are undone if it rolls back so memory never runs ahead
+ * of call_session. The registry is rebuilt from non-terminal rows at startup.
+ */
+@Service
+@ConditionalOnProperty(name = "app.routing.mode", havingValue = "loopback", matchIfMissing = true)
+public class InMemoryCallRegistry implements CallRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCallRegistry.class);
+
+    private final CallSessionRepository callSessionRepository;
+
+    private final Map<Long, LiveCall> byUser = new ConcurrentHashMap<>();
+    private final Map<String, LiveCall> bySession = new ConcurrentHashMap<>();
+
+    public InMemoryCallRegistry(CallSessionRepository callSessionRepository) {
+        this.callSessionRepository = callSessionRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        List<CallSession> live = callSessionRepository.findByStatusIn(
+                EnumSet.of(CallStatus.TRYING, CallStatus.CONNECTED));
+        for (CallSession session : live) {
+            LiveCall call = new LiveCall(session.getSessionId(), session.getCallerId(),
+                    session.getCalleeId(), session.getCreatedAt(), session.getStatus());
+            bySession.put(call.getSessionId(), call);
+            byUser.put(call.getCallerId(), call);
+            byUser.put(call.getCalleeId(), call);
+        }
+        log.info("Call registry rebuilt with {} live calls", live.size());
+    }
+
+    @Override
+    public boolean isBusy(Long userId) {
+        return byUser.containsKey(userId);
+    }
+
+    // Reserves the callee, then the caller; a failed caller reservation releases the callee
+    // again, so crossing A->B / B->A offers never leave a user mapped to two calls
+    @Override
+    public Optional<LiveCall> tryStart(String sessionId, Long callerId, Long calleeId, LocalDateTime createdAt) {
+        LiveCall call = new LiveCall(sessionId, callerId, calleeId, createdAt, CallStatus.TRYING);
+        if (byUser.putIfAbsent(calleeId, call) != null) {
+            return Optional.empty();
+        }
+        if (byUser.putIfAbsent(callerId, call) != null) {
+            byUser.remove(calleeId, call);
+            return Optional.empty();
+        }
+        bySession.put(sessionId, call);
+        afterRollback(() -> remove(call));
+        return Optional.of(call);
+    }
+
+    @Override
+    public Optional<LiveCall> find(Long callerId, Long calleeId) {
+        LiveCall call = byUser.get(calleeId);
+        if (call != null && call.getCallerId().equals(callerId) && call.getCalleeId().equals(calleeId)) {
+            return Optional.of(call);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<LiveCall> findBySession(String sessionId) {
+        return Optional.ofNullable(bySession.get(sessionId));
+    }
+
+    @Override
+    public Optional<LiveCall> findByUser(Long userId) {
+        return Optional.ofNullable(byUser.get(userId));
+    }
+
+    // More than one only for rows rebuilt from the database
+    @Override
+    public List<LiveCall> findAllByUser(Long userId) {
+        return bySession.values().stream()
+                .filter(call -> call.getCallerId().equals(userId) || call.getCalleeId().equals(userId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean transition(LiveCall call, CallStatus next) {
+        CallStatus previous = call.advance(next);
+        if (previous == null) {
+            return false;
+        }
+        if (next.isTerminal()) {
+            remove(call);
+        }
+        afterRollback(() -> restore(call, previous));
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return bySession.size();
+    }
+
+    private void remove(LiveCall call) {
+        bySession.remove(call.getSessionId(), call);
+        byUser.remove(call.getCallerId(), call);
+        byUser.remove(call.getCalleeId(), call);
+    }
+
+    private void restore(LiveCall call, CallStatus previous) {
+        call.reset(previous);
+        bySession.putIfAbsent(call.getSessionId(), call);
+        byUser.putIfAbsent(call.getCallerId(), call);
+        byUser.putIfAbsent(call.getCalleeId(), call);
+    }
+
+    private static void afterRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+}
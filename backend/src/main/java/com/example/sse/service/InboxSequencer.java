@@ -0,0 +1,66 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.ChatMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Numbers chat messages in each receiver's inbox. One upsert per group bumps every
+ * receiver's chat_inbox_sequence row by its message count; the row locks are held
+ * until the caller's transaction commits, so numbers become visible in commit order
+ * (see V17). Rows are locked in receiver id order so two groups cannot deadlock.
+ */
+@Component
+public class InboxSequencer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+
+    public InboxSequencer(JdbcTemplate jdbcTemplate,
+                          @Value("${spring.jpa.properties.hibernate.default_schema:conference_chat}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = schema + ".chat_inbox_sequence";
+    }
+
+    // Must run in the transaction that inserts the messages
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void assign(Collection<ChatMessage> messages) {
+        Map<Long, List<ChatMessage>> byReceiver = new TreeMap<>();
+        for (ChatMessage message : messages) {
+            byReceiver.computeIfAbsent(message.getReceiverId(), id -> new ArrayList<>()).add(message);
+        }
+        Long[] receivers = byReceiver.keySet().toArray(Long[]::new);
+        Long[] counts = byReceiver.values().stream().map(group -> (long) group.size()).toArray(Long[]::new);
+
+        Map<Long, Long> lastSeqs = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO " + table + " AS s (user_id, last_seq) " +
+                    "SELECT r.user_id, r.n FROM unnest(?, ?) WITH ORDINALITY AS r(user_id, n, ord) ORDER BY r.ord " +
+                    "ON CONFLICT (user_id) DO UPDATE SET last_seq = s.last_seq + EXCLUDED.last_seq " +
+                    "RETURNING user_id, last_seq");
+            ps.setArray(1, connection.createArrayOf("bigint", receivers));
+            ps.setArray(2, connection.createArrayOf("bigint", counts));
+            return ps;
+        }, (RowCallbackHandler) rs -> lastSeqs.put(rs.getLong("user_id"), rs.getLong("last_seq")));
+
+        byReceiver.forEach((receiverId, group) -> {
+            long seq = lastSeqs.get(receiverId) - group.size();
+            for (ChatMessage message : group) {
+                message.assignInboxSeq(++seq);
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.CallStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Registry shared by all nodes in the sse_live_call table: one row per party of each
+ * live call, keyed by user id, so the primary key is the busy check across nodes.
+ * Rows are written through the caller's transaction and roll back with call_session.
+ *
+ * Transitions are conditional on the status the caller saw, so when two nodes race
+ * (a HANGUP against an ANSWER) the row lock serializes them and the loser's UPDATE
+ * matches nothing.
+ */
+@Service
+@ConditionalOnProperty(name = "app.routing.mode", havingValue = "postgres")
+public class JdbcCallRegistry implements CallRegistry {
+
+    private static final RowMapper<LiveCall> LIVE_CALL = (rs, rowNum) -> new LiveCall(
+            rs.getString("session_id"), rs.getLong("caller_id"), rs.getLong("callee_id"),
+            rs.getObject("session_created_at", LocalDateTime.class), CallStatus.valueOf(rs.getString("status")));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+
+    public JdbcCallRegistry(JdbcTemplate jdbcTemplate,
+                            @Value("${spring.jpa.properties.hibernate.default_schema:conference_chat}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = schema + ".sse_live_call";
+    }
+
+    @Override
+    public boolean isBusy(Long userId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + " WHERE user_id = ?)", Boolean.class, userId));
+    }
+
+    // Reserves the lower user id first: crossing A->B / B->A offers then wait on the same
+    // row instead of deadlocking, and the second sees the first's reservation
+    @Override
+    public Optional<LiveCall> tryStart(String sessionId, Long callerId, Long calleeId, LocalDateTime createdAt) {
+        Long first = Math.min(callerId, calleeId);
+        Long second = Math.max(callerId, calleeId);
+        if (!reserve(first, sessionId, callerId, calleeId, createdAt)) {
+            return Optional.empty();
+        }
+        if (first.equals(second) || !reserve(second, sessionId, callerId, calleeId, createdAt)) {
+            jdbcTemplate.update("DELETE FROM " + table + " WHERE user_id = ? AND session_id = ?", first, sessionId);
+            return Optional.empty();
+        }
+        return Optional.of(new LiveCall(sessionId, callerId, calleeId, createdAt, CallStatus.TRYING));
+    }
+
+    private boolean reserve(Long userId, String sessionId, Long callerId, Long calleeId, LocalDateTime createdAt) {
+        return jdbcTemplate.update("INSERT INTO " + table +
+                        " (user_id, session_id, caller_id, callee_id, session_created_at, status) " +
+                        "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (user_id) DO NOTHING",
+                userId, sessionId, callerId, calleeId, createdAt, CallStatus.TRYING.name()) > 0;
+    }
+
+    @Override
+    public Optional<LiveCall> find(Long callerId, Long calleeId) {
+        return first(jdbcTemplate.query("SELECT * FROM " + table + " WHERE user_id = ? AND caller_id = ? AND callee_id = ?",
+                LIVE_CALL, calleeId, callerId, calleeId));
+    }
+
+    @Override
+    public Optional<LiveCall> findBySession(String sessionId) {
+        return first(jdbcTemplate.query("SELECT * FROM " + table + " WHERE session_id = ? LIMIT 1",
+                LIVE_CALL, sessionId));
+    }
+
+    @Override
+    public Optional<LiveCall> findByUser(Long userId) {
+        return first(findAllByUser(userId));
+    }
+
+    @Override
+    public List<LiveCall> findAllByUser(Long userId) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE user_id = ?", LIVE_CALL, userId);
+    }
+
+    @Override
+    public boolean transition(LiveCall call, CallStatus next) {
+        CallStatus previous = call.advance(next);
+        if (previous == null) {
+            return false;
+        }
+        int updated = next.isTerminal()
+                ? jdbcTemplate.update("DELETE FROM " + table + " WHERE session_id = ? AND status = ?",
+                        call.getSessionId(), previous.name())
+                : jdbcTemplate.update("UPDATE " + table + " SET status = ? WHERE session_id = ? AND status = ?",
+                        next.name(), call.getSessionId(), previous.name());
+        if (updated == 0) {
+            // Another node moved the call first
+            call.reset(previous);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        Integer sessions = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT session_id) FROM " + table, Integer.class);
+        return sessions == null ? 0 : sessions;
+    }
+
+    private static Optional<LiveCall> first(List<LiveCall> calls) {
+        return calls.stream().findFirst();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.sse.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the monthly partitions of chat_message and call_session (V12) ahead of the
+ * calendar and applies retention.
+ *
+ * Each run creates any missing partition from the current month to
+ * {@code months-ahead} months out. Partitions that ended before the retention window
+ * are detached, so their rows leave the table without a DELETE or vacuum debt. With
+ * {@code retention-action: drop} they are dropped as well; with {@code detach} they
+ * stay behind as plain tables for archiving. A retention of 0 months keeps everything.
+ */
+@Service
+public class PartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schema;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final boolean dropDetached;
+    // Parent table -> retention in months (0 = keep forever)
+    private final Map<String, Integer> retentionMonths = new LinkedHashMap<>();
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate,
+                                       @Value("${spring.jpa.properties.hibernate.default_schema:conference_chat}") String schema,
+                                       @Value("${app.partitions.enabled:true}") boolean enabled,
+                                       @Value("${app.partitions.months-ahead:3}") int monthsAhead,
+                                       @Value("${app.partitions.retention-action:detach}") String retentionAction,
+                                       @Value("${app.partitions.chat-message-retention-months:0}") int chatMessageRetention,
+                                       @Value("${app.partitions.call-session-retention-months:0}") int callSessionRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schema = schema;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.dropDetached = "drop".equalsIgnoreCase(retentionAction);
+        retentionMonths.put("chat_message", chatMessageRetention);
+        retentionMonths.put("call_session", callSessionRetention);
+    }
+
+    // Fixed delay without an initial delay, so the first run happens at startup
+    @Scheduled(fixedDelayString = "${app.partitions.check-interval-ms:21600000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        retentionMonths.forEach((table, retention) -> {
+            try {
+                createAhead(table, current);
+                if (retention > 0) {
+                    applyRetention(table, current.minusMonths(retention));
+                }
+            } catch (Exception e) {
+                log.error("Partition maintenance failed for {}", table, e);
+            }
+        });
+    }
+
+    private void createAhead(String table, YearMonth current) {
+        Integer created = jdbcTemplate.queryForObject(
+                "SELECT " + schema + ".ensure_monthly_partitions(?, ?, ?, ?)", Integer.class,
+                schema, table, current.atDay(1), current.plusMonths(monthsAhead).atDay(1));
+        if (created != null && created > 0) {
+            log.info("Created {} monthly partitions for {}", created, table);
+        }
+    }
+
+    // Removes every <table>_pYYYYMM partition for a month before oldestKept
+    private void applyRetention(String table, YearMonth oldestKept) {
+        for (String partition : listMonthlyPartitions(table)) {
+            YearMonth month;
+            try {
+                month = YearMonth.parse(partition.substring(table.length() + 2), SUFFIX);
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+            // Brief ACCESS EXCLUSIVE lock on the parent; no rows are read or rewritten
+            jdbcTemplate.execute("ALTER TABLE " + schema + "." + table + " DETACH PARTITION " + schema + "." + partition);
+            if (dropDetached) {
+                jdbcTemplate.execute("DROP TABLE " + schema + "." + partition);
+                log.info("Dropped partition {} (retention before {})", partition, oldestKept);
+            } else {
+                log.info("Detached partition {} (retention before {}); archive and drop it when done",
+                        partition, oldestKept);
+            }
+        }
+    }
+
+    private List<String> listMonthlyPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+                "WHERE n.nspname = ? AND p.relname = ? AND c.relname LIKE ? " +
+                "ORDER BY c.relname",
+                String.class, schema, table, table + "\\_p______");
+    }
+}
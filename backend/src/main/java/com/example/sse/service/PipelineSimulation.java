@@ -0,0 +1,319 @@
+package com.example.sse.service;
+
+import com.example.sse.SignalType;
+import com.example.sse.SseService;
+import com.example.sse.domain.CallStatus;
+import com.example.sse.domain.User;
+import com.example.sse.dto.SimulatorConfigRequest;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One pipeline-mode simulator run. Every virtual user is attached to SseService with an
+ * in-process emitter, and calls are played out as real signals through
+ * {@link SseService#sendSignal}: OFFER plus a caller-side ICE candidate burst, then the
+ * callee's ANSWER / REJECT / BUSY when the OFFER reaches its emitter, CHAT during the
+ * call and HANGUP at the end. Busy checks, call_session transitions, chat persistence
+ * and emitter lookup all run exactly as for browser clients.
+ *
+ * Latency is measured from sendSignal entry to the frame being written to the target's
+ * emitter, the same span as sse.signal.latency but kept per run.
+ */
+class PipelineSimulation {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineSimulation.class);
+
+    // A call whose OFFER never reaches the callee is hung up after this long
+    private static final long STALLED_CALL_MS = 30_000;
+    // How long the callee "rings" before a CANCELLED call is hung up by the caller
+    private static final long RING_MS = 1_000;
+
+    // Stand-ins sized like real browser payloads
+    private static final String SDP = "v=0\r\no=- 0 0 IN IP4 127.0.0.1\r\ns=-\r\n" + "a=x".repeat(600);
+    private static final String CANDIDATE =
+            "{\"candidate\":\"candidate:1 1 udp 2122260223 10.0.0.1 50000 typ host generation 0\","
+                    + "\"sdpMid\":\"0\",\"sdpMLineIndex\":0}";
+
+    private final SseService sseService;
+    private final CallRegistry callRegistry;
+    private final SimulatorConfigRequest config;
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final Map<CallStatus, AtomicInteger> callsByStatus;
+    private final AtomicInteger totalMessages;
+    private final List<String> chatMessages;
+
+    private final List<User> users;
+    // Live call per participant email; both sides map to the same Call
+    private final Map<String, Call> calls = new ConcurrentHashMap<>();
+
+    private final Recorder latency = new Recorder(3);
+    private final Histogram totalLatency = new Histogram(3);
+    private final AtomicLong signalsSent = new AtomicLong();
+    private final AtomicLong signalsDelivered = new AtomicLong();
+    private final AtomicLong signalsFailed = new AtomicLong();
+    private final long startedAtNanos = System.nanoTime();
+
+    private volatile boolean running = true;
+
+    PipelineSimulation(SseService sseService, CallRegistry callRegistry, SimulatorConfigRequest config,
+                       List<User> users, ScheduledExecutorService scheduler, Executor workers,
+                       Map<CallStatus, AtomicInteger> callsByStatus, AtomicInteger totalMessages,
+                       List<String> chatMessages) {
+        this.sseService = sseService;
+        this.callRegistry = callRegistry;
+        this.config = config;
+        this.users = users;
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.callsByStatus = callsByStatus;
+        this.totalMessages = totalMessages;
+        this.chatMessages = chatMessages;
+    }
+
+    void connectAll() {
+        for (User user : users) {
+            sseService.subscribe(user.getEmail(), new InProcessEmitter(user.getEmail()), null);
+        }
+        log.info("Pipeline simulation attached {} virtual users", users.size());
+    }
+
+    /**
+     * Places one call with a pre-drawn outcome.
+     *
+     * @return false if the caller was already in a call and nothing was sent
+     */
+    boolean placeCall(User caller, User callee, CallStatus outcome) {
+        if (!running || callRegistry.isBusy(caller.getId())) {
+            return false;
+        }
+        Call call = new Call(caller, callee, outcome);
+        // Generator threads race here; only one of them books the caller
+        if (calls.putIfAbsent(caller.getEmail(), call) != null) {
+            return false;
+        }
+        // The callee may already be in a call: the real busy check decides below
+        calls.putIfAbsent(callee.getEmail(), call);
+
+        // The callee may answer or reject before this returns, so the registry cannot
+        // tell a refused OFFER from a call that is already over; the send result can
+        if (!send(caller, callee, SignalType.OFFER, SDP)) {
+            // recordOffer found the callee busy, stored a BUSY session and suppressed the relay
+            finish(call, CallStatus.BUSY);
+            return true;
+        }
+        // Trickle ICE: candidates follow the OFFER without waiting for the ANSWER
+        sendCandidates(caller, callee);
+        later(() -> hangUpIfStalled(call), STALLED_CALL_MS);
+        return true;
+    }
+
+    // Runs on an SseWriterPool thread; reactions are handed off so the writer never blocks on JDBC
+    private void onDelivered(String receiverEmail, SseService.SsePayload payload) {
+        latency.recordValue(Math.max(0, (System.nanoTime() - payload.getReceivedAtNanos()) / 1000));
+        signalsDelivered.incrementAndGet();
+        SignalType type = SignalType.from(payload.type);
+        if (!running || (type != SignalType.OFFER && type != SignalType.ANSWER)) {
+            return;
+        }
+        Call call = calls.get(receiverEmail);
+        if (call == null || !call.involves(payload.sender)) {
+            return;
+        }
+        later(() -> {
+            if (type == SignalType.OFFER) {
+                answer(call);
+            } else {
+                connected(call);
+            }
+        }, 0);
+    }
+
+    // Callee side: the OFFER arrived
+    private void answer(Call call) {
+        switch (call.outcome) {
+            case CONNECTED -> {
+                send(call.callee, call.caller, SignalType.ANSWER, SDP);
+                sendCandidates(call.callee, call.caller);
+            }
+            case REJECTED -> {
+                send(call.callee, call.caller, SignalType.REJECT, "");
+                finish(call, CallStatus.REJECTED);
+            }
+            case BUSY -> {
+                send(call.callee, call.caller, SignalType.BUSY, "");
+                finish(call, CallStatus.BUSY);
+            }
+            default -> later(() -> {
+                send(call.caller, call.callee, SignalType.HANGUP, "");
+                finish(call, CallStatus.CANCELLED);
+            }, RING_MS);
+        }
+    }
+
+    // Caller side: the ANSWER arrived
+    private void connected(Call call) {
+        if (!call.connected.compareAndSet(false, true)) {
+            return;
+        }
+        callsByStatus.get(CallStatus.CONNECTED).incrementAndGet();
+        int minDuration = config.getMinCallDurationSeconds();
+        int duration = minDuration + ThreadLocalRandom.current().nextInt(Math.max(1, config.getMaxCallDurationSeconds() - minDuration + 1));
+
+        int messageCount = config.getChatMessagesPerCall();
+        long intervalMs = (duration * 1000L) / (messageCount + 1);
+        for (int i = 1; i <= messageCount; i++) {
+            User sender = (i % 2 == 0) ? call.caller : call.callee;
+            User receiver = sender == call.caller ? call.callee : call.caller;
+            later(() -> {
+                if (running && calls.get(sender.getEmail()) == call) {
+                    send(sender, receiver, SignalType.CHAT, chatMessages.get(ThreadLocalRandom.current().nextInt(chatMessages.size())));
+                    totalMessages.incrementAndGet();
+                }
+            }, intervalMs * i);
+        }
+        later(() -> {
+            if (running) {
+                send(call.caller, call.callee, SignalType.HANGUP, "");
+                finish(call, CallStatus.ENDED);
+            }
+        }, duration * 1000L);
+    }
+
+    // Off the calling thread: the scheduler hands the task to the JDBC-capable workers
+    private void later(Runnable task, long delayMs) {
+        try {
+            scheduler.schedule(() -> workers.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("Pipeline simulation step failed", e);
+                }
+            }), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Run is stopping; close() hangs up whatever is still live
+        }
+    }
+
+    private void hangUpIfStalled(Call call) {
+        if (running && !call.connected.get() && calls.get(call.caller.getEmail()) == call) {
+            log.debug("Pipeline call {} -> {} stalled, hanging up", call.caller.getEmail(), call.callee.getEmail());
+            send(call.caller, call.callee, SignalType.HANGUP, "");
+            finish(call, CallStatus.CANCELLED);
+        }
+    }
+
+    private void sendCandidates(User from, User to) {
+        for (int i = 0; i < config.getCandidatesPerCall(); i++) {
+            send(from, to, SignalType.CANDIDATE, CANDIDATE);
+        }
+    }
+
+    // Returns false only if SseService refused the signal (an OFFER to a busy callee)
+    private boolean send(User from, User to, SignalType type, String data) {
+        signalsSent.incrementAndGet();
+        try {
+            return sseService.sendSignal(from.getEmail(), to.getEmail(), type.name(), data, System.nanoTime());
+        } catch (Exception e) {
+            signalsFailed.incrementAndGet();
+            log.warn("Pipeline {} {} -> {} failed: {}", type, from.getEmail(), to.getEmail(), e.getMessage());
+            return true;
+        }
+    }
+
+    private void finish(Call call, CallStatus status) {
+        if (call.finished.compareAndSet(false, true)) {
+            callsByStatus.get(status).incrementAndGet();
+            calls.remove(call.caller.getEmail(), call);
+            calls.remove(call.callee.getEmail(), call);
+        }
+    }
+
+    /**
+     * Hangs up every live call through the pipeline and detaches the virtual users.
+     * Runs before the scheduler is shut down (see SimulatorService.doStop), so reactions
+     * already scheduled may still run afterwards; finish() counts each call only once.
+     */
+    void close() {
+        running = false;
+        calls.values().stream().distinct().forEach(call -> {
+            send(call.caller, call.callee, SignalType.HANGUP, "");
+            finish(call, call.connected.get() ? CallStatus.ENDED : CallStatus.CANCELLED);
+        });
+        for (User user : users) {
+            sseService.logout(user.getEmail());
+        }
+    }
+
+    synchronized SignalStats stats() {
+        totalLatency.add(latency.getIntervalHistogram());
+        double seconds = Math.max(1e-3, (System.nanoTime() - startedAtNanos) / 1e9);
+        boolean empty = totalLatency.getTotalCount() == 0;
+        return new SignalStats(
+                signalsSent.get(),
+                signalsDelivered.get(),
+                signalsFailed.get(),
+                signalsDelivered.get() / seconds,
+                empty ? null : totalLatency.getValueAtPercentile(50.0) / 1000.0,
+                empty ? null : totalLatency.getValueAtPercentile(99.0) / 1000.0,
+                empty ? null : totalLatency.getMaxValue() / 1000.0);
+    }
+
+    record SignalStats(long sent, long delivered, long failed, double deliveredPerSecond,
+                       Double p50Ms, Double p99Ms, Double maxMs) {
+    }
+
+    private static final class Call {
+        final User caller;
+        final User callee;
+        final CallStatus outcome;
+        final AtomicBoolean connected = new AtomicBoolean();
+        final AtomicBoolean finished = new AtomicBoolean();
+
+        Call(User caller, User callee, CallStatus outcome) {
+            this.caller = caller;
+            this.callee = callee;
+            this.outcome = outcome;
+        }
+
+        boolean involves(String email) {
+            return caller.getEmail().equals(email) || callee.getEmail().equals(email);
+        }
+    }
+
+    // Receives frames on the writer pool thread instead of rendering them to a socket
+    private final class InProcessEmitter extends SseEmitter {
+
+        private final String userId;
+
+        InProcessEmitter(String userId) {
+            super(0L);
+            this.userId = userId;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (ResponseBodyEmitter.DataWithMediaType item : builder.build()) {
+                if (item.getData() instanceof SseService.SsePayload payload) {
+                    onDelivered(userId, payload);
+                }
+            }
+        }
+    }
+}
@@ -1,44 +1,59 @@
 package com.example.sse.service;
 
+import com.example.sse.SseService;
+import com.example.sse.config.ExecutionThreads;
+import com.example.sse.domain.ArrivalCurve;
 import com.example.sse.domain.CallSession;
 import com.example.sse.domain.CallStatus;
 import com.example.sse.domain.ChatMessage;
 import com.example.sse.domain.SimulatorHistory;
+import com.example.sse.domain.SimulatorMode;
 import com.example.sse.domain.User;
 import com.example.sse.dto.SimulatorConfigRequest;
 import com.example.sse.dto.SimulatorStatusResponse;
-import com.example.sse.repository.CallSessionRepository;
-import com.example.sse.repository.ChatMessageRepository;
 import com.example.sse.repository.SimulatorHistoryRepository;
 import com.example.sse.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 public class SimulatorService {
 
     private static final Logger log = LoggerFactory.getLogger(SimulatorService.class);
 
-    private final CallSessionRepository callSessionRepository;
-    private final ChatMessageRepository chatMessageRepository;
     private final UserRepository userRepository;
     private final SimulatorHistoryRepository historyRepository;
+    private final BatchWriter batchWriter;
+    private final ExecutionThreads executionThreads;
+    private final SseService sseService;
+    private final CallRegistry callRegistry;
+    private final TransactionTemplate transactionTemplate;
 
     // Simulation state
     private volatile boolean running = false;
     private SimulatorConfigRequest currentConfig;
     private ScheduledExecutorService scheduler;
+    // Runs the blocking (JDBC) part of scheduled tasks; see ExecutionThreads
+    private Executor workers;
+    // Not a monitor: start/stop do JDBC and must not pin a virtual thread
+    private final ReentrantLock lifecycleLock = new ReentrantLock();
+    private List<User> users = new ArrayList<>();
     private List<Long> userIds = new ArrayList<>();
     private volatile Long currentHistoryId;
+    // Set for PIPELINE runs only (see PipelineSimulation)
+    private volatile PipelineSimulation pipeline;
+    // Calls the generate step on its own threads at the requested arrival curve
+    private volatile WorkloadGenerator generator;
 
     // Statistics
     private final AtomicInteger totalCalls = new AtomicInteger(0);
@@ -47,8 +62,30 @@ public class SimulatorService {
     private volatile LocalDateTime startedAt;
     private volatile LocalDateTime lastCallAt;
 
-    // Active call tracking (userId -> sessionId)
-    private final ConcurrentHashMap<Long, String> activeCallsByUser = new ConcurrentHashMap<>();
+    // Arrivals dropped because the drawn caller was already in a call
+    private final AtomicInteger skippedCalls = new AtomicInteger(0);
+
+    // Active call tracking (userId -> session); both participants map to the same session
+    private final ConcurrentHashMap<Long, CallSession> activeCallsByUser = new ConcurrentHashMap<>();
+
+    // Write-behind buffers flushed as JDBC batches (see flushPendingWrites)
+    private final ConcurrentLinkedQueue<ChatMessage> pendingMessages = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<CallSession> pendingSessions = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<BatchWriter.SessionEnd> pendingEnds = new ConcurrentLinkedQueue<>();
+    // Ends whose INSERT had not been flushed yet; retried once on the next flush
+    private List<BatchWriter.SessionEnd> unmatchedEnds = new ArrayList<>();
+    // One flush at a time, so a session's INSERT always commits before its END is applied
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final int MAX_FLUSH_ROWS = 1000;
+    // findByEmailIn chunk size; keeps the IN list well under the driver's bind limit
+    private static final int USER_LOAD_CHUNK = 1000;
+
+    // Upper bounds for validateConfig
+    private static final int MAX_DIRECT_USERS = 100_000;
+    private static final int MAX_PIPELINE_USERS = 1000;
+    private static final double MAX_DIRECT_CALLS_PER_SECOND = 20_000;
+    private static final double MAX_PIPELINE_CALLS_PER_SECOND = 1000;
 
     // Sample chat messages pool
     private static final List<String> CHAT_MESSAGES = Arrays.asList(
@@ -58,16 +95,20 @@ public class SimulatorService {
             "수고하셨습니다", "확인했습니다", "진행하겠습니다"
     );
 
-    private final Random random = new Random();
-
-    public SimulatorService(CallSessionRepository callSessionRepository,
-                           ChatMessageRepository chatMessageRepository,
-                           UserRepository userRepository,
-                           SimulatorHistoryRepository historyRepository) {
-        this.callSessionRepository = callSessionRepository;
-        this.chatMessageRepository = chatMessageRepository;
+    public SimulatorService(UserRepository userRepository,
+                           SimulatorHistoryRepository historyRepository,
+                           BatchWriter batchWriter,
+                           ExecutionThreads executionThreads,
+                           SseService sseService,
+                           CallRegistry callRegistry,
+                           TransactionTemplate transactionTemplate) {
         this.userRepository = userRepository;
         this.historyRepository = historyRepository;
+        this.batchWriter = batchWriter;
+        this.executionThreads = executionThreads;
+        this.sseService = sseService;
+        this.callRegistry = callRegistry;
+        this.transactionTemplate = transactionTemplate;
 
         // Initialize stats
         for (CallStatus status : CallStatus.values()) {
@@ -75,8 +116,18 @@ public class SimulatorService {
         }
     }
 
-    @Transactional
-    public synchronized void start(SimulatorConfigRequest config) {
+    // Not @Transactional: a run's setup and teardown must not hold a JDBC connection.
+    // Only the history row is written, in its own short transaction.
+    public void start(SimulatorConfigRequest config) {
+        lifecycleLock.lock();
+        try {
+            doStart(config);
+        } finally {
+            lifecycleLock.unlock();
+        }
+    }
+
+    private void doStart(SimulatorConfigRequest config) {
         if (running) {
             throw new IllegalStateException("Simulation already running");
         }
@@ -88,30 +139,31 @@ public class SimulatorService {
 
         validateConfig(config);
 
-        // Load virtual users
-        List<String> emails = IntStream.rangeClosed(1, config.getUserCount())
-                .mapToObj(i -> "vuser" + i + "@dacon.kr")
-                .collect(Collectors.toList());
-
-        List<User> users = userRepository.findByEmailIn(emails);
+        List<User> users = loadVirtualUsers(config.getUserCount());
         if (users.size() < 2) {
             throw new IllegalStateException("Not enough virtual users found. Required: 2, Found: " + users.size());
         }
 
         // Create history record
+        double callsPerSecond = config.effectiveCallsPerSecond();
         SimulatorHistory history = new SimulatorHistory(
                 config.getUserCount(),
-                config.getCallsPerMinute(),
+                (int) Math.round(callsPerSecond * 60),
                 config.getChatMessagesPerCall(),
                 config.getMinCallDurationSeconds(),
                 config.getMaxCallDurationSeconds(),
                 config.getConnectedPercent(),
                 config.getRejectedPercent(),
-                config.getCancelledPercent()
+                config.getCancelledPercent(),
+                config.getMode(),
+                config.getMode() == SimulatorMode.PIPELINE ? config.getCandidatesPerCall() : 0,
+                config.getArrivalCurve(),
+                config.getGeneratorThreads(),
+                callsPerSecond
         );
-        history = historyRepository.save(history);
-        this.currentHistoryId = history.getId();
+        this.currentHistoryId = transactionTemplate.execute(status -> historyRepository.save(history).getId());
 
+        this.users = users;
         this.userIds = users.stream().map(User::getId).collect(Collectors.toList());
         this.currentConfig = config;
         this.running = true;
@@ -120,32 +172,65 @@ public class SimulatorService {
         // Reset statistics
         totalCalls.set(0);
         totalMessages.set(0);
+        skippedCalls.set(0);
         for (CallStatus status : CallStatus.values()) {
             callsByStatus.get(status).set(0);
         }
         activeCallsByUser.clear();
-
-        // Calculate interval in milliseconds
-        long intervalMs = 60_000L / config.getCallsPerMinute();
-
-        scheduler = Executors.newScheduledThreadPool(2);
-        scheduler.scheduleAtFixedRate(
-                this::generateCallSafe,
-                0,
-                intervalMs,
+        unmatchedEnds = new ArrayList<>();
+
+        boolean pipelined = config.getMode() == SimulatorMode.PIPELINE;
+        // Pipeline mode also runs every callee/caller reaction on the scheduler
+        scheduler = Executors.newScheduledThreadPool(pipelined ? 4 : 2, executionThreads.factory("simulator-"));
+        workers = executionThreads.blockingTaskExecutor("simulator-task-");
+        if (pipelined) {
+            pipeline = new PipelineSimulation(sseService, callRegistry, config, users, scheduler, workers,
+                    callsByStatus, totalMessages, CHAT_MESSAGES);
+            pipeline.connectAll();
+        }
+        scheduler.scheduleWithFixedDelay(
+                () -> workers.execute(this::flushPendingWritesSafe),
+                FLUSH_INTERVAL_MS,
+                FLUSH_INTERVAL_MS,
                 TimeUnit.MILLISECONDS
         );
+        // Direct-mode calls only touch memory, so generator threads run them inline;
+        // pipeline calls block on sendSignal and show up as schedule lag if they fall behind
+        generator = new WorkloadGenerator(config.getArrivalCurve(), callsPerSecond, config.getGeneratorThreads(),
+                config.getBurstMultiplier(), config.getBurstSeconds(), config.getBurstPeriodSeconds(),
+                config.getRampPeriodSeconds(), this::generateCallSafe, executionThreads.factory("simulator-gen-"));
+        generator.start();
+
+        log.info("Simulator started in {} mode with {} users, {} calls/s ({}, {} threads), historyId: {}",
+                config.getMode(), userIds.size(), callsPerSecond, config.getArrivalCurve(),
+                config.getGeneratorThreads(), currentHistoryId);
+    }
 
-        log.info("Simulator started with {} users, {} calls/min, historyId: {}",
-                userIds.size(), config.getCallsPerMinute(), currentHistoryId);
+    public void stop() {
+        lifecycleLock.lock();
+        try {
+            doStop();
+        } finally {
+            lifecycleLock.unlock();
+        }
     }
 
-    @Transactional
-    public synchronized void stop() {
+    private void doStop() {
         if (!running) {
             return;
         }
         running = false;
+        WorkloadGenerator stoppedGenerator = generator;
+        generator = null;
+        if (stoppedGenerator != null) {
+            stoppedGenerator.stop();
+        }
+        PipelineSimulation stoppedPipeline = pipeline;
+        pipeline = null;
+        if (stoppedPipeline != null) {
+            // Hangs up live calls through sendSignal before the scheduler goes away
+            stoppedPipeline.close();
+        }
         if (scheduler != null) {
             scheduler.shutdown();
             try {
@@ -158,12 +243,24 @@ public class SimulatorService {
             }
             scheduler = null;
         }
-        // End all active simulated calls
+        if (workers instanceof ExecutorService executor) {
+            // Let in-flight calls and flushes finish before the final flush
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers = null;
+        // End all active simulated calls, then persist whatever is still buffered
         endAllActiveCalls();
+        flushPendingWritesSafe();
 
         // Update history record
         if (currentHistoryId != null) {
-            historyRepository.findById(currentHistoryId).ifPresent(history -> {
+            Long historyId = currentHistoryId;
+            transactionTemplate.executeWithoutResult(status -> historyRepository.findById(historyId).ifPresent(history -> {
                 history.updateStats(
                         totalCalls.get(),
                         totalMessages.get(),
@@ -173,9 +270,19 @@ public class SimulatorService {
                         callsByStatus.get(CallStatus.CANCELLED).get(),
                         callsByStatus.get(CallStatus.BUSY).get()
                 );
+                if (stoppedGenerator != null) {
+                    WorkloadGenerator.Stats rate = stoppedGenerator.stats();
+                    history.updateRateStats(rate.requestedPerSecond(), totalCalls.get() / rate.elapsedSeconds(),
+                            skippedCalls.get(), rate.maxLagMs());
+                }
+                if (stoppedPipeline != null) {
+                    PipelineSimulation.SignalStats stats = stoppedPipeline.stats();
+                    history.updateSignalStats(stats.sent(), stats.delivered(), stats.failed(),
+                            stats.deliveredPerSecond(), stats.p50Ms(), stats.p99Ms(), stats.maxMs());
+                }
                 history.stop();
                 historyRepository.save(history);
-            });
+            }));
             currentHistoryId = null;
         }
 
@@ -197,6 +304,27 @@ public class SimulatorService {
         response.setStartedAt(startedAt);
         response.setLastCallAt(lastCallAt);
         response.setHistoryId(currentHistoryId);
+        SimulatorConfigRequest config = currentConfig;
+        response.setMode(config != null ? config.getMode() : null);
+        response.setArrivalCurve(config != null ? config.getArrivalCurve() : null);
+        response.setCallsSkipped(skippedCalls.get());
+        WorkloadGenerator currentGenerator = generator;
+        if (currentGenerator != null) {
+            WorkloadGenerator.Stats rate = currentGenerator.stats();
+            response.setRequestedCallsPerSecond(rate.requestedPerSecond());
+            response.setAchievedCallsPerSecond(totalCalls.get() / rate.elapsedSeconds());
+            response.setCurrentCallsPerSecond(rate.currentPerSecond());
+            response.setMaxScheduleLagMs(rate.maxLagMs());
+        }
+        PipelineSimulation current = pipeline;
+        if (current != null) {
+            PipelineSimulation.SignalStats stats = current.stats();
+            response.setSignalsSent(stats.sent());
+            response.setSignalsDelivered(stats.delivered());
+            response.setSignalsPerSecond(stats.deliveredPerSecond());
+            response.setLatencyP50Ms(stats.p50Ms());
+            response.setLatencyP99Ms(stats.p99Ms());
+        }
         return response;
     }
 
@@ -222,20 +350,35 @@ public class SimulatorService {
             return;
         }
 
-        // Select random caller and callee
-        Long callerId = userIds.get(random.nextInt(userIds.size()));
-        Long calleeId;
-        do {
-            calleeId = userIds.get(random.nextInt(userIds.size()));
-        } while (calleeId.equals(callerId));
+        // Select random caller and callee; each generator thread draws from its own stream
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int callerIndex = random.nextInt(userIds.size());
+        int calleeIndex = random.nextInt(userIds.size() - 1);
+        if (calleeIndex >= callerIndex) {
+            calleeIndex++;
+        }
+
+        PipelineSimulation current = pipeline;
+        if (current != null) {
+            placePipelinedCall(current, users.get(callerIndex), users.get(calleeIndex));
+            return;
+        }
+
+        Long callerId = userIds.get(callerIndex);
+        Long calleeId = userIds.get(calleeIndex);
 
-        // Check if caller is already in a call (skip this iteration)
-        if (activeCallsByUser.containsKey(callerId)) {
+        // Create the call session with TRYING status
+        String sessionId = randomSessionId(random);
+        CallSession session = new CallSession(sessionId, callerId, calleeId, CallStatus.TRYING);
+
+        // Reserve the caller; if already in a call, skip this arrival
+        if (activeCallsByUser.putIfAbsent(callerId, session) != null) {
+            skippedCalls.incrementAndGet();
             return;
         }
 
         // Check if callee is already in a call -> BUSY
-        boolean calleeBusy = activeCallsByUser.containsKey(calleeId);
+        boolean calleeBusy = activeCallsByUser.putIfAbsent(calleeId, session) != null;
 
         CallStatus outcome;
         if (calleeBusy) {
@@ -243,11 +386,11 @@ public class SimulatorService {
         } else {
             outcome = determineOutcome();
         }
-
-        // Create the call session with TRYING status
-        String sessionId = UUID.randomUUID().toString();
-        CallSession session = new CallSession(sessionId, callerId, calleeId, CallStatus.TRYING);
-        callSessionRepository.save(session);
+        if (outcome != CallStatus.CONNECTED) {
+            // Only connected calls keep both users busy
+            activeCallsByUser.remove(callerId, session);
+            activeCallsByUser.remove(calleeId, session);
+        }
 
         // Process based on outcome
         processCallOutcome(session, outcome, callerId, calleeId);
@@ -259,8 +402,19 @@ public class SimulatorService {
         log.debug("Call generated: {} -> {}, outcome: {}", callerId, calleeId, outcome);
     }
 
+    // Outcomes are drawn the same way, but BUSY is only ever decided by SseService's real busy check
+    // or sent by the callee; nothing is written here
+    private void placePipelinedCall(PipelineSimulation current, User caller, User callee) {
+        if (current.placeCall(caller, callee, determineOutcome())) {
+            totalCalls.incrementAndGet();
+            lastCallAt = LocalDateTime.now();
+        } else {
+            skippedCalls.incrementAndGet();
+        }
+    }
+
     private CallStatus determineOutcome() {
-        int roll = random.nextInt(100);
+        int roll = ThreadLocalRandom.current().nextInt(100);
         int connected = currentConfig.getConnectedPercent();
         int rejected = currentConfig.getRejectedPercent();
         int cancelled = currentConfig.getCancelledPercent();
@@ -279,15 +433,11 @@ public class SimulatorService {
     private void processCallOutcome(CallSession session, CallStatus outcome, Long callerId, Long calleeId) {
         switch (outcome) {
             case CONNECTED:
-                // Transition to CONNECTED
+                // Transition to CONNECTED; both users were reserved in generateCall
                 session.connect();
-                callSessionRepository.save(session);
+                pendingSessions.add(session);
                 callsByStatus.get(CallStatus.CONNECTED).incrementAndGet();
 
-                // Mark both users as busy
-                activeCallsByUser.put(callerId, session.getSessionId());
-                activeCallsByUser.put(calleeId, session.getSessionId());
-
                 // Schedule call end and chat generation
                 scheduleConnectedCall(session, callerId, calleeId);
                 break;
@@ -295,9 +445,9 @@ public class SimulatorService {
             case REJECTED:
             case CANCELLED:
             case BUSY:
-                // Immediate termination
+                // Immediate termination: one batched INSERT of the final row
                 session.end(outcome);
-                callSessionRepository.save(session);
+                pendingSessions.add(session);
                 callsByStatus.get(outcome).incrementAndGet();
                 break;
 
@@ -309,26 +459,28 @@ public class SimulatorService {
     private void scheduleConnectedCall(CallSession session, Long callerId, Long calleeId) {
         int minDuration = currentConfig.getMinCallDurationSeconds();
         int maxDuration = currentConfig.getMaxCallDurationSeconds();
-        int duration = minDuration + random.nextInt(Math.max(1, maxDuration - minDuration + 1));
+        int duration = minDuration + ThreadLocalRandom.current().nextInt(Math.max(1, maxDuration - minDuration + 1));
 
-        // Generate chat messages during the call
-        int messageCount = currentConfig.getChatMessagesPerCall();
-        if (messageCount > 0 && duration > 1) {
-            scheduleChatMessages(session.getSessionId(), callerId, calleeId, duration, messageCount);
+        ScheduledExecutorService callScheduler = scheduler;
+        if (callScheduler == null || callScheduler.isShutdown()) {
+            return;
         }
+        try {
+            // Generate chat messages during the call
+            int messageCount = currentConfig.getChatMessagesPerCall();
+            if (messageCount > 0 && duration > 1) {
+                scheduleChatMessages(callScheduler, session, callerId, calleeId, duration, messageCount);
+            }
 
-        // Schedule call end
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.schedule(() -> endCallSafe(session.getSessionId(), callerId, calleeId),
-                    duration, TimeUnit.SECONDS);
+            // Schedule call end; only queues the UPDATE, so it runs on the scheduler thread
+            callScheduler.schedule(() -> endCall(session), duration, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Stopping; endAllActiveCalls() ends the session
         }
     }
 
-    private void scheduleChatMessages(String sessionId, Long callerId, Long calleeId, int durationSeconds, int messageCount) {
-        if (scheduler == null || scheduler.isShutdown()) {
-            return;
-        }
-
+    private void scheduleChatMessages(ScheduledExecutorService scheduler, CallSession session, Long callerId,
+                                      Long calleeId, int durationSeconds, int messageCount) {
         // Distribute messages evenly across call duration
         int intervalMs = (durationSeconds * 1000) / (messageCount + 1);
 
@@ -339,7 +491,7 @@ public class SimulatorService {
             final Long receiver = sender.equals(callerId) ? calleeId : callerId;
 
             scheduler.schedule(() -> {
-                if (running && activeCallsByUser.containsKey(sender)) {
+                if (running && activeCallsByUser.get(sender) == session) {
                     try {
                         sendChatMessage(sender, receiver);
                     } catch (Exception e) {
@@ -350,63 +502,136 @@ public class SimulatorService {
         }
     }
 
-    @Transactional
     public void sendChatMessage(Long senderId, Long receiverId) {
-        String message = CHAT_MESSAGES.get(random.nextInt(CHAT_MESSAGES.size()));
-        ChatMessage chatMessage = new ChatMessage(senderId, receiverId, message);
-        chatMessageRepository.save(chatMessage);
+        String message = CHAT_MESSAGES.get(ThreadLocalRandom.current().nextInt(CHAT_MESSAGES.size()));
+        pendingMessages.add(new ChatMessage(senderId, receiverId, message));
         totalMessages.incrementAndGet();
     }
 
-    private void endCallSafe(String sessionId, Long callerId, Long calleeId) {
+    private void flushPendingWritesSafe() {
+        flushLock.lock();
         try {
-            endCall(sessionId, callerId, calleeId);
+            flushPendingWrites();
         } catch (Exception e) {
-            log.error("Error ending call {}", sessionId, e);
+            log.error("Error flushing simulator writes", e);
+        } finally {
+            flushLock.unlock();
         }
     }
 
-    @Transactional
-    public void endCall(String sessionId, Long callerId, Long calleeId) {
-        // Reload session from DB
-        CallSession current = callSessionRepository.findById(sessionId).orElse(null);
-        if (current != null && current.getStatus() == CallStatus.CONNECTED) {
-            current.end(CallStatus.ENDED);
-            callSessionRepository.save(current);
-            callsByStatus.get(CallStatus.ENDED).incrementAndGet();
+    // Drains the write-behind buffers in chunks, one JDBC-batched transaction each.
+    // Inserts go first so ends queued since the last flush find their row.
+    private void flushPendingWrites() {
+        List<CallSession> sessions = drain(pendingSessions);
+        while (!sessions.isEmpty()) {
+            batchWriter.insertCallSessions(sessions);
+            sessions = drain(pendingSessions);
+        }
+        List<ChatMessage> messages = drain(pendingMessages);
+        while (!messages.isEmpty()) {
+            batchWriter.insertChatMessages(messages);
+            messages = drain(pendingMessages);
+        }
+        if (!unmatchedEnds.isEmpty()) {
+            List<BatchWriter.SessionEnd> missing = batchWriter.endCallSessions(unmatchedEnds);
+            unmatchedEnds = new ArrayList<>();
+            if (!missing.isEmpty()) {
+                log.warn("{} simulated call ends matched no CONNECTED session; dropped", missing.size());
+            }
+        }
+        List<BatchWriter.SessionEnd> ends = drain(pendingEnds);
+        while (!ends.isEmpty()) {
+            unmatchedEnds.addAll(batchWriter.endCallSessions(ends));
+            ends = drain(pendingEnds);
         }
+    }
 
-        // Remove from active calls
-        activeCallsByUser.remove(callerId);
-        activeCallsByUser.remove(calleeId);
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> batch = new ArrayList<>();
+        T item;
+        while (batch.size() < MAX_FLUSH_ROWS && (item = queue.poll()) != null) {
+            batch.add(item);
+        }
+        return batch;
+    }
+
+    // Queues the ENDED update; whoever removes the caller's entry first ends the call
+    private void endCall(CallSession session) {
+        if (activeCallsByUser.remove(session.getCallerId(), session)) {
+            activeCallsByUser.remove(session.getCalleeId(), session);
+            // The session object itself may still be waiting for its INSERT, so it is not mutated
+            pendingEnds.add(new BatchWriter.SessionEnd(session, CallStatus.ENDED, LocalDateTime.now()));
+            callsByStatus.get(CallStatus.ENDED).incrementAndGet();
+        }
     }
 
     private void endAllActiveCalls() {
-        Set<String> processedSessions = new HashSet<>();
-        activeCallsByUser.forEach((userId, sessionId) -> {
-            if (processedSessions.add(sessionId)) {
-                try {
-                    CallSession session = callSessionRepository.findById(sessionId).orElse(null);
-                    if (session != null && !session.getStatus().isTerminal()) {
-                        session.end(CallStatus.ENDED);
-                        callSessionRepository.save(session);
-                        callsByStatus.get(CallStatus.ENDED).incrementAndGet();
-                    }
-                } catch (Exception e) {
-                    log.error("Error ending session {}", sessionId, e);
-                }
-            }
-        });
+        new HashSet<>(activeCallsByUser.values()).forEach(this::endCall);
         activeCallsByUser.clear();
     }
 
+    // Version 4 UUID from the thread's own RNG; UUID.randomUUID() shares one SecureRandom
+    private static String randomSessionId(ThreadLocalRandom random) {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    private List<User> loadVirtualUsers(int userCount) {
+        List<User> loaded = new ArrayList<>(userCount);
+        List<String> emails = new ArrayList<>(USER_LOAD_CHUNK);
+        for (int i = 1; i <= userCount; i++) {
+            emails.add("vuser" + i + "@dacon.kr");
+            if (emails.size() == USER_LOAD_CHUNK || i == userCount) {
+                loaded.addAll(userRepository.findByEmailIn(emails));
+                emails.clear();
+            }
+        }
+        return loaded;
+    }
+
     private void validateConfig(SimulatorConfigRequest config) {
-        if (config.getUserCount() < 2 || config.getUserCount() > 1000) {
-            throw new IllegalArgumentException("User count must be between 2 and 1000");
+        if (config.getMode() == null) {
+            config.setMode(SimulatorMode.DIRECT);
         }
-        if (config.getCallsPerMinute() < 1 || config.getCallsPerMinute() > 60) {
+        boolean pipelined = config.getMode() == SimulatorMode.PIPELINE;
+        // Pipeline mode attaches every user to SseService, and presence fan-out is O(users^2)
+        int maxUsers = pipelined ? MAX_PIPELINE_USERS : MAX_DIRECT_USERS;
+        if (config.getUserCount() < 2 || config.getUserCount() > maxUsers) {
+            throw new IllegalArgumentException("User count must be between 2 and " + maxUsers + " in "
+                    + config.getMode() + " mode");
+        }
+        double maxCallsPerSecond = pipelined ? MAX_PIPELINE_CALLS_PER_SECOND : MAX_DIRECT_CALLS_PER_SECOND;
+        if (config.getCallsPerSecond() < 0 || config.getCallsPerSecond() > maxCallsPerSecond) {
+            throw new IllegalArgumentException("Calls per second must be between 0 and " + (int) maxCallsPerSecond
+                    + " in " + config.getMode() + " mode");
+        }
+        if (config.getCallsPerSecond() == 0 && (config.getCallsPerMinute() < 1 || config.getCallsPerMinute() > 60)) {
             throw new IllegalArgumentException("Calls per minute must be between 1 and 60");
         }
+        if (config.getArrivalCurve() == null) {
+            config.setArrivalCurve(ArrivalCurve.STEADY);
+        }
+        if (config.getGeneratorThreads() < 1 || config.getGeneratorThreads() > 64) {
+            throw new IllegalArgumentException("Generator threads must be between 1 and 64");
+        }
+        if (config.getArrivalCurve() == ArrivalCurve.BURST) {
+            if (config.getBurstMultiplier() < 1 || config.getBurstMultiplier() > 100) {
+                throw new IllegalArgumentException("Burst multiplier must be between 1 and 100");
+            }
+            if (config.getBurstPeriodSeconds() < 1 || config.getBurstSeconds() < 1
+                    || config.getBurstSeconds() > config.getBurstPeriodSeconds()) {
+                throw new IllegalArgumentException("Burst seconds must be between 1 and the burst period");
+            }
+            if (config.effectiveCallsPerSecond() * config.getBurstMultiplier() > maxCallsPerSecond) {
+                throw new IllegalArgumentException("Burst peak cannot exceed " + (int) maxCallsPerSecond
+                        + " calls per second");
+            }
+        }
+        if (config.getArrivalCurve() == ArrivalCurve.DIURNAL
+                && (config.getRampPeriodSeconds() < 10 || config.getRampPeriodSeconds() > 86_400)) {
+            throw new IllegalArgumentException("Ramp period must be between 10 and 86400 seconds");
+        }
         if (config.getChatMessagesPerCall() < 0 || config.getChatMessagesPerCall() > 20) {
             throw new IllegalArgumentException("Chat messages per call must be between 0 and 20");
         }
@@ -422,6 +647,9 @@ public class SimulatorService {
         if (totalPercent > 100) {
             throw new IllegalArgumentException("Outcome percentages cannot exceed 100");
         }
+        if (config.getCandidatesPerCall() < 0 || config.getCandidatesPerCall() > 50) {
+            throw new IllegalArgumentException("Candidates per call must be between 0 and 50");
+        }
         if (config.getConnectedPercent() < 0 || config.getRejectedPercent() < 0 ||
             config.getCancelledPercent() < 0) {
             throw new IllegalArgumentException("Outcome percentages cannot be negative");
@@ -0,0 +1,129 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.User;
+import com.example.sse.dto.UserDirectoryStatsDto;
+import com.example.sse.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process email/id -> user directory so the signaling and chat paths do not hit
+ * Postgres for every message. Loaded once at startup and kept current by
+ * {@link UserService#register}. A miss falls back to the repository and caches the result.
+ *
+ * Only the public profile (id, email, username) is kept; passwords stay in the database.
+ */
+@Service
+public class UserDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+
+    private final UserRepository userRepository;
+
+    private final Map<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserDirectory(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<User> users = userRepository.findAll();
+        users.forEach(this::put);
+        log.info("User directory loaded with {} users", users.size());
+    }
+
+    public Optional<Entry> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Entry entry = byEmail.get(email);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return Optional.of(entry);
+        }
+        misses.incrementAndGet();
+        return userRepository.findByEmail(email).map(this::put);
+    }
+
+    public Optional<Entry> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Entry entry = byId.get(id);
+        if (entry != null) {
+            hits.incrementAndGet();
+            return Optional.of(entry);
+        }
+        misses.incrementAndGet();
+        return userRepository.findById(id).map(this::put);
+    }
+
+    /**
+     * Adds a newly saved user. Inside a transaction the entry is published after commit,
+     * so a rolled-back registration never becomes visible.
+     */
+    public void register(User user) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(user);
+                }
+            });
+        } else {
+            put(user);
+        }
+    }
+
+    public UserDirectoryStatsDto getStats() {
+        return new UserDirectoryStatsDto(byEmail.size(), hits.get(), misses.get());
+    }
+
+    private Entry put(User user) {
+        Entry entry = new Entry(user.getId(), user.getEmail(), user.getUsername());
+        byEmail.put(entry.getEmail(), entry);
+        byId.put(entry.getId(), entry);
+        return entry;
+    }
+
+    // Immutable public profile of a user
+    public static class Entry {
+        private final Long id;
+        private final String email;
+        private final String username;
+
+        public Entry(Long id, String email, String username) {
+            this.id = id;
+            this.email = email;
+            this.username = username;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+}
@@ -19,6 +19,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
+    private final UserDirectory userDirectory;
 
     @Value("${app.security.ticker}")
     private String ticker;
@@ -40,7 +41,7 @@ public class UserService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .build();
 
-        userRepository.save(user);
+        userDirectory.register(userRepository.save(user));
     }
 
     @Transactional(readOnly = true)
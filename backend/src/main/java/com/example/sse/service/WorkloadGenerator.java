@@ -0,0 +1,187 @@
+package com.example.sse.service;
+
+import com.example.sse.domain.ArrivalCurve;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop call arrival generator for the simulator.
+ *
+ * The requested rate is split evenly over {@code threads} generator threads, each with its
+ * own random stream (ThreadLocalRandom) and its own arrival schedule, so no lock or shared
+ * RNG sits on the hot path. Arrivals are scheduled against absolute times: a thread that
+ * falls behind fires the overdue arrivals back to back instead of silently stretching the
+ * gaps, and the shortfall shows up as lag and as achieved rate below the requested rate.
+ *
+ * Time-varying curves use thinning: candidate arrivals are drawn at the curve's peak rate
+ * and each is kept with probability rate(t) / peak.
+ */
+class WorkloadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkloadGenerator.class);
+
+    private static final double NANOS_PER_SECOND = 1e9;
+    // Fraction of the requested rate at the bottom of the DIURNAL curve
+    private static final double DIURNAL_TROUGH = 0.1;
+
+    private final ArrivalCurve curve;
+    private final double ratePerSecond;
+    private final double burstMultiplier;
+    private final double burstSeconds;
+    private final double burstPeriodSeconds;
+    private final double rampPeriodSeconds;
+    private final Runnable arrival;
+    private final Thread[] threads;
+
+    private final LongAdder arrivals = new LongAdder();
+    private final LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+
+    private volatile boolean running;
+    private volatile long startNanos;
+    private volatile long stopNanos;
+
+    /**
+     * @param arrival run once per arrival on a generator thread; must not throw
+     */
+    WorkloadGenerator(ArrivalCurve curve, double ratePerSecond, int threadCount,
+                      double burstMultiplier, int burstSeconds, int burstPeriodSeconds, int rampPeriodSeconds,
+                      Runnable arrival, ThreadFactory threadFactory) {
+        this.curve = curve;
+        this.ratePerSecond = ratePerSecond;
+        this.burstMultiplier = burstMultiplier;
+        this.burstSeconds = burstSeconds;
+        this.burstPeriodSeconds = burstPeriodSeconds;
+        this.rampPeriodSeconds = rampPeriodSeconds;
+        this.arrival = arrival;
+        this.threads = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            int index = i;
+            threads[i] = threadFactory.newThread(() -> generate(index));
+        }
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        running = true;
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        log.info("Workload generator started: {} at {}/s over {} threads", curve, ratePerSecond, threads.length);
+    }
+
+    void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            LockSupport.unpark(thread);
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        stopNanos = System.nanoTime();
+    }
+
+    private void generate(int index) {
+        double share = 1.0 / threads.length;
+        double peak = peakRate() * share;
+        long next = startNanos;
+        if (curve == ArrivalCurve.STEADY) {
+            // Stagger the threads so their evenly spaced arrivals interleave
+            next += (long) (index * NANOS_PER_SECOND / ratePerSecond);
+        } else {
+            next += exponentialGap(peak);
+        }
+        while (running) {
+            long now = System.nanoTime();
+            if (next > now) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            maxLagNanos.accumulate(now - next);
+            double t = (next - startNanos) / NANOS_PER_SECOND;
+            if (curve == ArrivalCurve.STEADY) {
+                fire();
+                next += (long) (NANOS_PER_SECOND / (ratePerSecond * share));
+            } else {
+                if (ThreadLocalRandom.current().nextDouble() * peakRate() < rateAt(t)) {
+                    fire();
+                }
+                next += exponentialGap(peak);
+            }
+        }
+    }
+
+    private void fire() {
+        arrivals.increment();
+        arrival.run();
+    }
+
+    private static long exponentialGap(double rate) {
+        // 1 - nextDouble() is in (0, 1], so the log is finite
+        return (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) / rate * NANOS_PER_SECOND);
+    }
+
+    private double peakRate() {
+        return curve == ArrivalCurve.BURST ? ratePerSecond * burstMultiplier : ratePerSecond;
+    }
+
+    // Total arrival rate, all threads together, t seconds into the run
+    double rateAt(double t) {
+        return switch (curve) {
+            case STEADY, POISSON -> ratePerSecond;
+            case BURST -> (t % burstPeriodSeconds) < burstSeconds ? ratePerSecond * burstMultiplier : ratePerSecond;
+            case DIURNAL -> ratePerSecond * (1 + DIURNAL_TROUGH
+                    - (1 - DIURNAL_TROUGH) * Math.cos(2 * Math.PI * t / rampPeriodSeconds)) / 2;
+        };
+    }
+
+    // Integral of rateAt over [0, t]: the number of arrivals the curve asked for
+    double expectedArrivals(double t) {
+        return switch (curve) {
+            case STEADY, POISSON -> ratePerSecond * t;
+            case BURST -> {
+                double inBurst = Math.floor(t / burstPeriodSeconds) * burstSeconds
+                        + Math.min(t % burstPeriodSeconds, burstSeconds);
+                yield ratePerSecond * t + ratePerSecond * (burstMultiplier - 1) * inBurst;
+            }
+            case DIURNAL -> ratePerSecond / 2 * ((1 + DIURNAL_TROUGH) * t
+                    - (1 - DIURNAL_TROUGH) * rampPeriodSeconds / (2 * Math.PI)
+                    * Math.sin(2 * Math.PI * t / rampPeriodSeconds));
+        };
+    }
+
+    Stats stats() {
+        long end = running || stopNanos == 0 ? System.nanoTime() : stopNanos;
+        double seconds = Math.max(1e-3, (end - startNanos) / NANOS_PER_SECOND);
+        long fired = arrivals.sum();
+        return new Stats(
+                expectedArrivals(seconds) / seconds,
+                fired / seconds,
+                rateAt(seconds),
+                fired,
+                seconds,
+                maxLagNanos.get() / 1e6);
+    }
+
+    /**
+     * @param requestedPerSecond mean rate the curve asked for so far
+     * @param achievedPerSecond  mean rate arrivals were actually handed out
+     * @param currentPerSecond   the curve's rate right now
+     * @param elapsedSeconds     time since start, or the run's length once stopped
+     * @param maxLagMs           worst delay between an arrival's due time and its start
+     */
+    record Stats(double requestedPerSecond, double achievedPerSecond, double currentPerSecond,
+                 long arrivals, double elapsedSeconds, double maxLagMs) {
+    }
+}
@@ -0,0 +1,16 @@
+-- Store-and-forward inbox: per user, the highest chat_message id the client has
+-- acknowledged. On subscribe the server streams everything received after it.
+CREATE TABLE chat_inbox_cursor (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id),
+    last_acked_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Catch-up reads "receiver_id = ? AND id > ? ORDER BY id" as one index range scan
+CREATE INDEX idx_chat_message_receiver_id ON chat_message(receiver_id, id);
+
+-- Existing history counts as delivered, so the first reconnect does not replay it
+INSERT INTO chat_inbox_cursor (user_id, last_acked_id)
+SELECT u.id, COALESCE(MAX(m.id), 0)
+FROM users u LEFT JOIN chat_message m ON m.receiver_id = u.id
+GROUP BY u.id;
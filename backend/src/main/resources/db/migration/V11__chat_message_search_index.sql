@@ -0,0 +1,8 @@
+-- Full-text search over chat messages. 'simple' only lowercases and splits on
+-- non-word characters, with no stemming or stop words, so it suits mixed Korean and
+-- English chat. The generated column keeps the vector in sync on every insert path,
+-- batched JDBC included. Adding a stored column rewrites chat_message once.
+ALTER TABLE chat_message
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', message)) STORED;
+
+CREATE INDEX idx_chat_message_search ON chat_message USING GIN (search_vector);
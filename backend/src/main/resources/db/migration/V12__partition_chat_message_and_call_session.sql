@@ -0,0 +1,116 @@
+-- Monthly range partitions on created_at for chat_message and call_session.
+-- Old months are removed by detaching or dropping a partition
+-- (PartitionMaintenanceService), so there are no bulk DELETEs. Each month's indexes
+-- stay small, and vacuum only touches the current month.
+--
+-- A partitioned table's primary key must include the partition key, so the keys
+-- become (id, created_at) and (session_id, created_at). Ids still come from sequences
+-- and UUIDs, so in practice they stay unique.
+
+-- Creates the missing monthly partitions <parent>_pYYYYMM from from_month to to_month
+-- (inclusive) and returns how many it created. Also called by
+-- PartitionMaintenanceService to stay ahead of the calendar.
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent_schema TEXT, parent_table TEXT,
+                                                     from_month DATE, to_month DATE)
+RETURNS INT LANGUAGE plpgsql AS $$
+DECLARE
+    m DATE := date_trunc('month', from_month)::DATE;
+    partition_name TEXT;
+    created INT := 0;
+BEGIN
+    WHILE m <= to_month LOOP
+        partition_name := parent_table || '_p' || to_char(m, 'YYYYMM');
+        IF to_regclass(format('%I.%I', parent_schema, partition_name)) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I.%I PARTITION OF %I.%I FOR VALUES FROM (%L) TO (%L)',
+                           parent_schema, partition_name, parent_schema, parent_table,
+                           m, (m + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+        m := (m + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN created;
+END
+$$;
+
+-- ---------------------------------------------------------------------------
+-- chat_message
+-- ---------------------------------------------------------------------------
+ALTER TABLE chat_message RENAME TO chat_message_old;
+ALTER TABLE chat_message_old RENAME CONSTRAINT chat_message_pkey TO chat_message_old_pkey;
+-- Keep the id sequence (and its pooled INCREMENT BY 50) when the old table goes
+ALTER SEQUENCE chat_message_id_seq OWNED BY NONE;
+DROP INDEX idx_chat_message_pair_keyset;
+DROP INDEX idx_chat_message_sender;
+DROP INDEX idx_chat_message_receiver;
+DROP INDEX idx_chat_message_receiver_id;
+DROP INDEX idx_chat_message_search;
+
+CREATE TABLE chat_message (
+    id BIGINT NOT NULL DEFAULT nextval('chat_message_id_seq'),
+    sender_id BIGINT NOT NULL REFERENCES users(id),
+    receiver_id BIGINT NOT NULL REFERENCES users(id),
+    message TEXT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('simple', message)) STORED,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+ALTER SEQUENCE chat_message_id_seq OWNED BY chat_message.id;
+
+SELECT ensure_monthly_partitions(current_schema(), 'chat_message',
+    COALESCE((SELECT MIN(created_at) FROM chat_message_old), NOW())::DATE,
+    (NOW() + INTERVAL '3 months')::DATE);
+-- Safety net if maintenance falls behind. Normally empty, because a new month's
+-- partition cannot be created while the default holds rows for that month.
+CREATE TABLE chat_message_default PARTITION OF chat_message DEFAULT;
+
+INSERT INTO chat_message (id, sender_id, receiver_id, message, created_at)
+SELECT id, sender_id, receiver_id, message, created_at FROM chat_message_old;
+DROP TABLE chat_message_old;
+
+-- Declared on the parent, created on every current and future partition
+CREATE INDEX idx_chat_message_pair_keyset ON chat_message(
+    LEAST(sender_id, receiver_id),
+    GREATEST(sender_id, receiver_id),
+    created_at DESC,
+    id DESC
+);
+CREATE INDEX idx_chat_message_sender ON chat_message(sender_id);
+CREATE INDEX idx_chat_message_receiver_id ON chat_message(receiver_id, id);
+CREATE INDEX idx_chat_message_search ON chat_message USING GIN (search_vector);
+
+-- ---------------------------------------------------------------------------
+-- call_session
+-- ---------------------------------------------------------------------------
+ALTER TABLE call_session RENAME TO call_session_old;
+ALTER TABLE call_session_old RENAME CONSTRAINT call_session_pkey TO call_session_old_pkey;
+DROP INDEX idx_call_session_caller;
+DROP INDEX idx_call_session_callee;
+
+CREATE TABLE call_session (
+    session_id VARCHAR(255) NOT NULL,
+    caller_id BIGINT NOT NULL REFERENCES users(id),
+    callee_id BIGINT NOT NULL REFERENCES users(id),
+    status VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    connected_at TIMESTAMP WITHOUT TIME ZONE,
+    ended_at TIMESTAMP WITHOUT TIME ZONE,
+    PRIMARY KEY (session_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+SELECT ensure_monthly_partitions(current_schema(), 'call_session',
+    COALESCE((SELECT MIN(COALESCE(created_at, connected_at, ended_at)) FROM call_session_old), NOW())::DATE,
+    (NOW() + INTERVAL '3 months')::DATE);
+CREATE TABLE call_session_default PARTITION OF call_session DEFAULT;
+
+-- created_at was nullable before; it is the partition key now
+INSERT INTO call_session (session_id, caller_id, callee_id, status, created_at, connected_at, ended_at)
+SELECT session_id, caller_id, callee_id, status,
+       COALESCE(created_at, connected_at, ended_at, NOW()), connected_at, ended_at
+FROM call_session_old;
+DROP TABLE call_session_old;
+
+CREATE INDEX idx_call_session_caller ON call_session(caller_id);
+CREATE INDEX idx_call_session_callee ON call_session(callee_id);
+
+ANALYZE chat_message;
+ANALYZE call_session;
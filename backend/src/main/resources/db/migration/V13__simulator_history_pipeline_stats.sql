@@ -0,0 +1,13 @@
+-- Pipeline-mode runs drive calls through SseService.sendSignal instead of writing
+-- call_session rows directly, so each run also records signaling throughput and
+-- delivery latency. Direct-mode rows keep zero counts and NULL latencies.
+ALTER TABLE simulator_history
+    ADD COLUMN mode VARCHAR(16) NOT NULL DEFAULT 'DIRECT',
+    ADD COLUMN candidates_per_call INT NOT NULL DEFAULT 0,
+    ADD COLUMN signals_sent BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN signals_delivered BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN signals_failed BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN signals_per_second DOUBLE PRECISION,
+    ADD COLUMN latency_p50_ms DOUBLE PRECISION,
+    ADD COLUMN latency_p99_ms DOUBLE PRECISION,
+    ADD COLUMN latency_max_ms DOUBLE PRECISION;
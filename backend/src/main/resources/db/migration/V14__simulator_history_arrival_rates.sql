@@ -0,0 +1,13 @@
+-- The simulator now generates calls per second along an arrival curve on several
+-- generator threads, and records the rate the curve requested next to the rate it
+-- actually achieved. Older rows are STEADY runs at calls_per_minute / 60.
+ALTER TABLE simulator_history
+    ADD COLUMN arrival_curve VARCHAR(16) NOT NULL DEFAULT 'STEADY',
+    ADD COLUMN generator_threads INT NOT NULL DEFAULT 1,
+    ADD COLUMN calls_per_second DOUBLE PRECISION NOT NULL DEFAULT 0,
+    ADD COLUMN requested_calls_per_second DOUBLE PRECISION,
+    ADD COLUMN achieved_calls_per_second DOUBLE PRECISION,
+    ADD COLUMN calls_skipped INT NOT NULL DEFAULT 0,
+    ADD COLUMN max_schedule_lag_ms DOUBLE PRECISION;
+
+UPDATE simulator_history SET calls_per_second = calls_per_minute / 60.0;
@@ -0,0 +1,21 @@
+-- Multi-node call state: one row per party of each live (TRYING / CONNECTED) call,
+-- written in the same transaction as the call_session change. The primary key is the
+-- busy check, so a user can take part in one live call across all nodes.
+CREATE TABLE sse_live_call (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id),
+    session_id VARCHAR(255) NOT NULL,
+    caller_id BIGINT NOT NULL,
+    callee_id BIGINT NOT NULL,
+    status VARCHAR(50) NOT NULL
+);
+
+CREATE INDEX idx_sse_live_call_session ON sse_live_call(session_id);
+
+-- Seed from calls that are still live; the newest call wins if rows overlap
+INSERT INTO sse_live_call (user_id, session_id, caller_id, callee_id, status)
+SELECT party.user_id, cs.session_id, cs.caller_id, cs.callee_id, cs.status
+FROM call_session cs
+CROSS JOIN LATERAL (VALUES (cs.caller_id), (cs.callee_id)) AS party(user_id)
+WHERE cs.status IN ('TRYING', 'CONNECTED')
+ORDER BY cs.created_at DESC
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,7 @@
+-- Multi-node routing: one row per running backend node, refreshed periodically.
+-- Presence rows of nodes whose heartbeat is too old are ignored and swept, so a
+-- crashed node (whose random id never comes back) does not keep its users.
+CREATE TABLE sse_node (
+    node_id VARCHAR(63) PRIMARY KEY,
+    heartbeat_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
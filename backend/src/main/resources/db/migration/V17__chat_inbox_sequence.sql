@@ -0,0 +1,34 @@
+-- Inbox cursor on a per-receiver sequence instead of chat_message.id. Pooled ids
+-- (V5) are handed out before commit, so a lower id can become visible after a higher
+-- one and an id cursor would skip it. inbox_seq is taken from the receiver's
+-- chat_inbox_sequence row, whose lock is held until commit: a later writer waits, so
+-- each receiver's numbers become visible in commit order and without gaps.
+CREATE TABLE chat_inbox_sequence (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id),
+    last_seq BIGINT NOT NULL
+);
+
+ALTER TABLE chat_message ADD COLUMN inbox_seq BIGINT;
+
+-- Number existing messages in id order, which is the order the old cursor assumed
+UPDATE chat_message m SET inbox_seq = r.seq
+FROM (SELECT id, created_at, ROW_NUMBER() OVER (PARTITION BY receiver_id ORDER BY id) AS seq
+      FROM chat_message) r
+WHERE m.id = r.id AND m.created_at = r.created_at;
+
+ALTER TABLE chat_message ALTER COLUMN inbox_seq SET NOT NULL;
+
+INSERT INTO chat_inbox_sequence (user_id, last_seq)
+SELECT receiver_id, MAX(inbox_seq) FROM chat_message GROUP BY receiver_id;
+
+-- Catch-up reads "receiver_id = ? AND inbox_seq > ? ORDER BY inbox_seq"
+CREATE INDEX idx_chat_message_receiver_seq ON chat_message(receiver_id, inbox_seq);
+DROP INDEX idx_chat_message_receiver_id;
+
+-- Translate acknowledged ids into sequence numbers
+ALTER TABLE chat_inbox_cursor ADD COLUMN last_acked_seq BIGINT NOT NULL DEFAULT 0;
+UPDATE chat_inbox_cursor c SET last_acked_seq = COALESCE(
+    (SELECT MAX(m.inbox_seq) FROM chat_message m WHERE m.receiver_id = c.user_id AND m.id <= c.last_acked_id), 0);
+ALTER TABLE chat_inbox_cursor DROP COLUMN last_acked_id;
+
+ANALYZE chat_message;
@@ -0,0 +1,20 @@
+-- Relay order. Pooled ids (V6) are handed out in blocks per node, so an event can
+-- carry a lower id than one that committed before it. order_seq is drawn from a plain
+-- sequence when the row is inserted; without CACHE every session takes the next value
+-- of the same counter, so an event written after another one committed (the next
+-- transition of the same call) always sorts after it.
+CREATE SEQUENCE outbox_event_order_seq;
+
+ALTER TABLE outbox_event ADD COLUMN order_seq BIGINT;
+UPDATE outbox_event o SET order_seq = r.seq
+FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS seq FROM outbox_event) r
+WHERE o.id = r.id;
+SELECT setval('outbox_event_order_seq', COALESCE(MAX(order_seq), 0) + 1, false) FROM outbox_event;
+
+ALTER TABLE outbox_event ALTER COLUMN order_seq SET DEFAULT nextval('outbox_event_order_seq');
+ALTER TABLE outbox_event ALTER COLUMN order_seq SET NOT NULL;
+ALTER SEQUENCE outbox_event_order_seq OWNED BY outbox_event.order_seq;
+
+-- Relay polls unpublished rows in order_seq order
+DROP INDEX idx_outbox_event_unpublished;
+CREATE INDEX idx_outbox_event_unpublished ON outbox_event(order_seq) WHERE published_at IS NULL;
@@ -0,0 +1,11 @@
+-- Relay partition lookups without hashing every unpublished row. relay_bucket is the
+-- aggregate hash folded into 1024 buckets and stored with the row; a relay partition is
+-- a fixed set of buckets (bucket % relay-partitions), so one index serves any partition
+-- count up to 1024. For power-of-two counts every aggregate stays in the partition the
+-- previous hashtext(...) % partitions filter put it in.
+ALTER TABLE outbox_event ADD COLUMN relay_bucket SMALLINT
+    GENERATED ALWAYS AS (hashtext(aggregate_type || ':' || aggregate_id) & 1023) STORED;
+
+-- A partition's next batch reads its buckets' unpublished rows, in relay order
+CREATE INDEX idx_outbox_event_unpublished_bucket ON outbox_event(relay_bucket, order_seq)
+    WHERE published_at IS NULL;
@@ -0,0 +1,12 @@
+-- call_session is partitioned by created_at (V12). Live calls keep the row's created_at
+-- so status UPDATEs can name the partition instead of probing every month by session_id.
+ALTER TABLE sse_live_call ADD COLUMN session_created_at TIMESTAMP WITHOUT TIME ZONE;
+
+UPDATE sse_live_call l SET session_created_at = cs.created_at
+FROM call_session cs
+WHERE cs.session_id = l.session_id;
+
+-- A live call without a call_session row cannot be updated anyway
+DELETE FROM sse_live_call WHERE session_created_at IS NULL;
+
+ALTER TABLE sse_live_call ALTER COLUMN session_created_at SET NOT NULL;
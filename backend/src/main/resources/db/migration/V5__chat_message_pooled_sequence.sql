@@ -0,0 +1,4 @@
+-- Hibernate cannot batch inserts into IDENTITY columns. chat_message ids are now
+-- allocated from the existing BIGSERIAL sequence with a pooled optimizer
+-- (allocationSize = 50), which needs the sequence to step by the same amount.
+ALTER SEQUENCE chat_message_id_seq INCREMENT BY 50;
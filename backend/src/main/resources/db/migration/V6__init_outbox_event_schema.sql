@@ -0,0 +1,18 @@
+-- Append-only change log written in the same transaction as call_session and
+-- chat_message changes, relayed to downstream consumers by OutboxRelay.
+CREATE TABLE outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(255) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW(),
+    published_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+-- Pooled allocation, same as chat_message (V5), so outbox rows batch with their source rows
+ALTER SEQUENCE outbox_event_id_seq INCREMENT BY 50;
+
+-- Relay polls unpublished rows in id order
+CREATE INDEX idx_outbox_event_unpublished ON outbox_event(id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_event_published_at ON outbox_event(published_at) WHERE published_at IS NOT NULL;
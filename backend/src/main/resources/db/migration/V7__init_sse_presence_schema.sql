@@ -0,0 +1,17 @@
+-- Multi-node routing: which backend node holds each user's SSE stream.
+-- user_id is the login email, as used for SSE subscriptions.
+CREATE TABLE sse_presence (
+    user_id VARCHAR(255) PRIMARY KEY,
+    node_id VARCHAR(63) NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_sse_presence_node ON sse_presence(node_id);
+
+-- Routed signals too large for one NOTIFY payload (8000 bytes); the receiver deletes
+-- the row when it reads it.
+CREATE TABLE sse_route_spill (
+    id BIGSERIAL PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,14 @@
+-- Keyset pagination for chat history walks (pair, created_at, id). Adding id as the
+-- last column makes the (created_at, id) cursor comparison an index range scan and
+-- keeps ordering stable for messages with the same timestamp. The old pair index is
+-- a prefix of the new one and is dropped.
+UPDATE chat_message SET created_at = NOW() WHERE created_at IS NULL;
+ALTER TABLE chat_message ALTER COLUMN created_at SET NOT NULL;
+
+CREATE INDEX idx_chat_message_pair_keyset ON chat_message(
+    LEAST(sender_id, receiver_id),
+    GREATEST(sender_id, receiver_id),
+    created_at DESC,
+    id DESC
+);
+DROP INDEX idx_chat_message_pair;
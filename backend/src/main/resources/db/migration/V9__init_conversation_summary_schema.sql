@@ -0,0 +1,26 @@
+-- One row per conversation (ordered user pair), maintained on every chat insert so
+-- the partner list is a single indexed read instead of 1 + 2N queries.
+CREATE TABLE conversation_summary (
+    user_low BIGINT NOT NULL REFERENCES users(id),
+    user_high BIGINT NOT NULL REFERENCES users(id),
+    last_message_id BIGINT NOT NULL,
+    last_sender_id BIGINT NOT NULL,
+    last_message TEXT NOT NULL,
+    last_message_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    unread_low INT NOT NULL DEFAULT 0,  -- messages user_low has not read
+    unread_high INT NOT NULL DEFAULT 0, -- messages user_high has not read
+    PRIMARY KEY (user_low, user_high),
+    CHECK (user_low < user_high)
+);
+
+-- Partner list: a user appears on either side of the pair
+CREATE INDEX idx_conversation_summary_low ON conversation_summary(user_low, last_message_at DESC);
+CREATE INDEX idx_conversation_summary_high ON conversation_summary(user_high, last_message_at DESC);
+
+-- Backfill from existing history; everything already sent counts as read
+INSERT INTO conversation_summary (user_low, user_high, last_message_id, last_sender_id, last_message, last_message_at)
+SELECT DISTINCT ON (LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id))
+       LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), id, sender_id, message, created_at
+FROM chat_message
+WHERE sender_id <> receiver_id
+ORDER BY LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), created_at DESC, id DESC;
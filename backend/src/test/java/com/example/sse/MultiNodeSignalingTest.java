@@ -0,0 +1,311 @@
+package com.example.sse;
+
+import com.example.sse.config.ExecutionThreads;
+import com.example.sse.connection.HeartbeatWheel;
+import com.example.sse.connection.ReplayLog;
+import com.example.sse.connection.SseWriterPool;
+import com.example.sse.dto.ChatInboxDto;
+import com.example.sse.reactive.ReactiveSseHub;
+import com.example.sse.routing.InMemoryPresenceDirectory;
+import com.example.sse.routing.LoopbackMessageBus;
+import com.example.sse.routing.NodeIdentity;
+import com.example.sse.routing.SignalRouter;
+import com.example.sse.service.CallSessionRecorder;
+import com.example.sse.service.ChatService;
+import com.example.sse.service.UserDirectory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two SseService nodes in one JVM, wired as in loopback routing mode: each has its own
+ * writer pool, replay log and signal router, and they share the JVM-wide presence
+ * directory and loopback bus. Database-backed collaborators are Mockito stubs.
+ */
+class MultiNodeSignalingTest {
+
+    private static final long AWAIT_MS = 5_000;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final List<Node> nodes = new ArrayList<>();
+
+    // The directory and bus are static; fresh ids keep tests from seeing each other's users
+    private String alice;
+    private String bob;
+    private String carol;
+
+    @BeforeEach
+    void users() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        alice = "alice-" + run + "@test.local";
+        bob = "bob-" + run + "@test.local";
+        carol = "carol-" + run + "@test.local";
+    }
+
+    @AfterEach
+    void close() {
+        nodes.forEach(Node::close);
+    }
+
+    @Test
+    void offerAndAnswerCrossNodes() {
+        Node a = node(30_000);
+        Node b = node(30_000);
+        RecordingEmitter aliceStream = a.connect(alice, null);
+        RecordingEmitter bobStream = b.connect(bob, null);
+
+        a.service.sendSignal(alice, bob, "OFFER", "sdp-offer");
+        Frame offer = bobStream.await(frame -> frame.isSignal("OFFER"));
+        assertThat(offer.data()).contains("\"sender\":\"" + alice + "\"").contains("sdp-offer");
+
+        b.service.sendSignal(bob, alice, "ANSWER", "sdp-answer");
+        Frame answer = aliceStream.await(frame -> frame.isSignal("ANSWER"));
+        assertThat(answer.data()).contains("\"sender\":\"" + bob + "\"").contains("sdp-answer");
+
+        assertThat(a.router.getStats().getForwarded()).isEqualTo(1);
+        assertThat(b.router.getStats().getForwarded()).isEqualTo(1);
+        assertThat(a.router.getStats().getReceived()).isEqualTo(1);
+        assertThat(b.router.getStats().getReceived()).isEqualTo(1);
+    }
+
+    @Test
+    void deadNodeIsNoLongerRoutedTo() throws InterruptedException {
+        long nodeTimeoutMs = 300;
+        Node a = node(nodeTimeoutMs);
+        Node b = node(nodeTimeoutMs);
+        a.connect(bob, null);
+        b.connect(alice, null);
+        assertThat(b.directory.lookup(bob)).contains(a.identity.getId());
+
+        // Node a "crashes": it keeps its entries but stops heartbeating
+        Thread.sleep(nodeTimeoutMs + 100);
+        b.directory.heartbeat();
+        assertThat(b.directory.lookup(bob)).isEmpty();
+
+        b.service.sendSignal(alice, bob, "OFFER", "sdp-offer");
+        assertThat(b.router.getStats().getForwarded()).isZero();
+        assertThat(b.router.getStats().getDropped()).isEqualTo(1);
+
+        // The sweep drops the dead node's entries; a late heartbeat does not bring them back
+        b.directory.expireDeadNodes();
+        a.directory.heartbeat();
+        assertThat(b.directory.lookup(bob)).isEmpty();
+    }
+
+    @Test
+    void framesFromAnotherNodeAreReplayedOnReconnect() {
+        Node a = node(30_000);
+        Node b = node(30_000);
+        RecordingEmitter first = a.connect(bob, null);
+        b.connect(alice, null);
+
+        b.service.sendSignal(alice, bob, "OFFER", "sdp-offer");
+        Frame offer = first.await(frame -> frame.isSignal("OFFER"));
+
+        // The network drops: the next write fails and node a closes the stream
+        first.breakPipe();
+        b.service.sendSignal(alice, bob, "CANDIDATE", "candidate-1");
+        awaitTrue(first::isCompleted);
+        // Bob is between connections; node a keeps the frame for him
+        b.service.sendSignal(alice, bob, "CANDIDATE", "candidate-2");
+        awaitTrue(() -> a.router.getStats().getReceived() == 3);
+
+        RecordingEmitter second = a.connect(bob, offer.id());
+        second.await(frame -> frame.isSignal("CANDIDATE") && frame.data().contains("candidate-2"));
+        assertThat(second.frames()).noneMatch(frame -> frame.name().equals("replay_gap"));
+        assertThat(second.frames()).filteredOn(frame -> frame.isSignal("CANDIDATE"))
+                .extracting(Frame::data)
+                .satisfiesExactly(
+                        data -> assertThat(data).contains("candidate-1"),
+                        data -> assertThat(data).contains("candidate-2"));
+    }
+
+    @Test
+    void reconnectingToAnotherNodeMovesRouting() {
+        Node a = node(30_000);
+        Node b = node(30_000);
+        RecordingEmitter first = a.connect(bob, null);
+        a.connect(carol, null);
+        b.connect(alice, null);
+
+        b.service.sendSignal(alice, bob, "OFFER", "sdp-offer");
+        Frame offer = first.await(frame -> frame.isSignal("OFFER"));
+        first.breakPipe();
+        b.service.sendSignal(alice, bob, "CANDIDATE", "candidate-1");
+        awaitTrue(first::isCompleted);
+
+        // Node b never issued the id, so it cannot replay after it
+        RecordingEmitter second = b.connect(bob, offer.id());
+        Frame gap = second.await(frame -> frame.name().equals("replay_gap"));
+        assertThat(gap.data()).isEqualTo(Long.toString(offer.id()));
+
+        // Node a still holds Bob's detached buffer; the signal must go to b regardless
+        a.service.sendSignal(carol, bob, "CANDIDATE", "candidate-2");
+        Frame forwarded = second.await(frame -> frame.isSignal("CANDIDATE"));
+        assertThat(forwarded.data()).contains("\"sender\":\"" + carol + "\"").contains("candidate-2");
+        assertThat(a.router.getStats().getForwarded()).isEqualTo(1);
+    }
+
+    private Node node(long nodeTimeoutMs) {
+        Node node = new Node(nodeTimeoutMs);
+        nodes.add(node);
+        return node;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_MS);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within " + AWAIT_MS + "ms");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // One backend instance: its own connection state, the JVM-wide directory and bus
+    private class Node {
+        final NodeIdentity identity = new NodeIdentity("test_" + UUID.randomUUID().toString().substring(0, 8));
+        final SseWriterPool writerPool = new SseWriterPool(2, 256, 128, 5000, 5000);
+        final ReplayLog replayLog = new ReplayLog(writerPool, 64, 60_000);
+        final InMemoryPresenceDirectory directory;
+        final LoopbackMessageBus bus = new LoopbackMessageBus();
+        final SignalRouter router;
+        final SseService service;
+
+        Node(long nodeTimeoutMs) {
+            directory = new InMemoryPresenceDirectory(identity, nodeTimeoutMs);
+            directory.start();
+            ReactiveSseHub reactiveHub = new ReactiveSseHub(256, 3_600_000);
+            router = new SignalRouter(replayLog, reactiveHub, directory, bus, identity, objectMapper,
+                    new ExecutionThreads(new StandardEnvironment()), 5, 100);
+            router.start();
+
+            CallSessionRecorder callSessionRecorder = mock(CallSessionRecorder.class);
+            when(callSessionRecorder.recordOffer(any(), any())).thenReturn(true);
+            ChatService chatService = mock(ChatService.class);
+            when(chatService.getInbox(any(), any(), any())).thenReturn(new ChatInboxDto(List.of(), null, false));
+
+            service = new SseService(callSessionRecorder, mock(UserDirectory.class), chatService, writerPool,
+                    mock(HeartbeatWheel.class), replayLog, router, reactiveHub, new SimpleMeterRegistry(),
+                    objectMapper);
+            service.registerMeters();
+        }
+
+        RecordingEmitter connect(String userId, Long lastEventId) {
+            RecordingEmitter emitter = new RecordingEmitter(objectMapper);
+            service.subscribe(userId, emitter, lastEventId);
+            return emitter;
+        }
+
+        void close() {
+            router.shutdown();
+            bus.shutdown();
+            directory.stop();
+            writerPool.shutdown();
+        }
+    }
+
+    private record Frame(Long id, String name, String data) {
+
+        boolean isSignal(String type) {
+            return name.equals("signal") && data.contains("\"type\":\"" + type + "\"");
+        }
+    }
+
+    // Renders frames the way the container would and keeps them; breakPipe() fails later writes
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final ObjectMapper objectMapper;
+        private final List<Frame> frames = new CopyOnWriteArrayList<>();
+        private volatile boolean broken;
+        private volatile boolean completed;
+
+        RecordingEmitter(ObjectMapper objectMapper) {
+            super(0L);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            for (DataWithMediaType item : builder.build()) {
+                text.append(item.getData() instanceof String s ? s : toJson(item.getData()));
+            }
+            frames.add(parse(text.toString()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        void breakPipe() {
+            broken = true;
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        List<Frame> frames() {
+            return frames;
+        }
+
+        Frame await(Predicate<Frame> match) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(AWAIT_MS);
+            while (System.nanoTime() < deadline) {
+                for (Frame frame : frames) {
+                    if (match.test(frame)) {
+                        return frame;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+            throw new AssertionError("No matching frame within " + AWAIT_MS + "ms, got " + frames);
+        }
+
+        private String toJson(Object value) throws JsonProcessingException {
+            return objectMapper.writeValueAsString(value);
+        }
+
+        private static Frame parse(String text) {
+            Long id = null;
+            String name = "message";
+            StringBuilder data = new StringBuilder();
+            for (String line : text.split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = Long.parseLong(line.substring(3));
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                } else if (line.startsWith("data:")) {
+                    data.append(line.substring(5));
+                }
+            }
+            return new Frame(id, name, data.toString());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.sse.service;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/**
+ * The statement counts without Docker: H2 in PostgreSQL mode with the schema Hibernate
+ * generates from the entities. The migrations are Postgres-only and stay off, and so
+ * does search, which {@link ChatReadStatementCountPostgresTest} counts.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // The Hikari properties in application.yml are meant for the Postgres driver
+        "spring.datasource.url=jdbc:h2:mem:chat;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ChatReadStatementCountH2Test extends ChatReadStatementCountTest {
+}
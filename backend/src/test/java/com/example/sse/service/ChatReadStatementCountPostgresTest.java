@@ -0,0 +1,47 @@
+package com.example.sse.service;
+
+import com.example.sse.dto.ChatSearchHitDto;
+import com.example.sse.dto.ChatSearchPageDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The statement counts against the real schema: Flyway migrations, partitions and the
+ * production native queries on Postgres. Skipped where Docker is not available.
+ *
+ * Search is only counted here: it needs the search_vector column (V11) and Postgres
+ * full-text functions, which the H2 schema does not have.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ChatReadStatementCountPostgresTest extends ChatReadStatementCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void searchPageIsOneStatement() {
+        ChatSearchPageDto page = chatService.search("me@test.local", "message 3", null, 2);
+
+        assertThat(page.getHits()).hasSize(2);
+        assertThat(page.getHits()).extracting(ChatSearchHitDto::getText).containsOnly("message 3");
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        ChatSearchPageDto next = chatService.search("me@test.local", "message 3", page.getNextCursor(), 2);
+
+        assertThat(next.getHits()).hasSize(1);
+        assertThat(next.getNextCursor()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
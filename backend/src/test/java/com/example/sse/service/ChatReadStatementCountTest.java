@@ -0,0 +1,150 @@
+package com.example.sse.service;
+
+import com.example.sse.dto.ChatHistoryPageDto;
+import com.example.sse.dto.ChatInboxDto;
+import com.example.sse.dto.ChatInboxMessageDto;
+import com.example.sse.dto.ChatMessageDto;
+import com.example.sse.dto.ConversationPartnerDto;
+import com.example.sse.outbox.OutboxWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * History, contacts and inbox are read as DTO projections with the other party
+ * joined in. Each {@link ChatService} read must cost a fixed number of statements
+ * however many rows and senders it returns; a lazy association or per-row lookup
+ * would show up as N extra statements.
+ *
+ * Users are resolved by the real {@link UserDirectory}, loaded the way it is at
+ * startup, so a lookup that misses it would be counted too. The write path is not
+ * exercised and its collaborators are mocked.
+ *
+ * Runs against Postgres ({@link ChatReadStatementCountPostgresTest}, needs Docker) and
+ * H2 in PostgreSQL mode ({@link ChatReadStatementCountH2Test}), so the seed data is
+ * plain SQL both accept.
+ */
+@Import({ChatService.class, UserDirectory.class})
+abstract class ChatReadStatementCountTest {
+
+    static final int MESSAGES_PER_PARTNER = 20;
+    static final long ACKED_SEQ = 5;
+
+    @MockitoBean
+    private BatchWriter batchWriter;
+
+    @MockitoBean
+    private OutboxWriter outboxWriter;
+
+    @MockitoBean
+    private ConversationSummaryRecorder conversationSummaryRecorder;
+
+    @MockitoBean
+    private GroupCommitChatWriter groupCommitChatWriter;
+
+    @MockitoBean
+    private InboxSequencer inboxSequencer;
+
+    @Autowired
+    ChatService chatService;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    private long me;
+
+    @BeforeEach
+    void seed() {
+        me = insertUser("me@test.local");
+        long[] partners = {insertUser("a@test.local"), insertUser("b@test.local"), insertUser("c@test.local")};
+
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        long seq = 0;
+        for (long partner : partners) {
+            for (int i = 0; i < MESSAGES_PER_PARTNER; i++) {
+                ++seq;
+                jdbcTemplate.update("INSERT INTO conference_chat.chat_message " +
+                                "(id, sender_id, receiver_id, message, created_at, inbox_seq) VALUES (?, ?, ?, ?, ?, ?)",
+                        seq, partner, me, "message " + i, start.plusSeconds(seq), seq);
+            }
+            jdbcTemplate.update("INSERT INTO conference_chat.conversation_summary " +
+                            "(user_low, user_high, last_message_id, last_sender_id, last_message, last_message_at, " +
+                            " unread_low, unread_high) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    Math.min(me, partner), Math.max(me, partner), seq, partner,
+                    "message " + (MESSAGES_PER_PARTNER - 1), start.plusSeconds(seq),
+                    me < partner ? MESSAGES_PER_PARTNER : 0, me < partner ? 0 : MESSAGES_PER_PARTNER);
+        }
+        jdbcTemplate.update("INSERT INTO conference_chat.chat_inbox_cursor (user_id, last_acked_seq, updated_at) " +
+                "VALUES (?, ?, ?)", me, ACKED_SEQ, start);
+
+        // Ids change with every seed; reload as at startup so lookups are cache hits
+        userDirectory.load();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void latestHistoryPageIsSelectPlusMarkRead() {
+        ChatHistoryPageDto page = chatService.getConversation("me@test.local", "a@test.local", null,
+                MESSAGES_PER_PARTNER - 1);
+
+        assertThat(page.getMessages()).hasSize(MESSAGES_PER_PARTNER - 1);
+        assertThat(page.getMessages()).allSatisfy(message -> assertThat(message.getSender()).isEqualTo("a@test.local"));
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        statistics.clear();
+        ChatHistoryPageDto before = chatService.getConversation("me@test.local", "a@test.local",
+                page.getNextCursor(), MESSAGES_PER_PARTNER);
+
+        assertThat(before.getMessages()).extracting(ChatMessageDto::getText).containsExactly("message 0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void contactListIsOneStatement() {
+        List<ConversationPartnerDto> contacts = chatService.getConversationPartners("me@test.local");
+
+        assertThat(contacts).extracting(ConversationPartnerDto::getEmail)
+                .containsExactly("c@test.local", "b@test.local", "a@test.local");
+        assertThat(contacts).allSatisfy(contact -> assertThat(contact.getUnreadCount()).isEqualTo(MESSAGES_PER_PARTNER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void inboxPageIsCursorPlusRange() {
+        ChatInboxDto inbox = chatService.getInbox("me@test.local", null, 200);
+
+        assertThat(inbox.getMessages()).hasSize(3 * MESSAGES_PER_PARTNER - (int) ACKED_SEQ);
+        assertThat(inbox.getMessages()).extracting(ChatInboxMessageDto::getSender)
+                .containsOnly("a@test.local", "b@test.local", "c@test.local");
+        assertThat(inbox.getMessages().get(0).getSeq()).isEqualTo(ACKED_SEQ + 1);
+        assertThat(inbox.isHasMore()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private long insertUser(String email) {
+        jdbcTemplate.update("INSERT INTO conference_chat.users (email, username, password) VALUES (?, ?, 'x')",
+                email, email.substring(0, email.indexOf('@')));
+        return jdbcTemplate.queryForObject("SELECT id FROM conference_chat.users WHERE email = ?", Long.class, email);
+    }
+}
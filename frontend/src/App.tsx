@@ -73,6 +73,34 @@ function App() {
         incomingCallRef.current = incomingCall
     }, [signalHandler, incomingCall])
 
+    // Inbox cursor: remembers the highest seq shown (inbox frame or chat_committed) and acks it
+    // once per second at most, so a burst of chat messages costs one request
+    const ackedSeqRef = useRef(0)
+    // Set while part of the inbox is still unread on the server, so no later seq is acked over it
+    const ackHeldRef = useRef(false)
+    const ackTimerRef = useRef<ReturnType<typeof setTimeout> | null>(null)
+    const ackInbox = useCallback((seq: number) => {
+        if (!user?.token || ackHeldRef.current || seq <= ackedSeqRef.current) return
+        ackedSeqRef.current = seq
+        if (ackTimerRef.current) return
+        const token = user.token
+        ackTimerRef.current = setTimeout(async () => {
+            ackTimerRef.current = null
+            try {
+                await fetch(`${import.meta.env.VITE_API_URL}/chat/inbox/ack?lastSeq=${ackedSeqRef.current}`, {
+                    method: 'POST',
+                    headers: { 'Authorization': `Bearer ${token}` }
+                })
+            } catch (e) {
+                console.error('Failed to ack inbox:', e)
+            }
+        }, 1000)
+    }, [user?.token])
+
+    useEffect(() => {
+        ackedSeqRef.current = 0
+    }, [user?.email])
+
     const handleSSESignal = useCallback((payload: any) => {
         const { sender, type, data } = payload
         console.log('[App] SSE Signal received:', { sender, type, pathname: location.pathname })
@@ -133,18 +161,38 @@ function App() {
     // -- SSE Handlers --
     const handleSSEConnect = useCallback(() => {
         console.log('[App] SSE Connected successfully')
+        // The inbox frame of this subscribe starts from the acked cursor again
+        ackHeldRef.current = false
     }, [])
 
     const handleUserList = useCallback((users: any[]) => {
         setUserList(users)
     }, [])
 
+    // Offline messages: count them for the contacts page, then move the inbox cursor
+    const [inboxCount, setInboxCount] = useState(0)
+    const handleInbox = useCallback((inbox: { messages: any[], lastSeq: number | null, hasMore: boolean }) => {
+        // A message committed during subscribe can arrive both here and in its own inbox frame
+        const unseen = inbox.messages.filter(m => m.seq > ackedSeqRef.current).length
+        setInboxCount(prev => prev + unseen)
+        // hasMore: the rest stays behind the cursor and comes with the next subscribe
+        if (inbox.lastSeq != null) ackInbox(inbox.lastSeq)
+        if (inbox.hasMore) ackHeldRef.current = true
+    }, [ackInbox])
+
+    // A live CHAT frame was stored; seen already, it must not come back in the inbox
+    const handleChatCommitted = useCallback((committed: { sender: string, seq: number }) => {
+        ackInbox(committed.seq)
+    }, [ackInbox])
+
     // -- SSE --
     const { connect, disconnect, sendSignal } = useSSE({
         token: user?.token,
         email: user?.email,
         onUserList: handleUserList,
         onSignal: handleSSESignal,
+        onInbox: handleInbox,
+        onChatCommitted: handleChatCommitted,
         onConnect: handleSSEConnect,
         onDebug: addDebugLog
     })
@@ -372,7 +420,8 @@ function App() {
                             incomingCall={incomingCall}
                             onAcceptCall={acceptCallWrapped}
                             onRejectCall={handleRejectCall}
-                            onHistory={() => navigate('/history')}
+                            inboxCount={inboxCount}
+                            onHistory={() => { setInboxCount(0); navigate('/history') }}
                             onSimulator={() => navigate('/simulator')}
                         />
                     ) : <RedirectToLogin />
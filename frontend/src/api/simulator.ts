@@ -1,14 +1,30 @@
 const API_URL = import.meta.env.VITE_API_URL;
 
+// DIRECT writes rows straight to the database; PIPELINE places calls through SseService.sendSignal
+export type SimulatorMode = 'DIRECT' | 'PIPELINE';
+
+// How call arrivals are spread over time; everything but STEADY is Poisson around the curve
+export type ArrivalCurve = 'STEADY' | 'POISSON' | 'BURST' | 'DIURNAL';
+
 export interface SimulatorConfig {
   userCount: number;
   callsPerMinute: number;
+  // Overrides callsPerMinute when > 0
+  callsPerSecond: number;
+  arrivalCurve: ArrivalCurve;
+  generatorThreads: number;
+  burstMultiplier: number;
+  burstSeconds: number;
+  burstPeriodSeconds: number;
+  rampPeriodSeconds: number;
   chatMessagesPerCall: number;
   minCallDurationSeconds: number;
   maxCallDurationSeconds: number;
   connectedPercent: number;
   rejectedPercent: number;
   cancelledPercent: number;
+  mode: SimulatorMode;
+  candidatesPerCall: number;
 }
 
 export interface SimulatorStatus {
@@ -19,6 +35,18 @@ export interface SimulatorStatus {
   callsByStatus: Record<string, number>;
   startedAt: string | null;
   lastCallAt: string | null;
+  mode: SimulatorMode | null;
+  arrivalCurve: ArrivalCurve | null;
+  callsSkipped: number;
+  requestedCallsPerSecond: number | null;
+  achievedCallsPerSecond: number | null;
+  currentCallsPerSecond: number | null;
+  maxScheduleLagMs: number | null;
+  signalsSent: number | null;
+  signalsDelivered: number | null;
+  signalsPerSecond: number | null;
+  latencyP50Ms: number | null;
+  latencyP99Ms: number | null;
 }
 
 export interface SimulatorHistory {
@@ -34,6 +62,22 @@ export interface SimulatorHistory {
   totalCallsGenerated: number;
   totalMessagesGenerated: number;
   callsByStatus: Record<string, number>;
+  mode: SimulatorMode;
+  candidatesPerCall: number;
+  signalsSent: number;
+  signalsDelivered: number;
+  signalsFailed: number;
+  signalsPerSecond: number | null;
+  latencyP50Ms: number | null;
+  latencyP99Ms: number | null;
+  latencyMaxMs: number | null;
+  arrivalCurve: ArrivalCurve;
+  generatorThreads: number;
+  callsPerSecond: number;
+  requestedCallsPerSecond: number | null;
+  achievedCallsPerSecond: number | null;
+  callsSkipped: number;
+  maxScheduleLagMs: number | null;
   running: boolean;
   startedAt: string;
   stoppedAt: string | null;
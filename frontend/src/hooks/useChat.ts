@@ -12,6 +12,12 @@ interface ChatMessageResponse {
     time: string
 }
 
+interface ChatHistoryPageResponse {
+    messages: ChatMessageResponse[]
+    nextCursor: string | null
+    hasMore: boolean
+}
+
 export function useChat() {
     const [messages, setMessages] = useState<ChatMessage[]>([])
     const [isLoading, setIsLoading] = useState(false)
@@ -29,8 +35,9 @@ export function useChat() {
                 }
             )
             if (response.ok) {
-                const data: ChatMessageResponse[] = await response.json()
-                const formatted = data.map((m) => ({
+                // Latest page only; older pages are browsed from Chat History
+                const data: ChatHistoryPageResponse = await response.json()
+                const formatted = data.messages.map((m) => ({
                     sender: m.sender === currentUserEmail ? 'ME' : m.sender,
                     text: m.text,
                     time: new Date(m.time).toLocaleTimeString()
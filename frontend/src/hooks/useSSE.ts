@@ -8,16 +8,24 @@ interface UseSSEProps {
     onConnect?: () => void
     onUserList?: (users: any[]) => void
     onSignal?: (signal: any) => void
+    onInbox?: (inbox: { messages: any[], lastSeq: number | null, hasMore: boolean }) => void
+    onChatCommitted?: (committed: { sender: string, seq: number }) => void
     onDebug?: (type: string, msg: string) => void
 }
 
-export function useSSE({ token, email, onConnect, onUserList, onSignal, onDebug }: UseSSEProps) {
+export function useSSE({ token, email, onConnect, onUserList, onSignal, onInbox, onChatCommitted, onDebug }: UseSSEProps) {
     const eventSourceRef = useRef<EventSource | null>(null)
 
+    // Delta presence state: email -> user, plus the last applied roster version
+    const presenceRef = useRef<Map<string, any>>(new Map())
+    const presenceVersionRef = useRef<number>(0)
+
     // Refs for callbacks to allow stable connect function
     const onConnectRef = useRef(onConnect)
     const onUserListRef = useRef(onUserList)
     const onSignalRef = useRef(onSignal)
+    const onInboxRef = useRef(onInbox)
+    const onChatCommittedRef = useRef(onChatCommitted)
     const onDebugRef = useRef(onDebug)
     // const eventSourceRef = useRef<EventSource | null>(null) // already defined
 
@@ -26,8 +34,10 @@ export function useSSE({ token, email, onConnect, onUserList, onSignal, onDebug
         onConnectRef.current = onConnect
         onUserListRef.current = onUserList
         onSignalRef.current = onSignal
+        onInboxRef.current = onInbox
+        onChatCommittedRef.current = onChatCommitted
         onDebugRef.current = onDebug
-    }, [onConnect, onUserList, onSignal, onDebug])
+    }, [onConnect, onUserList, onSignal, onInbox, onChatCommitted, onDebug])
 
     const connect = useCallback(() => {
         if (!token || !email) {
@@ -56,6 +66,66 @@ export function useSSE({ token, email, onConnect, onUserList, onSignal, onDebug
                 }
             })
 
+            const applySnapshot = (snapshot: { version: number, users: any[] }) => {
+                presenceRef.current = new Map(snapshot.users.map((u) => [u.email, u]))
+                presenceVersionRef.current = snapshot.version
+                onUserListRef.current?.(Array.from(presenceRef.current.values()))
+            }
+
+            const resyncPresence = async () => {
+                try {
+                    const response = await fetch(`${import.meta.env.VITE_API_URL}/sse/presence`, {
+                        headers: { 'Authorization': `Bearer ${token}` }
+                    })
+                    applySnapshot(await response.json())
+                } catch (err) {
+                    console.error("Failed to resync presence", err)
+                }
+            }
+
+            // Deltas must arrive with consecutive versions; a gap means we missed one
+            const applyDelta = (delta: { version: number, email: string, username?: string }, joined: boolean) => {
+                if (delta.version <= presenceVersionRef.current) return
+                if (delta.version !== presenceVersionRef.current + 1) {
+                    resyncPresence()
+                    return
+                }
+                if (joined) {
+                    presenceRef.current.set(delta.email, { email: delta.email, username: delta.username })
+                } else {
+                    presenceRef.current.delete(delta.email)
+                }
+                presenceVersionRef.current = delta.version
+                onUserListRef.current?.(Array.from(presenceRef.current.values()))
+            }
+
+            es.addEventListener('presence_snapshot', (e: MessageEvent) => {
+                onDebugRef.current?.('SSE IN (user_list snapshot)', e.data)
+                try {
+                    applySnapshot(JSON.parse(e.data))
+                } catch (err) {
+                    console.error("Failed to parse presence snapshot", err)
+                }
+            })
+
+            es.addEventListener('user_joined', (e: MessageEvent) => {
+                onDebugRef.current?.('SSE IN (user_list joined)', e.data)
+                try {
+                    applyDelta(JSON.parse(e.data), true)
+                } catch (err) {
+                    console.error("Failed to parse user_joined", err)
+                }
+            })
+
+            es.addEventListener('user_left', (e: MessageEvent) => {
+                onDebugRef.current?.('SSE IN (user_list left)', e.data)
+                try {
+                    applyDelta(JSON.parse(e.data), false)
+                } catch (err) {
+                    console.error("Failed to parse user_left", err)
+                }
+            })
+
             es.addEventListener('signal', (e: MessageEvent) => {
                 console.log('[useSSE] signal event received:', e.data)
                 onDebugRef.current?.('SSE IN', e.data)
@@ -68,6 +138,26 @@ export function useSSE({ token, email, onConnect, onUserList, onSignal, onDebug
                 }
             })
 
+            // Chat messages received while offline, sent once per subscribe until acked,
+            // or a single one whose live CHAT frame found no stream
+            es.addEventListener('inbox', (e: MessageEvent) => {
+                onDebugRef.current?.('SSE IN (inbox)', e.data)
+                try {
+                    onInboxRef.current?.(JSON.parse(e.data))
+                } catch (err) {
+                    console.error("Failed to parse inbox", err)
+                }
+            })
+
+            // Follows a live CHAT frame once the message is stored: its inbox seq
+            es.addEventListener('chat_committed', (e: MessageEvent) => {
+                try {
+                    onChatCommittedRef.current?.(JSON.parse(e.data))
+                } catch (err) {
+                    console.error("Failed to parse chat_committed", err)
+                }
+            })
+
             es.onerror = (err) => {
                 console.error("SSE Error", err)
                 // Do NOT close explicitly; let browser retry connection
@@ -2,12 +2,14 @@ import { useState, useEffect } from 'react'
 import { Header } from '@/components/ui/Header'
 import { Card } from '@/components/ui/Card'
 import { Button } from '@/components/ui/Button'
+import { Input } from '@/components/ui/Input'
 
 interface ConversationPartner {
     email: string
     username: string
     lastMessage: string
     lastMessageTime: string
+    unreadCount: number
 }
 
 interface ChatMessage {
@@ -16,6 +18,14 @@ interface ChatMessage {
     time: string
 }
 
+interface SearchHit {
+    id: number
+    partner: string
+    sender: string
+    text: string
+    time: string
+}
+
 interface ChatHistoryPageProps {
     email: string
     token: string
@@ -34,6 +44,12 @@ export default function ChatHistoryPage({
     const [selectedPartner, setSelectedPartner] = useState<string | null>(null)
     const [messages, setMessages] = useState<ChatMessage[]>([])
     const [isLoadingMessages, setIsLoadingMessages] = useState(false)
+    const [nextCursor, setNextCursor] = useState<string | null>(null)
+    const [isLoadingOlder, setIsLoadingOlder] = useState(false)
+    const [query, setQuery] = useState('')
+    const [hits, setHits] = useState<SearchHit[] | null>(null)
+    const [searchCursor, setSearchCursor] = useState<string | null>(null)
+    const [isSearching, setIsSearching] = useState(false)
 
     useEffect(() => {
         const loadPartners = async () => {
@@ -54,26 +70,85 @@ export default function ChatHistoryPage({
         loadPartners()
     }, [token])
 
+    const fetchPage = async (partnerEmail: string, before: string | null) => {
+        const params = new URLSearchParams({ limit: '50' })
+        if (before) params.set('before', before)
+        const response = await fetch(
+            `${import.meta.env.VITE_API_URL}/chat/history/${encodeURIComponent(partnerEmail)}?${params}`,
+            { headers: { 'Authorization': `Bearer ${token}` } }
+        )
+        if (!response.ok) return null
+        const data = await response.json()
+        return {
+            messages: data.messages.map((m: any) => ({
+                sender: m.sender === email ? 'ME' : m.sender,
+                text: m.text,
+                time: new Date(m.time).toLocaleString()
+            })) as ChatMessage[],
+            nextCursor: data.nextCursor as string | null
+        }
+    }
+
     const loadMessages = async (partnerEmail: string) => {
         setIsLoadingMessages(true)
         setSelectedPartner(partnerEmail)
+        setMessages([])
+        setNextCursor(null)
+        try {
+            const page = await fetchPage(partnerEmail, null)
+            if (page) {
+                setMessages(page.messages)
+                setNextCursor(page.nextCursor)
+                // The server clears the unread count when the latest page is read
+                setPartners(prev => prev.map(p => p.email === partnerEmail ? { ...p, unreadCount: 0 } : p))
+            }
+        } catch (e) {
+            console.error('Failed to load messages:', e)
+        } finally {
+            setIsLoadingMessages(false)
+        }
+    }
+
+    // Keyset paging: each click loads the page before the oldest message shown
+    const loadOlder = async () => {
+        if (!selectedPartner || !nextCursor) return
+        setIsLoadingOlder(true)
         try {
+            const page = await fetchPage(selectedPartner, nextCursor)
+            if (page) {
+                setMessages(prev => [...page.messages, ...prev])
+                setNextCursor(page.nextCursor)
+            }
+        } catch (e) {
+            console.error('Failed to load older messages:', e)
+        } finally {
+            setIsLoadingOlder(false)
+        }
+    }
+
+    // Ranked server-side search; "More results" continues from the last hit
+    const search = async (after: string | null) => {
+        if (!query.trim()) {
+            setHits(null)
+            return
+        }
+        setIsSearching(true)
+        try {
+            const params = new URLSearchParams({ q: query, limit: '20' })
+            if (after) params.set('after', after)
             const response = await fetch(
-                `${import.meta.env.VITE_API_URL}/chat/history/${encodeURIComponent(partnerEmail)}`,
+                `${import.meta.env.VITE_API_URL}/chat/search?${params}`,
                 { headers: { 'Authorization': `Bearer ${token}` } }
             )
             if (response.ok) {
                 const data = await response.json()
-                setMessages(data.map((m: any) => ({
-                    sender: m.sender === email ? 'ME' : m.sender,
-                    text: m.text,
-                    time: new Date(m.time).toLocaleString()
-                })))
+                setHits(prev => after && prev ? [...prev, ...data.hits] : data.hits)
+                setSearchCursor(data.nextCursor)
             }
         } catch (e) {
-            console.error('Failed to load messages:', e)
+            console.error('Failed to search messages:', e)
         } finally {
-            setIsLoadingMessages(false)
+            setIsSearching(false)
         }
     }
 
@@ -106,6 +181,18 @@ export default function ChatHistoryPage({
                         </Button>
 
                         <div className="flex-1 overflow-y-auto space-y-2">
+                            {!isLoadingMessages && nextCursor && (
+                                <div className="text-center">
+                                    <Button
+                                        variant="ghost"
+                                        size="sm"
+                                        onClick={loadOlder}
+                                        disabled={isLoadingOlder}
+                                    >
+                                        {isLoadingOlder ? 'Loading...' : 'Load older messages'}
+                                    </Button>
+                                </div>
+                            )}
                             {isLoadingMessages ? (
                                 <div className="text-center text-gray-400 mt-10">Loading messages...</div>
                             ) : messages.length === 0 ? (
@@ -134,7 +221,51 @@ export default function ChatHistoryPage({
                 ) : (
                     // Partner list view
                     <div className="flex-1 overflow-y-auto">
-                        {isLoading ? (
+                        <form
+                            className="mb-4"
+                            onSubmit={e => { e.preventDefault(); search(null) }}
+                        >
+                            <Input
+                                placeholder="Search messages..."
+                                value={query}
+                                onChange={e => setQuery(e.target.value)}
+                            />
+                        </form>
+                        {hits !== null ? (
+                            hits.length === 0 ? (
+                                <div className="text-center text-gray-400 mt-10">
+                                    {isSearching ? 'Searching...' : 'No matching messages'}
+                                </div>
+                            ) : (
+                                <div className="space-y-2">
+                                    {hits.map(hit => (
+                                        <Card
+                                            key={hit.id}
+                                            className="p-4 cursor-pointer hover:bg-gray-800/50 transition-colors"
+                                            onClick={() => loadMessages(hit.partner)}
+                                        >
+                                            <div className="flex justify-between text-xs text-gray-500 mb-1">
+                                                <span>{hit.sender === email ? `You → ${hit.partner}` : hit.sender}</span>
+                                                <span>{formatTime(hit.time)}</span>
+                                            </div>
+                                            <div className="text-sm text-gray-100">{hit.text}</div>
+                                        </Card>
+                                    ))}
+                                    {searchCursor && (
+                                        <div className="text-center">
+                                            <Button
+                                                variant="ghost"
+                                                size="sm"
+                                                onClick={() => search(searchCursor)}
+                                                disabled={isSearching}
+                                            >
+                                                {isSearching ? 'Loading...' : 'More results'}
+                                            </Button>
+                                        </div>
+                                    )}
+                                </div>
+                            )
+                        ) : isLoading ? (
                             <div className="text-center text-gray-400 mt-10">Loading...</div>
                         ) : partners.length === 0 ? (
                             <div className="text-center text-gray-400 mt-10">No conversations yet</div>
@@ -154,8 +285,15 @@ export default function ChatHistoryPage({
                                                 <div className="font-semibold text-white">{partner.username}</div>
                                                 <div className="text-sm text-gray-400 truncate">{partner.lastMessage}</div>
                                             </div>
-                                            <div className="text-xs text-gray-500">
-                                                {formatTime(partner.lastMessageTime)}
+                                            <div className="flex flex-col items-end gap-1">
+                                                <div className="text-xs text-gray-500">
+                                                    {formatTime(partner.lastMessageTime)}
+                                                </div>
+                                                {partner.unreadCount > 0 && (
+                                                    <span className="min-w-[1.25rem] px-1.5 rounded-full bg-blue-600 text-white text-xs text-center">
+                                                        {partner.unreadCount}
+                                                    </span>
+                                                )}
                                             </div>
                                         </div>
                                     </Card>
@@ -5,7 +5,9 @@ import { Button } from '@/components/ui/Button'
 import { Input } from '@/components/ui/Input'
 import { Modal } from '@/components/ui/Modal'
 import {
+    ArrivalCurve,
     SimulatorConfig,
+    SimulatorMode,
     SimulatorStatus,
     SimulatorHistory,
     startSimulation,
@@ -31,12 +33,21 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
     // Config state with defaults
     const [userCount, setUserCount] = useState(10)
     const [callsPerMinute, setCallsPerMinute] = useState(10)
+    const [callsPerSecond, setCallsPerSecond] = useState(0)
+    const [arrivalCurve, setArrivalCurve] = useState<ArrivalCurve>('STEADY')
+    const [generatorThreads, setGeneratorThreads] = useState(4)
+    const [burstMultiplier, setBurstMultiplier] = useState(5)
+    const [burstSeconds, setBurstSeconds] = useState(10)
+    const [burstPeriodSeconds, setBurstPeriodSeconds] = useState(60)
+    const [rampPeriodSeconds, setRampPeriodSeconds] = useState(600)
     const [chatMessagesPerCall, setChatMessagesPerCall] = useState(3)
     const [minDuration, setMinDuration] = useState(5)
     const [maxDuration, setMaxDuration] = useState(30)
     const [connectedPercent, setConnectedPercent] = useState(60)
     const [rejectedPercent, setRejectedPercent] = useState(20)
     const [cancelledPercent, setCancelledPercent] = useState(15)
+    const [mode, setMode] = useState<SimulatorMode>('DIRECT')
+    const [candidatesPerCall, setCandidatesPerCall] = useState(8)
 
     // Load status and history on mount
     useEffect(() => {
@@ -86,12 +97,21 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
         const config: SimulatorConfig = {
             userCount,
             callsPerMinute,
+            callsPerSecond,
+            arrivalCurve,
+            generatorThreads,
+            burstMultiplier,
+            burstSeconds,
+            burstPeriodSeconds,
+            rampPeriodSeconds,
             chatMessagesPerCall,
             minCallDurationSeconds: minDuration,
             maxCallDurationSeconds: maxDuration,
             connectedPercent,
             rejectedPercent,
-            cancelledPercent
+            cancelledPercent,
+            mode,
+            candidatesPerCall
         }
 
         setLoading(true)
@@ -141,6 +161,8 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
         setConnectedPercent(60)
         setRejectedPercent(20)
         setCancelledPercent(15)
+        setMode('DIRECT')
+        setCandidatesPerCall(8)
     }
 
     const openCreateModal = () => {
@@ -205,8 +227,11 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
                                                             #{history.id}
                                                         </span>
                                                         <span className="text-gray-400 text-sm ml-2">
-                                                            {history.userCount} users, {history.callsPerMinute}/min
+                                                            {history.userCount} users, {formatRate(history.callsPerSecond)}/s
                                                         </span>
+                                                        {history.mode === 'PIPELINE' && (
+                                                            <span className="text-xs bg-purple-700 px-1.5 py-0.5 rounded ml-2">pipeline</span>
+                                                        )}
                                                         <div className="text-xs text-gray-500">
                                                             {formatDateTime(history.startedAt)}
                                                         </div>
@@ -287,14 +312,69 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
                                     )
                                 })()}
 
+                                {/* Requested vs achieved call rate */}
+                                {(() => {
+                                    const isRunning = selectedHistory.running && status?.running
+                                    const requested = isRunning ? status.requestedCallsPerSecond : selectedHistory.requestedCallsPerSecond
+                                    const achieved = isRunning ? status.achievedCallsPerSecond : selectedHistory.achievedCallsPerSecond
+                                    const skipped = isRunning ? status.callsSkipped : selectedHistory.callsSkipped
+                                    const lag = isRunning ? status.maxScheduleLagMs : selectedHistory.maxScheduleLagMs
+
+                                    return (
+                                        <div className="pt-4 border-t border-gray-700">
+                                            <div className="text-sm text-gray-500 mb-2">Call Rate</div>
+                                            <div className="grid grid-cols-2 md:grid-cols-4 gap-2 text-sm">
+                                                <div><span className="text-gray-500">Requested/s:</span> <span className="text-white">{formatNumber(requested)}</span></div>
+                                                <div><span className="text-gray-500">Achieved/s:</span> <span className="text-white">{formatNumber(achieved)}</span></div>
+                                                <div><span className="text-gray-500">Skipped:</span> <span className="text-white">{skipped ?? 0}</span></div>
+                                                <div><span className="text-gray-500">Max lag:</span> <span className="text-white">{formatNumber(lag)} ms</span></div>
+                                            </div>
+                                            {isRunning && status.currentCallsPerSecond != null && (
+                                                <div className="text-xs text-gray-500 mt-2">Curve now at {formatNumber(status.currentCallsPerSecond)}/s</div>
+                                            )}
+                                        </div>
+                                    )
+                                })()}
+
+                                {/* Signaling throughput and latency (pipeline mode only) */}
+                                {selectedHistory.mode === 'PIPELINE' && (() => {
+                                    const isRunning = selectedHistory.running && status?.running
+                                    const sent = isRunning ? status.signalsSent : selectedHistory.signalsSent
+                                    const delivered = isRunning ? status.signalsDelivered : selectedHistory.signalsDelivered
+                                    const perSecond = isRunning ? status.signalsPerSecond : selectedHistory.signalsPerSecond
+                                    const p50 = isRunning ? status.latencyP50Ms : selectedHistory.latencyP50Ms
+                                    const p99 = isRunning ? status.latencyP99Ms : selectedHistory.latencyP99Ms
+
+                                    return (
+                                        <div className="pt-4 border-t border-gray-700">
+                                            <div className="text-sm text-gray-500 mb-2">Signaling</div>
+                                            <div className="grid grid-cols-2 md:grid-cols-4 gap-2 text-sm">
+                                                <div><span className="text-gray-500">Sent:</span> <span className="text-white">{sent ?? 0}</span></div>
+                                                <div><span className="text-gray-500">Delivered:</span> <span className="text-white">{delivered ?? 0}</span></div>
+                                                <div><span className="text-gray-500">Signals/s:</span> <span className="text-white">{formatNumber(perSecond)}</span></div>
+                                                <div><span className="text-gray-500">Latency p50/p99:</span> <span className="text-white">{formatNumber(p50)} / {formatNumber(p99)} ms</span></div>
+                                            </div>
+                                            {!isRunning && selectedHistory.signalsFailed > 0 && (
+                                                <div className="text-xs text-red-400 mt-2">{selectedHistory.signalsFailed} signals failed</div>
+                                            )}
+                                        </div>
+                                    )
+                                })()}
+
                                 {/* Configuration */}
                                 <div className="pt-4 border-t border-gray-700">
                                     <div className="text-sm text-gray-500 mb-2">Configuration</div>
                                     <div className="grid grid-cols-2 md:grid-cols-4 gap-2 text-sm">
                                         <div><span className="text-gray-500">Users:</span> <span className="text-white">{selectedHistory.userCount}</span></div>
-                                        <div><span className="text-gray-500">Calls/min:</span> <span className="text-white">{selectedHistory.callsPerMinute}</span></div>
+                                        <div><span className="text-gray-500">Calls/s:</span> <span className="text-white">{formatRate(selectedHistory.callsPerSecond)}</span></div>
                                         <div><span className="text-gray-500">Messages:</span> <span className="text-white">{selectedHistory.chatMessagesPerCall}</span></div>
                                         <div><span className="text-gray-500">Duration:</span> <span className="text-white">{selectedHistory.minCallDurationSeconds}-{selectedHistory.maxCallDurationSeconds}s</span></div>
+                                        <div><span className="text-gray-500">Mode:</span> <span className="text-white">{selectedHistory.mode}</span></div>
+                                        <div><span className="text-gray-500">Arrivals:</span> <span className="text-white">{selectedHistory.arrivalCurve}</span></div>
+                                        <div><span className="text-gray-500">Threads:</span> <span className="text-white">{selectedHistory.generatorThreads}</span></div>
+                                        {selectedHistory.mode === 'PIPELINE' && (
+                                            <div><span className="text-gray-500">Candidates/call:</span> <span className="text-white">{selectedHistory.candidatesPerCall}</span></div>
+                                        )}
                                     </div>
                                     <div className="grid grid-cols-2 md:grid-cols-4 gap-2 text-sm mt-2">
                                         <div><span className="text-green-400">Connected:</span> <span className="text-white">{selectedHistory.connectedPercent}%</span></div>
@@ -337,11 +417,11 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
                     {/* Basic Settings */}
                     <div className="grid grid-cols-2 gap-4">
                         <div>
-                            <label className="block text-sm text-gray-400 mb-1">Virtual Users (2-1000)</label>
+                            <label className="block text-sm text-gray-400 mb-1">Virtual Users (2-{mode === 'PIPELINE' ? 1000 : 100000})</label>
                             <Input
                                 type="number"
                                 min={2}
-                                max={1000}
+                                max={mode === 'PIPELINE' ? 1000 : 100000}
                                 value={userCount}
                                 onChange={e => setUserCount(Number(e.target.value))}
                             />
@@ -354,6 +434,7 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
                                 min={1}
                                 max={60}
                                 value={callsPerMinute}
+                                disabled={callsPerSecond > 0}
                                 onChange={e => setCallsPerMinute(Number(e.target.value))}
                             />
                         </div>
@@ -391,6 +472,111 @@ export default function SimulatorPage({ email, token, onLogout, onBack }: Simula
                         </div>
                     </div>
 
+                    {/* Mode */}
+                    <div className="border-t border-gray-700 pt-4 grid grid-cols-2 gap-4">
+                        <div>
+                            <label className="block text-sm text-gray-400 mb-1">Mode</label>
+                            <select
+                                value={mode}
+                                onChange={e => setMode(e.target.value as SimulatorMode)}
+                                className="flex h-9 w-full rounded-md border border-gray-600 bg-gray-800 px-3 py-1 text-sm text-white"
+                            >
+                                <option value="DIRECT">Direct (DB writes)</option>
+                                <option value="PIPELINE">Pipeline (sendSignal)</option>
+                            </select>
+                        </div>
+                        <div>
+                            <label className="block text-sm text-gray-400 mb-1">ICE Candidates/Call</label>
+                            <Input
+                                type="number"
+                                min={0}
+                                max={50}
+                                value={candidatesPerCall}
+                                disabled={mode !== 'PIPELINE'}
+                                onChange={e => setCandidatesPerCall(Number(e.target.value))}
+                            />
+                        </div>
+                    </div>
+
+                    {/* Arrival rate */}
+                    <div className="border-t border-gray-700 pt-4 grid grid-cols-2 gap-4">
+                        <div>
+                            <label className="block text-sm text-gray-400 mb-1">Calls/Second (0 = use Calls/Minute)</label>
+                            <Input
+                                type="number"
+                                min={0}
+                                max={mode === 'PIPELINE' ? 1000 : 20000}
+                                step="any"
+                                value={callsPerSecond}
+                                onChange={e => setCallsPerSecond(Number(e.target.value))}
+                            />
+                        </div>
+                        <div>
+                            <label className="block text-sm text-gray-400 mb-1">Generator Threads (1-64)</label>
+                            <Input
+                                type="number"
+                                min={1}
+                                max={64}
+                                value={generatorThreads}
+                                onChange={e => setGeneratorThreads(Number(e.target.value))}
+                            />
+                        </div>
+                        <div>
+                            <label className="block text-sm text-gray-400 mb-1">Arrival Curve</label>
+                            <select
+                                value={arrivalCurve}
+                                onChange={e => setArrivalCurve(e.target.value as ArrivalCurve)}
+                                className="flex h-9 w-full rounded-md border border-gray-600 bg-gray-800 px-3 py-1 text-sm text-white"
+                            >
+                                <option value="STEADY">Steady (even spacing)</option>
+                                <option value="POISSON">Poisson</option>
+                                <option value="BURST">Burst</option>
+                                <option value="DIURNAL">Diurnal ramp</option>
+                            </select>
+                        </div>
+                        {arrivalCurve === 'BURST' && (
+                            <div>
+                                <label className="block text-sm text-gray-400 mb-1">Burst ×rate / seconds / period (s)</label>
+                                <div className="flex gap-1 items-center">
+                                    <Input
+                                        type="number"
+                                        min={1}
+                                        max={100}
+                                        value={burstMultiplier}
+                                        onChange={e => setBurstMultiplier(Number(e.target.value))}
+                                        className="w-16"
+                                    />
+                                    <Input
+                                        type="number"
+                                        min={1}
+                                        value={burstSeconds}
+                                        onChange={e => setBurstSeconds(Number(e.target.value))}
+                                        className="w-16"
+                                    />
+                                    <Input
+                                        type="number"
+                                        min={1}
+                                        value={burstPeriodSeconds}
+                                        onChange={e => setBurstPeriodSeconds(Number(e.target.value))}
+                                        className="w-16"
+                                    />
+                                </div>
+                            </div>
+                        )}
+                        {arrivalCurve === 'DIURNAL' && (
+                            <div>
+                                <label className="block text-sm text-gray-400 mb-1">Ramp Period (s)</label>
+                                <Input
+                                    type="number"
+                                    min={10}
+                                    max={86400}
+                                    value={rampPeriodSeconds}
+                                    onChange={e => setRampPeriodSeconds(Number(e.target.value))}
+                                />
+                            </div>
+                        )}
+                    </div>
+
                     {/* Outcome Probabilities */}
                     <div className="border-t border-gray-700 pt-4">
                         <div className="text-sm text-gray-400 mb-2">Outcome Probabilities (≤100%)</div>
@@ -464,6 +650,15 @@ function getStatusColor(status: string): string {
     }
 }
 
+function formatNumber(value: number | null | undefined): string {
+    return value == null ? '-' : value.toFixed(2)
+}
+
+// Calls per second as configured; small legacy rates keep their decimals
+function formatRate(value: number): string {
+    return value >= 10 ? value.toFixed(0) : value.toFixed(2)
+}
+
 function formatDateTime(dateStr: string): string {
     const date = new Date(dateStr)
     return date.toLocaleString('ko-KR', {
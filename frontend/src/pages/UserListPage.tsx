@@ -18,6 +18,7 @@ interface UserListPageProps {
     incomingCall: { sender: string; data: any } | null
     onAcceptCall: () => void
     onRejectCall: () => void
+    inboxCount?: number
     onHistory?: () => void
     onSimulator?: () => void
 }
@@ -30,6 +31,7 @@ export default function UserListPage({
     incomingCall,
     onAcceptCall,
     onRejectCall,
+    inboxCount = 0,
     onHistory,
     onSimulator
 }: UserListPageProps) {
@@ -69,6 +71,15 @@ export default function UserListPage({
                     )}
                 </div>
 
+                {inboxCount > 0 && onHistory && (
+                    <Card
+                        className="mb-4 p-3 cursor-pointer text-sm text-blue-300 hover:bg-gray-800/50 transition-colors"
+                        onClick={onHistory}
+                    >
+                        {inboxCount} new {inboxCount === 1 ? 'message' : 'messages'} while you were away
+                    </Card>
+                )}
+
                 <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-4 overflow-y-auto pb-4">
                     {filteredUsers.length === 0 ? (
                         <div className="col-span-full text-center text-gray-500 mt-10">No users found</div>